@@ -2,6 +2,8 @@ package main;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.nio.channels.FileChannel;
 import java.nio.file.*;
 
 /**
@@ -11,6 +13,10 @@ import java.nio.file.*;
  * <p>Essa classe lida com clientes, restaurantes, produtos e pedidos,
  * garantindo que os dados sejam persistidos e recuperados corretamente
  * do diretório definido.</p>
+ *
+ * <p>Os arquivos são gravados no formato do {@link CodecBinario}. Arquivos
+ * antigos, gravados com a serialização padrão do Java, continuam sendo lidos
+ * e podem ser convertidos com {@link #migrarArquivosLegados()}.</p>
  */
 public class ArquivoUtils {
 
@@ -29,6 +35,21 @@ public class ArquivoUtils {
     /** Caminho do arquivo que armazena os pedidos. */
     private static final String Pedidos = Caminho + "Pedidos.dat";
 
+    /** Caminho do snapshot unificado, com clientes, restaurantes e pedidos em um único arquivo. */
+    private static final String Snapshot = Caminho + "Dados.dat";
+
+    /** Caminho do diário de operações gravadas após o último snapshot. */
+    private static final String Diario = Caminho + "Diario.log";
+
+    /**
+     * Retorna o caminho do diário de operações.
+     *
+     * @return caminho do arquivo do diário.
+     */
+    public static String caminhoDiario() {
+        return Diario;
+    }
+
     /**
      * Garante que o diretório de armazenamento exista, criando-o se necessário.
      *
@@ -50,7 +71,7 @@ public class ArquivoUtils {
      * @throws ArquivoNaoEncontradoException se ocorrer erro ao salvar o arquivo.
      */
     public static void salvarClientes(ArrayList<Cliente> Clientes) throws ArquivoNaoEncontradoException {
-        salvarObjeto(Clientes, ArquivoUtils.Clientes, "Clientes");
+        salvarLista(Clientes, ArquivoUtils.Clientes, "Clientes", (e, c) -> e.escreverCliente(c, true));
     }
 
     /**
@@ -59,9 +80,8 @@ public class ArquivoUtils {
      * @return lista de clientes carregada, ou vazia se o arquivo não existir.
      * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura do arquivo.
      */
-    @SuppressWarnings("unchecked")
     public static ArrayList<Cliente> carregarClientes() throws ArquivoNaoEncontradoException {
-        return carregarObjeto(ArquivoUtils.Clientes, "Clientes");
+        return carregarLista(ArquivoUtils.Clientes, "Clientes", CodecBinario.Leitor::lerCliente);
     }
 
     /**
@@ -71,7 +91,7 @@ public class ArquivoUtils {
      * @throws ArquivoNaoEncontradoException se ocorrer erro ao salvar o arquivo.
      */
     public static void salvarRestaurantes(ArrayList<Restaurante> Restaurantes) throws ArquivoNaoEncontradoException {
-        salvarObjeto(Restaurantes, ArquivoUtils.Restaurantes, "Restaurantes");
+        salvarLista(Restaurantes, ArquivoUtils.Restaurantes, "Restaurantes", (e, r) -> e.escreverRestaurante(r, true));
     }
 
     /**
@@ -80,9 +100,8 @@ public class ArquivoUtils {
      * @return lista de restaurantes carregada, ou vazia se o arquivo não existir.
      * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura do arquivo.
      */
-    @SuppressWarnings("unchecked")
     public static ArrayList<Restaurante> carregarRestaurantes() throws ArquivoNaoEncontradoException {
-        return carregarObjeto(ArquivoUtils.Restaurantes, "Restaurantes");
+        return carregarLista(ArquivoUtils.Restaurantes, "Restaurantes", CodecBinario.Leitor::lerRestaurante);
     }
 
     /**
@@ -92,7 +111,7 @@ public class ArquivoUtils {
      * @throws ArquivoNaoEncontradoException se ocorrer erro ao salvar o arquivo.
      */
     public static void salvarProdutos(ArrayList<Produto> Produtos) throws ArquivoNaoEncontradoException {
-        salvarObjeto(Produtos, ArquivoUtils.Produtos, "Produtos");
+        salvarLista(Produtos, ArquivoUtils.Produtos, "Produtos", CodecBinario.Escritor::escreverProduto);
     }
 
     /**
@@ -101,9 +120,8 @@ public class ArquivoUtils {
      * @return lista de produtos carregada, ou vazia se o arquivo não existir.
      * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura do arquivo.
      */
-    @SuppressWarnings("unchecked")
     public static ArrayList<Produto> carregarProdutos() throws ArquivoNaoEncontradoException {
-        return carregarObjeto(ArquivoUtils.Produtos, "Produtos");
+        return carregarLista(ArquivoUtils.Produtos, "Produtos", CodecBinario.Leitor::lerProduto);
     }
 
     /**
@@ -113,7 +131,7 @@ public class ArquivoUtils {
      * @throws ArquivoNaoEncontradoException se ocorrer erro ao salvar o arquivo.
      */
     public static void salvarPedidos(ArrayList<Pedido> Pedidos) throws ArquivoNaoEncontradoException {
-        salvarObjeto(Pedidos, ArquivoUtils.Pedidos, "Pedidos");
+        salvarLista(Pedidos, ArquivoUtils.Pedidos, "Pedidos", CodecBinario.Escritor::escreverPedido);
     }
 
     /**
@@ -122,49 +140,327 @@ public class ArquivoUtils {
      * @return lista de pedidos carregada, ou vazia se o arquivo não existir.
      * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura do arquivo.
      */
-    @SuppressWarnings("unchecked")
     public static ArrayList<Pedido> carregarPedidos() throws ArquivoNaoEncontradoException {
-        return carregarObjeto(ArquivoUtils.Pedidos, "Pedidos");
+        return carregarLista(ArquivoUtils.Pedidos, "Pedidos", CodecBinario.Leitor::lerPedido);
+    }
+
+    /**
+     * Salva clientes, restaurantes e pedidos em um único arquivo, gravando cada pedido
+     * uma só vez. Clientes e restaurantes são gravados sem as listas de pedidos, que
+     * são religadas pelos IDs em {@link #carregarSnapshot}. As estatísticas de vendas
+     * são gravadas no fim do mesmo arquivo, para que correspondam sempre aos pedidos.
+     *
+     * <p>Após a gravação, os arquivos separados do formato anterior são removidos,
+     * pois deixam de refletir o estado atual.</p>
+     *
+     * @param clientes lista de clientes.
+     * @param restaurantes lista de restaurantes.
+     * @param pedidos lista de todos os pedidos.
+     * @param estatisticas estatísticas de vendas.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro ao salvar o arquivo.
+     */
+    public static void salvarSnapshot(ArrayList<Cliente> clientes, ArrayList<Restaurante> restaurantes,
+                                      ArrayList<Pedido> pedidos, EstatisticasVendas estatisticas)
+            throws ArquivoNaoEncontradoException {
+        Path destino = Paths.get(Snapshot);
+        Path temporario = Paths.get(Snapshot + ".tmp");
+        try (FileOutputStream arquivo = new FileOutputStream(temporario.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(arquivo, 1 << 16))) {
+            CodecBinario.Escritor escritor = new CodecBinario.Escritor(out);
+            escritor.escreverCabecalho();
+
+            escritor.escreverVarInt(clientes.size());
+            for (Cliente c : clientes) escritor.escreverCliente(c, false);
+
+            escritor.escreverVarInt(restaurantes.size());
+            for (Restaurante r : restaurantes) escritor.escreverRestaurante(r, false);
+
+            escritor.escreverVarInt(pedidos.size());
+            for (Pedido p : pedidos) escritor.escreverPedido(p);
+
+            estatisticas.gravar(escritor);
+            out.flush();
+            arquivo.getChannel().force(true);
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao salvar Dados: " + e.getMessage());
+        }
+        try {
+            substituir(temporario, destino);
+            Files.deleteIfExists(Paths.get(Clientes));
+            Files.deleteIfExists(Paths.get(Restaurantes));
+            Files.deleteIfExists(Paths.get(Pedidos));
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao salvar Dados: " + e.getMessage());
+        }
     }
 
     /**
-     * Método genérico para salvar um objeto em arquivo.
+     * Carrega o snapshot unificado nas listas informadas. Cada pedido é lido uma única
+     * vez e a mesma instância é adicionada ao cliente e ao restaurante correspondentes.
+     * As estatísticas de vendas são carregadas quando o arquivo as contém (versão 5
+     * em diante); caso contrário, {@link EstatisticasVendas#foiCarregada()} fica falso.
      *
-     * @param obj objeto a ser salvo.
+     * @param clientes lista que receberá os clientes.
+     * @param restaurantes lista que receberá os restaurantes.
+     * @param pedidos lista que receberá os pedidos.
+     * @param estatisticas estatísticas de vendas a serem substituídas pelas do arquivo.
+     * @return {@code true} se o snapshot existir e tiver sido carregado.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura do arquivo.
+     */
+    public static boolean carregarSnapshot(ArrayList<Cliente> clientes, ArrayList<Restaurante> restaurantes,
+                                           ArrayList<Pedido> pedidos, EstatisticasVendas estatisticas)
+            throws ArquivoNaoEncontradoException {
+        if (!Files.exists(Paths.get(Snapshot))) return false;
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(Snapshot), 1 << 16))) {
+            if (in.readInt() != CodecBinario.MAGICO) throw new IOException("Formato desconhecido");
+            CodecBinario.Leitor leitor = new CodecBinario.Leitor(in);
+            leitor.lerVersao();
+
+            HashMap<String, Cliente> clientesPorId = new HashMap<>();
+            int quantidade = leitor.lerVarInt();
+            for (int i = 0; i < quantidade; i++) {
+                Cliente c = leitor.lerCliente();
+                clientes.add(c);
+                clientesPorId.put(c.getId(), c);
+            }
+
+            HashMap<String, Restaurante> restaurantesPorId = new HashMap<>();
+            quantidade = leitor.lerVarInt();
+            for (int i = 0; i < quantidade; i++) {
+                Restaurante r = leitor.lerRestaurante();
+                restaurantes.add(r);
+                restaurantesPorId.put(r.getId(), r);
+            }
+
+            quantidade = leitor.lerVarInt();
+            pedidos.ensureCapacity(quantidade);
+            for (int i = 0; i < quantidade; i++) {
+                Pedido p = leitor.lerPedido();
+                pedidos.add(p);
+                Cliente c = clientesPorId.get(p.getIdCliente());
+                if (c != null) c.adicionarPedido(p);
+                Restaurante r = restaurantesPorId.get(p.getIdRestaurante());
+                if (r != null) r.receberPedido(p);
+            }
+
+            if (leitor.getVersao() >= 5) estatisticas.carregar(leitor);
+            return true;
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao carregar Dados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Função que grava uma entidade com o {@link CodecBinario}.
+     *
+     * @param <T> tipo da entidade.
+     */
+    private interface EscritaEntidade<T> {
+        void escrever(CodecBinario.Escritor escritor, T entidade) throws IOException;
+    }
+
+    /**
+     * Função que lê uma entidade com o {@link CodecBinario}.
+     *
+     * @param <T> tipo da entidade.
+     */
+    private interface LeituraEntidade<T> {
+        T ler(CodecBinario.Leitor leitor) throws IOException;
+    }
+
+    /**
+     * Método genérico para salvar uma lista de entidades em arquivo no formato binário.
+     * A gravação é feita em um arquivo temporário que depois substitui o original,
+     * evitando deixar um arquivo pela metade em caso de falha.
+     *
+     * @param <T> tipo das entidades da lista.
+     * @param lista lista a ser salva.
      * @param arquivo caminho do arquivo onde será salvo.
      * @param tipo descrição textual do tipo de dado salvo (ex: "Clientes").
+     * @param escrita função que grava cada entidade.
      * @throws ArquivoNaoEncontradoException se ocorrer erro ao salvar o arquivo.
      */
-    private static void salvarObjeto(Object obj, String arquivo, String tipo) throws ArquivoNaoEncontradoException {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(arquivo))) {
-            oos.writeObject(obj);
+    private static <T> void salvarLista(ArrayList<T> lista, String arquivo, String tipo,
+                                        EscritaEntidade<T> escrita) throws ArquivoNaoEncontradoException {
+        Path destino = Paths.get(arquivo);
+        Path temporario = Paths.get(arquivo + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(temporario.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fos, 1 << 16))) {
+            CodecBinario.Escritor escritor = new CodecBinario.Escritor(out);
+            escritor.escreverCabecalho();
+            escritor.escreverVarInt(lista.size());
+            for (T entidade : lista) escrita.escrever(escritor, entidade);
+            out.flush();
+            fos.getChannel().force(true);
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao salvar " + tipo + ": " + e.getMessage());
+        }
+        try {
+            substituir(temporario, destino);
         } catch (IOException e) {
             throw new ArquivoNaoEncontradoException("Erro ao salvar " + tipo + ": " + e.getMessage());
         }
     }
 
     /**
-     * Método genérico para carregar um objeto de um arquivo.
+     * Substitui o arquivo de destino pelo temporário, já gravado em disco, e força
+     * a gravação do diretório, para que a troca sobreviva a uma queda de energia
+     * antes que o diário seja apagado.
      *
-     * @param <T> tipo genérico da lista carregada.
+     * @param temporario arquivo gravado e sincronizado.
+     * @param destino arquivo a ser substituído.
+     * @throws IOException se ocorrer erro ao mover o arquivo.
+     */
+    private static void substituir(Path temporario, Path destino) throws IOException {
+        Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Path diretorio = destino.toAbsolutePath().getParent();
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Alguns sistemas (ex: Windows) não permitem abrir um diretório; a troca continua atômica
+        }
+    }
+
+    /**
+     * Método genérico para carregar uma lista de entidades de um arquivo.
+     * Arquivos no formato antigo (serialização padrão do Java) também são aceitos.
+     *
+     * @param <T> tipo das entidades da lista.
      * @param arquivo caminho do arquivo.
      * @param tipo descrição textual do tipo de dado.
+     * @param leitura função que lê cada entidade.
      * @return lista carregada do arquivo ou lista vazia se o arquivo não existir.
      * @throws ArquivoNaoEncontradoException se ocorrer erro ao ler o arquivo.
      */
-    @SuppressWarnings("unchecked")
-    private static <T> ArrayList<T> carregarObjeto(String arquivo, String tipo) throws ArquivoNaoEncontradoException {
-        try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(arquivo))) {
-            return (ArrayList<T>) ois.readObject();
+    private static <T> ArrayList<T> carregarLista(String arquivo, String tipo,
+                                                  LeituraEntidade<T> leitura) throws ArquivoNaoEncontradoException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(arquivo), 1 << 16))) {
+            in.mark(4);
+            if (in.readInt() != CodecBinario.MAGICO) {
+                in.reset();
+                return carregarLegado(in, tipo);
+            }
+
+            CodecBinario.Leitor leitor = new CodecBinario.Leitor(in);
+            leitor.lerVersao();
+            int quantidade = leitor.lerVarInt();
+            ArrayList<T> lista = new ArrayList<>(quantidade);
+            for (int i = 0; i < quantidade; i++) lista.add(leitura.ler(leitor));
+            return lista;
         } catch (FileNotFoundException e) {
             return new ArrayList<>();
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao carregar " + tipo + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lê uma lista gravada com a serialização padrão do Java (formato anterior ao {@link CodecBinario}).
+     *
+     * @param <T> tipo genérico da lista carregada.
+     * @param in stream posicionado no início do arquivo.
+     * @param tipo descrição textual do tipo de dado.
+     * @return lista carregada.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro ao ler o arquivo.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayList<T> carregarLegado(InputStream in, String tipo) throws ArquivoNaoEncontradoException {
+        try {
+            ObjectInputStream ois = new ObjectInputStream(in);
+            return (ArrayList<T>) ois.readObject();
         } catch (IOException | ClassNotFoundException e) {
             throw new ArquivoNaoEncontradoException("Erro ao carregar " + tipo + ": " + e.getMessage());
         }
     }
 
     /**
-     * Exclui todos os arquivos de dados (Clientes, Restaurantes, Produtos, Pedidos).
+     * Converte os arquivos .dat gravados no formato antigo (serialização padrão do Java)
+     * para o formato binário atual. Uma cópia de cada arquivo original é mantida com a
+     * extensão ".bak". Arquivos que já estão no formato atual não são alterados.
+     *
+     * @return quantidade de arquivos convertidos.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura ou gravação.
+     */
+    public static int migrarArquivosLegados() throws ArquivoNaoEncontradoException {
+        int convertidos = 0;
+        if (ehLegado(Clientes)) {
+            ArrayList<Cliente> lista = carregarClientes();
+            copiarBackup(Clientes);
+            salvarClientes(lista);
+            convertidos++;
+        }
+        if (ehLegado(Restaurantes)) {
+            ArrayList<Restaurante> lista = carregarRestaurantes();
+            copiarBackup(Restaurantes);
+            salvarRestaurantes(lista);
+            convertidos++;
+        }
+        if (ehLegado(Produtos)) {
+            ArrayList<Produto> lista = carregarProdutos();
+            copiarBackup(Produtos);
+            salvarProdutos(lista);
+            convertidos++;
+        }
+        if (ehLegado(Pedidos)) {
+            ArrayList<Pedido> lista = carregarPedidos();
+            copiarBackup(Pedidos);
+            salvarPedidos(lista);
+            convertidos++;
+        }
+        return convertidos;
+    }
+
+    /**
+     * Verifica se um arquivo existe e não está no formato do {@link CodecBinario}.
+     *
+     * @param arquivo caminho do arquivo.
+     * @return {@code true} se o arquivo estiver no formato antigo.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura.
+     */
+    private static boolean ehLegado(String arquivo) throws ArquivoNaoEncontradoException {
+        if (!Files.exists(Paths.get(arquivo))) return false;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(arquivo))) {
+            return in.readInt() != CodecBinario.MAGICO;
+        } catch (EOFException e) {
+            return false;
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao ler " + arquivo + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Copia um arquivo para a mesma pasta com a extensão ".bak".
+     *
+     * @param arquivo caminho do arquivo.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na cópia.
+     */
+    private static void copiarBackup(String arquivo) throws ArquivoNaoEncontradoException {
+        try {
+            Files.copy(Paths.get(arquivo), Paths.get(arquivo + ".bak"), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao copiar " + arquivo + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ponto de entrada do conversor: migra os arquivos antigos para o formato binário.
+     *
+     * @param args argumentos de linha de comando (não utilizados).
+     */
+    public static void main(String[] args) {
+        try {
+            int convertidos = migrarArquivosLegados();
+            System.out.println("✓ Arquivos convertidos: " + convertidos);
+        } catch (ArquivoNaoEncontradoException e) {
+            System.err.println("Erro na conversão: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Exclui todos os arquivos de dados (Clientes, Restaurantes, Produtos, Pedidos, snapshot e diário).
      * Usado para limpar completamente o armazenamento local do sistema.
      */
     public static void limparTodosDados() {
@@ -173,17 +469,21 @@ public class ArquivoUtils {
             Files.deleteIfExists(Paths.get(Restaurantes));
             Files.deleteIfExists(Paths.get(Produtos));
             Files.deleteIfExists(Paths.get(Pedidos));
+            Files.deleteIfExists(Paths.get(Snapshot));
+            Files.deleteIfExists(Paths.get(Diario));
         } catch (IOException e) {
             System.err.println("Erro ao limpar: " + e.getMessage());
         }
     }
 
     /**
-     * Verifica se todos os arquivos de dados (Clientes, Restaurantes, Produtos, Pedidos) existem.
+     * Verifica se os dados do sistema existem: o snapshot unificado ou todos os
+     * arquivos separados (Clientes, Restaurantes, Produtos, Pedidos).
      *
-     * @return {@code true} se todos os arquivos existirem, {@code false} caso contrário.
+     * @return {@code true} se os dados existirem, {@code false} caso contrário.
      */
     public static boolean dadosExistem() {
+        if (Files.exists(Paths.get(Snapshot))) return true;
         return Files.exists(Paths.get(Clientes)) &&
                Files.exists(Paths.get(Restaurantes)) &&
                Files.exists(Paths.get(Produtos)) &&
@@ -0,0 +1,217 @@
+package main;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Barramento de eventos de pedidos, baseado em {@link java.util.concurrent.Flow}.
+ *
+ * <p>Os eventos são entregues a cada assinante de forma assíncrona, em
+ * threads próprias do barramento, e na ordem em que foram publicados. Cada
+ * assinante tem um buffer limitado: se ele não acompanhar o ritmo e o buffer
+ * encher, os novos eventos para esse assinante são descartados (e contados em
+ * {@link #getDescartados}), sem atrasar quem publica nem os demais
+ * assinantes. Quem aplica os eventos como alterações incrementais deve
+ * informar uma ação de ressincronização em
+ * {@link #assinar(Predicate, Consumer, Runnable)}: ela é executada quando um
+ * evento de interesse do assinante é descartado, para que ele recarregue o
+ * estado atual.</p>
+ */
+public class BarramentoEventos {
+
+    /** Capacidade padrão do buffer de cada assinante. */
+    public static final int CAPACIDADE_PADRAO = 256;
+
+    private final ExecutorService executor;
+    private final SubmissionPublisher<EventoPedido> publicador;
+    private final AtomicLong descartados = new AtomicLong();
+
+    /**
+     * Cria o barramento com a capacidade padrão por assinante.
+     */
+    public BarramentoEventos() {
+        this(CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Cria o barramento.
+     *
+     * @param capacidadePorAssinante quantidade máxima de eventos pendentes por assinante.
+     */
+    public BarramentoEventos(int capacidadePorAssinante) {
+        AtomicInteger contador = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "eventos-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.publicador = new SubmissionPublisher<>(executor, Math.max(1, capacidadePorAssinante));
+    }
+
+    /**
+     * Publica um evento para todos os assinantes, sem bloquear.
+     *
+     * @param evento evento a ser publicado.
+     */
+    public void publicar(EventoPedido evento) {
+        if (publicador.isClosed() || !publicador.hasSubscribers()) return;
+        publicador.offer(evento, (assinante, e) -> {
+            descartados.incrementAndGet();
+            if (assinante instanceof Assinatura) ((Assinatura) assinante).descartado(e);
+            return false;
+        });
+    }
+
+    /**
+     * Inscreve um assinante do Flow.
+     *
+     * @param assinante assinante que receberá os eventos.
+     */
+    public void inscrever(Flow.Subscriber<? super EventoPedido> assinante) {
+        publicador.subscribe(assinante);
+    }
+
+    /**
+     * Inscreve uma ação executada para cada evento aceito pelo filtro.
+     *
+     * @param filtro eventos de interesse.
+     * @param acao ação executada, na thread do barramento, para cada evento.
+     * @return assinatura, a ser encerrada quando os eventos não forem mais necessários.
+     */
+    public Assinatura assinar(Predicate<EventoPedido> filtro, Consumer<EventoPedido> acao) {
+        return assinar(filtro, acao, null);
+    }
+
+    /**
+     * Inscreve uma ação executada para cada evento aceito pelo filtro e uma ação
+     * de ressincronização, executada quando um evento aceito pelo filtro é
+     * descartado por buffer cheio. Vários descartes seguidos geram uma única
+     * ressincronização enquanto ela não começar.
+     *
+     * @param filtro eventos de interesse.
+     * @param acao ação executada, na thread do barramento, para cada evento.
+     * @param aoDescartar ação executada, na thread do barramento, após um descarte (pode ser nula).
+     * @return assinatura, a ser encerrada quando os eventos não forem mais necessários.
+     */
+    public Assinatura assinar(Predicate<EventoPedido> filtro, Consumer<EventoPedido> acao, Runnable aoDescartar) {
+        Assinatura assinatura = new Assinatura(filtro, acao, aoDescartar, executor);
+        publicador.subscribe(assinatura);
+        return assinatura;
+    }
+
+    /**
+     * Retorna a quantidade de eventos descartados por buffers cheios.
+     *
+     * @return eventos descartados.
+     */
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    /**
+     * Retorna a quantidade de assinantes inscritos.
+     *
+     * @return quantidade de assinantes.
+     */
+    public int getQuantidadeAssinantes() {
+        return publicador.getNumberOfSubscribers();
+    }
+
+    /**
+     * Encerra o barramento: os assinantes recebem os eventos pendentes e, em seguida, o aviso de término.
+     */
+    public void fechar() {
+        publicador.close();
+        executor.shutdown();
+    }
+
+    /**
+     * Assinante que aplica um filtro e uma ação a cada evento, pedindo um
+     * evento de cada vez para que os pendentes fiquem no buffer limitado.
+     */
+    public static final class Assinatura implements Flow.Subscriber<EventoPedido>, AutoCloseable {
+        private final Predicate<EventoPedido> filtro;
+        private final Consumer<EventoPedido> acao;
+        private final Runnable aoDescartar;
+        private final Executor executor;
+        private final AtomicBoolean ressincronizacaoPendente = new AtomicBoolean();
+        private volatile Flow.Subscription inscricao;
+        private volatile boolean encerrada;
+
+        Assinatura(Predicate<EventoPedido> filtro, Consumer<EventoPedido> acao,
+                   Runnable aoDescartar, Executor executor) {
+            this.filtro = filtro;
+            this.acao = acao;
+            this.aoDescartar = aoDescartar;
+            this.executor = executor;
+        }
+
+        /**
+         * Agenda a ressincronização após o descarte de um evento de interesse.
+         */
+        void descartado(EventoPedido evento) {
+            if (aoDescartar == null || encerrada || !filtro.test(evento)) return;
+            if (!ressincronizacaoPendente.compareAndSet(false, true)) return;
+            try {
+                executor.execute(() -> {
+                    ressincronizacaoPendente.set(false);
+                    if (encerrada) return;
+                    try {
+                        aoDescartar.run();
+                    } catch (RuntimeException e) {
+                        System.err.println("Erro ao ressincronizar eventos: " + e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                ressincronizacaoPendente.set(false);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription inscricao) {
+            this.inscricao = inscricao;
+            if (encerrada) inscricao.cancel();
+            else inscricao.request(1);
+        }
+
+        @Override
+        public void onNext(EventoPedido evento) {
+            try {
+                if (!encerrada && filtro.test(evento)) acao.accept(evento);
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao tratar evento: " + e);
+            } finally {
+                if (!encerrada) inscricao.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+            System.err.println("Erro no barramento de eventos: " + erro);
+        }
+
+        @Override
+        public void onComplete() {
+            encerrada = true;
+        }
+
+        /**
+         * Cancela a assinatura; eventos ainda no buffer não são entregues.
+         */
+        @Override
+        public void close() {
+            encerrada = true;
+            Flow.Subscription s = inscricao;
+            if (s != null) s.cancel();
+        }
+    }
+}
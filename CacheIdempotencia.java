@@ -0,0 +1,155 @@
+package main;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Cache de chaves de idempotência dos pedidos.
+ *
+ * <p>Associa a chave enviada pelo cliente ao pedido criado com ela, para que
+ * um reenvio (clique duplo, nova tentativa após um tempo esgotado) devolva o
+ * pedido original em vez de criar outro. Envios simultâneos com a mesma
+ * chave esperam o primeiro terminar e recebem o mesmo resultado.</p>
+ *
+ * <p>O cache é limitado no tempo e no tamanho: cada chave expira após o
+ * tempo configurado e, acima da quantidade máxima, as chaves mais antigas
+ * são descartadas. Como todas as chaves têm a mesma validade, a ordem de
+ * inclusão é também a ordem de expiração, e a limpeza só olha o início do
+ * mapa, ordenado por inclusão. Uma chave cujo pedido ainda está sendo criado
+ * nunca é descartada, nem por validade nem por tamanho, para que um reenvio
+ * nesse intervalo aguarde o primeiro envio em vez de criar outro pedido; por
+ * isso, o cache só passa da capacidade enquanto houver mais criações em
+ * andamento do que chaves. Um pedido recusado não fica no cache, para que
+ * possa ser reenviado.</p>
+ *
+ * <p>O mapa é protegido por uma trava própria, mantida apenas para consultar
+ * e alterar as chaves; a criação do pedido acontece fora dela.</p>
+ */
+public class CacheIdempotencia {
+
+    /** Validade padrão de uma chave, em milissegundos (30 minutos). */
+    public static final long VALIDADE_PADRAO_MS = 30 * 60 * 1000L;
+
+    /** Quantidade máxima padrão de chaves guardadas. */
+    public static final int CAPACIDADE_PADRAO = 10_000;
+
+    /** Chaves em ordem de inclusão (e, portanto, de expiração). */
+    private final LinkedHashMap<String, Entrada> entradas = new LinkedHashMap<>();
+    private final long validadeMs;
+    private final int capacidade;
+
+    /**
+     * Cria o cache com a validade e a capacidade padrão.
+     */
+    public CacheIdempotencia() {
+        this(VALIDADE_PADRAO_MS, CAPACIDADE_PADRAO);
+    }
+
+    /**
+     * Cria o cache.
+     *
+     * @param validadeMs tempo, em milissegundos, que uma chave permanece válida.
+     * @param capacidade quantidade máxima de chaves guardadas.
+     */
+    public CacheIdempotencia(long validadeMs, int capacidade) {
+        this.validadeMs = Math.max(1, validadeMs);
+        this.capacidade = Math.max(1, capacidade);
+    }
+
+    /**
+     * Executa a criação do pedido uma única vez por chave.
+     *
+     * @param chave chave de idempotência (já incluindo o escopo, como o ID do cliente).
+     * @param criacao criação do pedido, executada apenas se a chave for nova.
+     * @return pedido criado agora ou, se a chave já foi usada, o pedido original.
+     * @throws PedidoInvalidoException se a criação falhar (a chave é liberada para nova tentativa).
+     */
+    public Pedido executar(String chave, Criacao criacao) throws PedidoInvalidoException {
+        long agora = System.currentTimeMillis();
+        Entrada nova = new Entrada(agora + validadeMs);
+        Entrada existente;
+        synchronized (entradas) {
+            limpar(agora);
+            existente = entradas.get(chave);
+            // Uma chave em andamento vale mesmo depois de expirar: o reenvio aguarda o resultado
+            if (existente != null && existente.expiraEm <= agora && existente.resultado.isDone()) {
+                entradas.remove(chave);
+                existente = null;
+            }
+            if (existente == null) entradas.put(chave, nova);
+        }
+        if (existente != null) return aguardar(existente);
+
+        try {
+            Pedido p = criacao.criar();
+            nova.resultado.complete(p);
+            return p;
+        } catch (PedidoInvalidoException | RuntimeException e) {
+            synchronized (entradas) {
+                entradas.remove(chave, nova);
+            }
+            nova.resultado.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de chaves guardadas.
+     *
+     * @return quantidade de chaves.
+     */
+    public int getQuantidadeChaves() {
+        synchronized (entradas) {
+            return entradas.size();
+        }
+    }
+
+    /**
+     * Remove as chaves expiradas e as excedentes, a partir das mais antigas,
+     * deixando espaço para uma nova. Chaves em andamento são mantidas.
+     * Deve ser chamado com a trava do mapa.
+     */
+    private void limpar(long agora) {
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada e = it.next();
+            if (e.expiraEm > agora && entradas.size() < capacidade) break;
+            if (e.resultado.isDone()) it.remove();
+        }
+    }
+
+    private static Pedido aguardar(Entrada e) throws PedidoInvalidoException {
+        try {
+            return e.resultado.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof PedidoInvalidoException) throw (PedidoInvalidoException) ex.getCause();
+            if (ex.getCause() instanceof RuntimeException) throw (RuntimeException) ex.getCause();
+            throw ex;
+        }
+    }
+
+    /**
+     * Criação de um pedido protegida pela chave.
+     */
+    @FunctionalInterface
+    public interface Criacao {
+        /**
+         * Cria o pedido.
+         *
+         * @return pedido criado.
+         * @throws PedidoInvalidoException se o pedido for recusado.
+         */
+        Pedido criar() throws PedidoInvalidoException;
+    }
+
+    private static final class Entrada {
+        final long expiraEm;
+        final CompletableFuture<Pedido> resultado = new CompletableFuture<>();
+
+        Entrada(long expiraEm) {
+            this.expiraEm = expiraEm;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Versão imutável do cardápio de um restaurante.
+ *
+ * <p>O {@link Restaurante} nunca altera um cardápio publicado: cada inclusão,
+ * remoção ou alteração de produto gera uma nova versão, que substitui a
+ * anterior de uma só vez. Quem lê recebe a versão atual sem cópia e sem
+ * trava, e pode percorrê-la à vontade mesmo que o cardápio seja editado em
+ * outra thread. Telas que exibem o cardápio comparam {@link #getVersao} com a
+ * versão já desenhada para só redesenhar o que mudou.</p>
+ */
+public final class Cardapio {
+
+    private final long versao;
+    private final List<Produto> produtos;
+    private final HashMap<String, Produto> porId;
+
+    /**
+     * Cria uma versão do cardápio.
+     *
+     * @param versao número da versão, crescente a cada alteração do cardápio.
+     * @param produtos produtos do cardápio; a lista passa a pertencer a esta versão e não deve mais ser alterada.
+     */
+    Cardapio(long versao, ArrayList<Produto> produtos) {
+        this.versao = versao;
+        this.produtos = Collections.unmodifiableList(produtos);
+        this.porId = new HashMap<>(produtos.size() * 2);
+        for (Produto p : produtos) porId.put(p.getId(), p);
+    }
+
+    /** @return número da versão */
+    public long getVersao() { return versao; }
+
+    /** @return produtos do cardápio, em ordem de inclusão (lista não modificável) */
+    public List<Produto> getProdutos() { return produtos; }
+
+    /** @return quantidade de produtos */
+    public int getQuantidade() { return produtos.size(); }
+
+    /**
+     * Busca um produto pelo ID.
+     *
+     * @param idProduto ID do produto.
+     * @return produto encontrado ou null.
+     */
+    public Produto obterProduto(String idProduto) {
+        return porId.get(idProduto);
+    }
+
+    /**
+     * Indica se o cardápio contém um produto com o ID informado.
+     *
+     * @param idProduto ID do produto.
+     * @return true se o produto existir.
+     */
+    public boolean contem(String idProduto) {
+        return porId.containsKey(idProduto);
+    }
+}
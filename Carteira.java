@@ -0,0 +1,254 @@
+package main;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Saldo de crédito de um {@link Cliente}, em centavos, alterado sem travas.
+ *
+ * <p>O saldo e sua versão formam um único valor imutável trocado por
+ * compare-and-set: cada alteração bem-sucedida gera uma nova versão e um
+ * {@link Lancamento} com o saldo resultante. Muitas threads podem debitar da
+ * mesma carteira ao mesmo tempo sem que o saldo fique negativo ou que um
+ * débito se perca.</p>
+ *
+ * <p>O débito de um pedido é feito em duas etapas: {@link #reservar} retira o
+ * valor do saldo disponível e {@link #confirmar} o torna definitivo. Se o
+ * pedido não puder ser concluído, {@link #estornar(Reserva)} devolve o valor;
+ * se for cancelado depois de confirmado, {@link #estornar(long)} devolve o
+ * valor do pedido.</p>
+ *
+ * <p>Os lançamentos são gravados pelo {@link Gerenciador} no diário de
+ * operações. Como cada um traz a versão e o saldo resultante, a reaplicação
+ * do diário é idempotente: {@link #restaurar} ignora versões mais antigas que a atual.
+ * O snapshot periódico do diário grava o saldo e a versão de cada carteira, de
+ * modo que a reaplicação começa do último snapshot.</p>
+ */
+public class Carteira {
+
+    /**
+     * Tipo de um lançamento no livro de créditos.
+     */
+    public enum TipoLancamento {
+        /** Crédito adicionado pelo cliente. */
+        CREDITO,
+        /** Valor reservado para um pedido. */
+        RESERVA,
+        /** Reserva confirmada; o saldo não muda. */
+        CONFIRMACAO,
+        /** Valor reservado ou confirmado devolvido ao saldo. */
+        ESTORNO
+    }
+
+    /** ID do cliente dono da carteira. */
+    private final String idCliente;
+
+    /** Saldo atual e sua versão. */
+    private final AtomicReference<Saldo> saldo;
+
+    /**
+     * Cria uma carteira.
+     *
+     * @param idCliente ID do cliente dono da carteira.
+     * @param centavos saldo inicial em centavos.
+     * @param versao versão do saldo inicial.
+     */
+    public Carteira(String idCliente, long centavos, long versao) {
+        this.idCliente = idCliente;
+        this.saldo = new AtomicReference<>(new Saldo(centavos, versao));
+    }
+
+    /**
+     * Adiciona crédito ao saldo.
+     *
+     * @param centavos valor positivo em centavos.
+     * @return lançamento gerado, ou null se o valor não for positivo.
+     */
+    public Lancamento creditar(long centavos) {
+        if (centavos <= 0) return null;
+        return alterar(TipoLancamento.CREDITO, centavos, centavos);
+    }
+
+    /**
+     * Reserva um valor do saldo, se houver saldo suficiente.
+     *
+     * @param centavos valor positivo em centavos.
+     * @return reserva criada, ou null se o valor não for positivo ou o saldo for insuficiente.
+     */
+    public Reserva reservar(long centavos) {
+        if (centavos <= 0) return null;
+        while (true) {
+            Saldo atual = saldo.get();
+            if (atual.centavos < centavos) return null;
+            Saldo novo = new Saldo(atual.centavos - centavos, atual.versao + 1);
+            if (saldo.compareAndSet(atual, novo))
+                return new Reserva(centavos, new Lancamento(idCliente, TipoLancamento.RESERVA, centavos, novo));
+        }
+    }
+
+    /**
+     * Confirma uma reserva pendente.
+     *
+     * @param r reserva feita nesta carteira.
+     * @return lançamento gerado, ou null se a reserva já tiver sido confirmada ou estornada.
+     */
+    public Lancamento confirmar(Reserva r) {
+        if (!r.estado.compareAndSet(Reserva.PENDENTE, Reserva.CONFIRMADA)) return null;
+        return alterar(TipoLancamento.CONFIRMACAO, r.centavos, 0);
+    }
+
+    /**
+     * Devolve ao saldo o valor de uma reserva pendente ou confirmada.
+     *
+     * @param r reserva feita nesta carteira.
+     * @return lançamento gerado, ou null se a reserva já tiver sido estornada.
+     */
+    public Lancamento estornar(Reserva r) {
+        while (true) {
+            int estado = r.estado.get();
+            if (estado == Reserva.ESTORNADA) return null;
+            if (r.estado.compareAndSet(estado, Reserva.ESTORNADA))
+                return alterar(TipoLancamento.ESTORNO, r.centavos, r.centavos);
+        }
+    }
+
+    /**
+     * Devolve ao saldo o valor de um pedido já confirmado e depois cancelado.
+     *
+     * @param centavos valor positivo em centavos.
+     * @return lançamento gerado, ou null se o valor não for positivo.
+     */
+    public Lancamento estornar(long centavos) {
+        if (centavos <= 0) return null;
+        return alterar(TipoLancamento.ESTORNO, centavos, centavos);
+    }
+
+    /**
+     * Restaura o saldo registrado em um snapshot ou lançamento, se ele não for
+     * mais antigo que o atual. Usado apenas na reconstrução do estado.
+     *
+     * @param centavos saldo registrado.
+     * @param versao versão do saldo registrado.
+     * @return true se o saldo foi alterado.
+     */
+    public boolean restaurar(long centavos, long versao) {
+        while (true) {
+            Saldo atual = saldo.get();
+            // Versão igual é reaplicada: registros antigos, sem versão, valem na ordem em que aparecem
+            if (versao < atual.versao) return false;
+            if (saldo.compareAndSet(atual, new Saldo(centavos, versao))) return true;
+        }
+    }
+
+    /**
+     * Substitui o saldo e a versão, independentemente do valor atual.
+     * Usado apenas ao ler um cliente gravado.
+     *
+     * @param centavos novo saldo.
+     * @param versao nova versão.
+     */
+    void definir(long centavos, long versao) {
+        saldo.set(new Saldo(centavos, versao));
+    }
+
+    /** @return saldo atual em centavos */
+    public long getSaldoCentavos() { return saldo.get().centavos; }
+
+    /** @return versão do saldo atual */
+    public long getVersao() { return saldo.get().versao; }
+
+    /**
+     * Lê o saldo e a versão de forma consistente.
+     *
+     * @return par imutável saldo/versão.
+     */
+    Saldo getSaldo() { return saldo.get(); }
+
+    private Lancamento alterar(TipoLancamento tipo, long valor, long delta) {
+        while (true) {
+            Saldo atual = saldo.get();
+            Saldo novo = new Saldo(atual.centavos + delta, atual.versao + 1);
+            if (saldo.compareAndSet(atual, novo)) return new Lancamento(idCliente, tipo, valor, novo);
+        }
+    }
+
+    /**
+     * Saldo em centavos com sua versão.
+     */
+    static final class Saldo {
+        final long centavos;
+        final long versao;
+
+        Saldo(long centavos, long versao) {
+            this.centavos = centavos;
+            this.versao = versao;
+        }
+    }
+
+    /**
+     * Valor reservado para um pedido, aguardando confirmação ou estorno.
+     */
+    public static final class Reserva {
+        private static final int PENDENTE = 0;
+        private static final int CONFIRMADA = 1;
+        private static final int ESTORNADA = 2;
+
+        private final long centavos;
+        private final Lancamento lancamento;
+        private final AtomicInteger estado = new AtomicInteger(PENDENTE);
+
+        Reserva(long centavos, Lancamento lancamento) {
+            this.centavos = centavos;
+            this.lancamento = lancamento;
+        }
+
+        /** @return valor reservado em centavos */
+        public long getCentavos() { return centavos; }
+
+        /** @return lançamento gerado pela reserva */
+        public Lancamento getLancamento() { return lancamento; }
+    }
+
+    /**
+     * Entrada imutável do livro de créditos: uma alteração com o saldo resultante.
+     */
+    public static final class Lancamento {
+        private final String idCliente;
+        private final TipoLancamento tipo;
+        private final long valorCentavos;
+        private final long saldoCentavos;
+        private final long versao;
+        private final long instante;
+
+        Lancamento(String idCliente, TipoLancamento tipo, long valorCentavos, Saldo resultado) {
+            this(idCliente, tipo, valorCentavos, resultado.centavos, resultado.versao, System.currentTimeMillis());
+        }
+
+        /**
+         * Cria um lançamento com todos os campos (usado na leitura do diário).
+         *
+         * @param idCliente ID do cliente.
+         * @param tipo tipo do lançamento.
+         * @param valorCentavos valor movimentado em centavos.
+         * @param saldoCentavos saldo resultante em centavos.
+         * @param versao versão do saldo resultante.
+         * @param instante momento do lançamento em milissegundos desde a época.
+         */
+        public Lancamento(String idCliente, TipoLancamento tipo, long valorCentavos,
+                          long saldoCentavos, long versao, long instante) {
+            this.idCliente = idCliente;
+            this.tipo = tipo;
+            this.valorCentavos = valorCentavos;
+            this.saldoCentavos = saldoCentavos;
+            this.versao = versao;
+            this.instante = instante;
+        }
+
+        public String getIdCliente() { return idCliente; }
+        public TipoLancamento getTipo() { return tipo; }
+        public long getValorCentavos() { return valorCentavos; }
+        public long getSaldoCentavos() { return saldoCentavos; }
+        public long getVersao() { return versao; }
+        public long getInstante() { return instante; }
+    }
+}
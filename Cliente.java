@@ -1,5 +1,9 @@
 package main;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.ArrayList;
 
 /**
@@ -12,11 +16,22 @@ import java.util.ArrayList;
 public class Cliente extends Usuario {
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Campos gravados pela serialização padrão. Mantém o formato dos arquivos
+     * antigos, em que o crédito era um {@code double} chamado "credito".
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("pedidos", ArrayList.class),
+            new ObjectStreamField("credito", double.class),
+            new ObjectStreamField("cpf", String.class),
+            new ObjectStreamField("ativo", boolean.class)
+    };
+
     /** Lista de pedidos realizados pelo cliente. */
     private ArrayList<Pedido> pedidos;
 
-    /** Valor total de crédito disponível na conta do cliente. */
-    private double credito;
+    /** Crédito disponível na conta do cliente, em centavos, alterado sem travas. */
+    private transient Carteira carteira;
 
     /** CPF do cliente. */
     private String cpf;
@@ -40,40 +55,36 @@ public class Cliente extends Usuario {
         super(id, nome, email, senha, telefone, endereco);
         this.cpf = cpf;
         this.pedidos = new ArrayList<>();
-        this.credito = 0.0;
+        this.carteira = new Carteira(id, 0, 0);
         this.ativo = true;
     }
 
     /**
-     * Adiciona crédito à conta do cliente.
+     * Retorna a carteira com o saldo em centavos, para reservas, confirmações e estornos.
      *
-     * @param valor valor positivo a ser adicionado ao saldo.
+     * @return carteira do cliente.
      */
-    public void adicionarCredito(double valor) {
-        if (valor > 0) this.credito += valor;
+    public Carteira getCarteira() {
+        return carteira;
     }
 
     /**
-     * Deduz um valor do crédito do cliente, caso haja saldo suficiente.
+     * Adiciona um pedido à lista de pedidos do cliente.
      *
-     * @param valor valor a ser deduzido.
-     * @return {@code true} se o valor foi deduzido com sucesso; {@code false} caso contrário.
+     * @param pedido objeto {@link Pedido} a ser adicionado.
      */
-    public boolean deduzirCredito(double valor) {
-        if (valor > 0 && this.credito >= valor) {
-            this.credito -= valor;
-            return true;
-        }
-        return false;
+    public synchronized void adicionarPedido(Pedido pedido) {
+        if (pedido != null) pedidos.add(pedido);
     }
 
     /**
-     * Adiciona um pedido à lista de pedidos do cliente.
+     * Substitui a lista de pedidos do cliente.
+     * Usado ao religar os pedidos carregados para que cada um exista uma única vez.
      *
-     * @param pedido objeto {@link Pedido} a ser adicionado.
+     * @param pedidos nova lista de pedidos.
      */
-    public void adicionarPedido(Pedido pedido) {
-        if (pedido != null) pedidos.add(pedido);
+    synchronized void substituirPedidos(ArrayList<Pedido> pedidos) {
+        this.pedidos = pedidos;
     }
 
     /**
@@ -81,17 +92,27 @@ public class Cliente extends Usuario {
      *
      * @return uma nova lista contendo os pedidos do cliente.
      */
-    public ArrayList<Pedido> obterPedidos() {
+    public synchronized ArrayList<Pedido> obterPedidos() {
         return new ArrayList<>(pedidos);
     }
 
+    /**
+     * Retorna o pedido na posição informada, na ordem em que foram feitos, sem copiar a lista.
+     *
+     * @param indice posição do pedido (0 é o mais antigo).
+     * @return pedido na posição.
+     */
+    public synchronized Pedido obterPedido(int indice) {
+        return pedidos.get(indice);
+    }
+
     /**
      * Busca um pedido específico com base no seu identificador.
      *
      * @param idPedido identificador único do pedido.
      * @return o objeto {@link Pedido} correspondente ou {@code null} se não for encontrado.
      */
-    public Pedido obterPedidoById(String idPedido) {
+    public synchronized Pedido obterPedidoById(String idPedido) {
         for (Pedido p : pedidos) {
             if (p.getId().equals(idPedido)) return p;
         }
@@ -118,7 +139,14 @@ public class Cliente extends Usuario {
      *
      * @return valor atual de crédito.
      */
-    public double getCredito() { return credito; }
+    public double getCredito() { return Dinheiro.paraReais(carteira.getSaldoCentavos()); }
+
+    /**
+     * Obtém o saldo de crédito atual do cliente em centavos.
+     *
+     * @return valor atual de crédito em centavos.
+     */
+    public long getCreditoCentavos() { return carteira.getSaldoCentavos(); }
 
     /**
      * Retorna o CPF do cliente.
@@ -139,7 +167,7 @@ public class Cliente extends Usuario {
      *
      * @return número de pedidos.
      */
-    public int getQuantidadePedidos() { return pedidos.size(); }
+    public synchronized int getQuantidadePedidos() { return pedidos.size(); }
 
     /**
      * Define o status de atividade do cliente.
@@ -155,6 +183,40 @@ public class Cliente extends Usuario {
      */
     public void setCpf(String cpf) { this.cpf = cpf; }
 
+    /**
+     * Grava o cliente no formato antigo, com o crédito em reais.
+     *
+     * @param out stream de saída.
+     * @throws IOException se ocorrer erro de escrita.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField campos = out.putFields();
+        synchronized (this) {
+            campos.put("pedidos", pedidos);
+        }
+        campos.put("credito", getCredito());
+        campos.put("cpf", cpf);
+        campos.put("ativo", ativo);
+        out.writeFields();
+    }
+
+    /**
+     * Lê um cliente gravado com a serialização padrão, convertendo o crédito para centavos.
+     *
+     * @param in stream de entrada.
+     * @throws IOException se ocorrer erro de leitura.
+     * @throws ClassNotFoundException se uma classe gravada não for encontrada.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = in.readFields();
+        pedidos = (ArrayList<Pedido>) campos.get("pedidos", null);
+        if (pedidos == null) pedidos = new ArrayList<>();
+        cpf = (String) campos.get("cpf", null);
+        ativo = campos.get("ativo", true);
+        carteira = new Carteira(id, Dinheiro.paraCentavos(campos.get("credito", 0.0)), 0);
+    }
+
     /**
      * Retorna uma representação em texto do cliente, incluindo seus principais dados.
      *
@@ -167,7 +229,7 @@ public class Cliente extends Usuario {
                 ", nome='" + nome + '\'' +
                 ", email='" + email + '\'' +
                 ", cpf='" + cpf + '\'' +
-                ", credito=" + credito +
+                ", credito=" + getCredito() +
                 ", pedidos=" + pedidos.size() +
                 ", ativo=" + ativo +
                 '}';
@@ -0,0 +1,516 @@
+package main;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Codec binário, escrito à mão e versionado, para as classes de domínio
+ * ({@link Cliente}, {@link Restaurante}, {@link Produto} e {@link Pedido}).
+ *
+ * <p>Substitui a serialização padrão do Java nos arquivos .dat e no diário de
+ * operações. O formato usa inteiros de tamanho variável (varints), uma tabela de
+ * textos por arquivo (cada texto repetido é gravado uma única vez e depois
+ * referenciado pelo índice) e datas em milissegundos desde a época.</p>
+ *
+ * <p>Todo arquivo começa com o número mágico {@link #MAGICO} seguido da versão
+ * do formato. O {@link Leitor} sabe ler todas as versões anteriores à atual.
+ * A versão 5 acrescenta as {@link EstatisticasVendas} ao fim do snapshot; o
+ * formato das entidades e do diário não mudou.</p>
+ */
+public final class CodecBinario {
+
+    /** Número mágico dos arquivos no formato binário ("IFDB"). */
+    public static final int MAGICO = 0x49464442;
+
+    /** Versão do formato gravada pelo {@link Escritor}. */
+    public static final int VERSAO_ATUAL = 5;
+
+    /** Fuso usado na conversão entre {@link LocalDateTime} e milissegundos. */
+    private static final ZoneId FUSO = ZoneId.systemDefault();
+
+    private CodecBinario() {
+    }
+
+    /**
+     * Grava entidades de domínio no formato binário.
+     */
+    public static final class Escritor {
+
+        private final DataOutput out;
+
+        /** Tabela de textos já gravados e seus índices. */
+        private final HashMap<String, Integer> textos = new HashMap<>();
+
+        /**
+         * Cria um escritor sobre a saída informada.
+         *
+         * @param out destino dos bytes.
+         */
+        public Escritor(DataOutput out) {
+            this.out = out;
+        }
+
+        /**
+         * Grava o número mágico e a versão atual do formato.
+         *
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverCabecalho() throws IOException {
+            out.writeInt(MAGICO);
+            escreverVarInt(VERSAO_ATUAL);
+        }
+
+        /**
+         * Grava um inteiro não negativo em 1 a 5 bytes.
+         *
+         * @param valor valor a ser gravado.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverVarInt(int valor) throws IOException {
+            while ((valor & ~0x7F) != 0) {
+                out.writeByte((valor & 0x7F) | 0x80);
+                valor >>>= 7;
+            }
+            out.writeByte(valor);
+        }
+
+        /**
+         * Grava um long não negativo em 1 a 10 bytes.
+         *
+         * @param valor valor a ser gravado.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverVarLong(long valor) throws IOException {
+            while ((valor & ~0x7FL) != 0) {
+                out.writeByte((int) ((valor & 0x7F) | 0x80));
+                valor >>>= 7;
+            }
+            out.writeByte((int) valor);
+        }
+
+        /**
+         * Grava um texto usando a tabela de textos: 0 para nulo, 1 seguido do
+         * conteúdo para um texto novo ou índice + 2 para um texto já gravado.
+         *
+         * @param texto texto a ser gravado (pode ser nulo).
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverTexto(String texto) throws IOException {
+            if (texto == null) {
+                escreverVarInt(0);
+                return;
+            }
+            Integer indice = textos.get(texto);
+            if (indice != null) {
+                escreverVarInt(indice + 2);
+                return;
+            }
+            textos.put(texto, textos.size());
+            byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+            escreverVarInt(1);
+            escreverVarInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /**
+         * Grava uma data como milissegundos desde a época.
+         *
+         * @param data data a ser gravada.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverData(LocalDateTime data) throws IOException {
+            escreverVarLong(data.atZone(FUSO).toInstant().toEpochMilli());
+        }
+
+        /**
+         * Grava um cliente.
+         *
+         * @param c cliente a ser gravado.
+         * @param incluirPedidos se {@code true}, grava também os pedidos do cliente.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverCliente(Cliente c, boolean incluirPedidos) throws IOException {
+            escreverUsuario(c);
+            escreverTexto(c.getCpf());
+            Carteira.Saldo saldo = c.getCarteira().getSaldo();
+            escreverVarLong(saldo.centavos);
+            escreverVarLong(saldo.versao);
+            out.writeBoolean(c.isAtivo());
+
+            if (incluirPedidos) {
+                ArrayList<Pedido> pedidos = c.obterPedidos();
+                escreverVarInt(pedidos.size());
+                for (Pedido p : pedidos) escreverPedido(p);
+            } else {
+                escreverVarInt(0);
+            }
+        }
+
+        /**
+         * Grava um restaurante com seu cardápio.
+         *
+         * @param r restaurante a ser gravado.
+         * @param incluirPedidos se {@code true}, grava também os pedidos recebidos.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverRestaurante(Restaurante r, boolean incluirPedidos) throws IOException {
+            escreverUsuario(r);
+            escreverTexto(r.getCnpj());
+            escreverTexto(r.getCategoria());
+            escreverVarLong(r.getTaxaEntregaCentavos());
+            out.writeBoolean(r.isAberto());
+
+            List<Produto> cardapio = r.obterCardapio();
+            escreverVarInt(cardapio.size());
+            for (Produto p : cardapio) escreverProduto(p);
+
+            if (incluirPedidos) {
+                ArrayList<Pedido> pedidos = r.obterPedidosRecebidos();
+                escreverVarInt(pedidos.size());
+                for (Pedido p : pedidos) escreverPedido(p);
+            } else {
+                escreverVarInt(0);
+            }
+        }
+
+        /**
+         * Grava um produto.
+         *
+         * @param p produto a ser gravado.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverProduto(Produto p) throws IOException {
+            escreverTexto(p.getId());
+            escreverTexto(p.getNome());
+            escreverTexto(p.getDescricao());
+            escreverVarLong(p.getPrecoCentavos());
+            escreverTexto(p.getCategoria());
+            escreverTexto(p.getIdRestaurante());
+            out.writeBoolean(p.isAtivo());
+        }
+
+        /**
+         * Grava um pedido com seus itens.
+         *
+         * @param p pedido a ser gravado.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverPedido(Pedido p) throws IOException {
+            escreverTexto(p.getId());
+            escreverTexto(p.getIdCliente());
+            escreverTexto(p.getIdRestaurante());
+            escreverVarLong(p.getTaxaEntregaCentavos());
+            escreverTexto(p.getObservacoes());
+            escreverVarInt(p.getStatus().ordinal());
+            escreverData(p.getDataPedido());
+
+            List<ItemPedido> itens = p.obterItens();
+            escreverVarInt(itens.size());
+            for (ItemPedido item : itens) escreverItem(item);
+        }
+
+        /**
+         * Grava um item de pedido.
+         *
+         * @param item item a ser gravado.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverItem(ItemPedido item) throws IOException {
+            escreverTexto(item.getIdProduto());
+            escreverTexto(item.getNome());
+            escreverVarLong(item.getPrecoCentavos());
+            escreverVarInt(item.getQuantidade());
+            escreverTexto(item.getObservacao());
+        }
+
+        /**
+         * Grava um lançamento do livro de créditos.
+         *
+         * @param l lançamento a ser gravado.
+         * @throws IOException se ocorrer erro de escrita.
+         */
+        public void escreverLancamento(Carteira.Lancamento l) throws IOException {
+            escreverTexto(l.getIdCliente());
+            escreverVarInt(l.getTipo().ordinal());
+            escreverVarLong(l.getValorCentavos());
+            escreverVarLong(l.getSaldoCentavos());
+            escreverVarLong(l.getVersao());
+            escreverVarLong(l.getInstante());
+        }
+
+        private void escreverUsuario(Usuario u) throws IOException {
+            escreverTexto(u.getId());
+            escreverTexto(u.getNome());
+            escreverTexto(u.getEmail());
+            escreverTexto(u.getSenha());
+            escreverTexto(u.getTelefone());
+            escreverTexto(u.getEndereco());
+        }
+    }
+
+    /**
+     * Lê entidades de domínio gravadas pelo {@link Escritor}, em qualquer versão
+     * até {@link #VERSAO_ATUAL}.
+     */
+    public static final class Leitor {
+
+        private final DataInput in;
+
+        /** Versão do formato dos dados sendo lidos. */
+        private int versao;
+
+        /** Tabela de textos já lidos, na ordem em que apareceram. */
+        private final ArrayList<String> textos = new ArrayList<>();
+
+        /**
+         * Cria um leitor para dados na versão atual do formato.
+         *
+         * @param in origem dos bytes.
+         */
+        public Leitor(DataInput in) {
+            this(in, VERSAO_ATUAL);
+        }
+
+        /**
+         * Cria um leitor para dados em uma versão específica do formato.
+         *
+         * @param in origem dos bytes.
+         * @param versao versão do formato.
+         */
+        public Leitor(DataInput in, int versao) {
+            this.in = in;
+            this.versao = versao;
+        }
+
+        /**
+         * Lê a versão do formato logo após o número mágico, já consumido pelo chamador.
+         *
+         * @throws IOException se a versão for mais nova que a suportada.
+         */
+        public void lerVersao() throws IOException {
+            versao = lerVarInt();
+            if (versao < 1 || versao > VERSAO_ATUAL)
+                throw new IOException("Versão de formato não suportada: " + versao);
+        }
+
+        /** @return versão do formato sendo lido */
+        public int getVersao() { return versao; }
+
+        /**
+         * Lê um inteiro gravado por {@link Escritor#escreverVarInt(int)}.
+         *
+         * @return valor lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public int lerVarInt() throws IOException {
+            int valor = 0;
+            for (int deslocamento = 0; deslocamento < 35; deslocamento += 7) {
+                byte b = in.readByte();
+                valor |= (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) return valor;
+            }
+            throw new IOException("Varint inválido");
+        }
+
+        /**
+         * Lê um valor em dinheiro: centavos em varint a partir da versão 4 e
+         * reais em {@code double} nas anteriores.
+         *
+         * @return valor em centavos.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public long lerValor() throws IOException {
+            return versao >= 4 ? lerVarLong() : Dinheiro.paraCentavos(in.readDouble());
+        }
+
+        /**
+         * Lê um long gravado por {@link Escritor#escreverVarLong(long)}.
+         *
+         * @return valor lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public long lerVarLong() throws IOException {
+            long valor = 0;
+            for (int deslocamento = 0; deslocamento < 70; deslocamento += 7) {
+                byte b = in.readByte();
+                valor |= (long) (b & 0x7F) << deslocamento;
+                if ((b & 0x80) == 0) return valor;
+            }
+            throw new IOException("Varlong inválido");
+        }
+
+        /**
+         * Lê um texto gravado por {@link Escritor#escreverTexto(String)}.
+         *
+         * @return texto lido (pode ser nulo).
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public String lerTexto() throws IOException {
+            int marcador = lerVarInt();
+            if (marcador == 0) return null;
+            if (marcador >= 2) {
+                int indice = marcador - 2;
+                if (indice >= textos.size()) throw new IOException("Referência de texto inválida: " + indice);
+                return textos.get(indice);
+            }
+            byte[] bytes = new byte[lerVarInt()];
+            in.readFully(bytes);
+            String texto = new String(bytes, StandardCharsets.UTF_8);
+            textos.add(texto);
+            return texto;
+        }
+
+        /**
+         * Lê uma data gravada como milissegundos desde a época.
+         *
+         * @return data lida.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public LocalDateTime lerData() throws IOException {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(lerVarLong()), FUSO);
+        }
+
+        /**
+         * Lê um cliente, incluindo seus pedidos, se tiverem sido gravados.
+         *
+         * @return cliente lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public Cliente lerCliente() throws IOException {
+            String[] u = lerUsuario();
+            Cliente c = new Cliente(u[0], u[1], u[2], u[3], u[4], u[5], lerTexto());
+            if (versao >= 2) {
+                long centavos = lerVarLong();
+                c.getCarteira().definir(centavos, lerVarLong());
+            } else {
+                // Versão 1: crédito em reais, sem versão
+                c.getCarteira().definir(Dinheiro.paraCentavos(in.readDouble()), 0);
+            }
+            c.setAtivo(in.readBoolean());
+
+            int quantidade = lerVarInt();
+            for (int i = 0; i < quantidade; i++) c.adicionarPedido(lerPedido());
+            return c;
+        }
+
+        /**
+         * Lê um restaurante com seu cardápio e, se gravados, seus pedidos recebidos.
+         *
+         * @return restaurante lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public Restaurante lerRestaurante() throws IOException {
+            String[] u = lerUsuario();
+            String cnpj = lerTexto();
+            String categoria = lerTexto();
+            Restaurante r = new Restaurante(u[0], u[1], u[2], u[3], u[4], u[5],
+                    cnpj, categoria, Dinheiro.paraReais(lerValor()));
+            r.setAberto(in.readBoolean());
+
+            int produtos = lerVarInt();
+            for (int i = 0; i < produtos; i++) r.adicionarProduto(lerProduto());
+
+            int pedidos = lerVarInt();
+            for (int i = 0; i < pedidos; i++) r.receberPedido(lerPedido());
+            return r;
+        }
+
+        /**
+         * Lê um produto.
+         *
+         * @return produto lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public Produto lerProduto() throws IOException {
+            String id = lerTexto();
+            String nome = lerTexto();
+            String descricao = lerTexto();
+            long preco = lerValor();
+            Produto p = new Produto(id, nome, descricao, Dinheiro.paraReais(preco), lerTexto(), lerTexto());
+            p.setAtivo(in.readBoolean());
+            return p;
+        }
+
+        /**
+         * Lê um pedido com seus itens. Até a versão 2, cada unidade era gravada
+         * como um produto completo; esses produtos são convertidos em itens com
+         * o preço gravado.
+         *
+         * @return pedido lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public Pedido lerPedido() throws IOException {
+            String id = lerTexto();
+            String idCliente = lerTexto();
+            String idRestaurante = lerTexto();
+            Pedido p = new Pedido(id, idCliente, idRestaurante, Dinheiro.paraReais(lerValor()));
+            p.setObservacoes(lerTexto());
+            p.alterarStatus(lerStatus());
+            p.definirDataPedido(lerData());
+
+            int quantidade = lerVarInt();
+            for (int i = 0; i < quantidade; i++) {
+                if (versao >= 3) {
+                    p.adicionarItem(lerItem());
+                    continue;
+                }
+                Produto produto = lerProduto();
+                produto.setAtivo(true);
+                p.adicionarProduto(produto);
+            }
+            return p;
+        }
+
+        /**
+         * Lê um item de pedido (disponível a partir da versão 3).
+         *
+         * @return item lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public ItemPedido lerItem() throws IOException {
+            String idProduto = lerTexto();
+            String nome = lerTexto();
+            long precoCentavos = lerVarLong();
+            int quantidade = lerVarInt();
+            try {
+                return new ItemPedido(idProduto, nome, precoCentavos, quantidade, lerTexto());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Item de pedido inválido: " + e.getMessage());
+            }
+        }
+
+        /**
+         * Lê um lançamento do livro de créditos (disponível a partir da versão 2).
+         *
+         * @return lançamento lido.
+         * @throws IOException se ocorrer erro de leitura.
+         */
+        public Carteira.Lancamento lerLancamento() throws IOException {
+            String idCliente = lerTexto();
+            Carteira.TipoLancamento[] tipos = Carteira.TipoLancamento.values();
+            int ordinal = lerVarInt();
+            if (ordinal >= tipos.length) throw new IOException("Tipo de lançamento inválido: " + ordinal);
+            return new Carteira.Lancamento(idCliente, tipos[ordinal], lerVarLong(), lerVarLong(),
+                    lerVarLong(), lerVarLong());
+        }
+
+        private Pedido.StatusPedido lerStatus() throws IOException {
+            Pedido.StatusPedido[] valores = Pedido.StatusPedido.values();
+            int ordinal = lerVarInt();
+            if (ordinal >= valores.length) throw new IOException("Status de pedido inválido: " + ordinal);
+            return valores[ordinal];
+        }
+
+        private String[] lerUsuario() throws IOException {
+            String[] campos = new String[6];
+            for (int i = 0; i < campos.length; i++) campos[i] = lerTexto();
+            return campos;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package main;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * Consulta de pedidos sobre os índices do {@link IndicePedidos}.
+ *
+ * <p>Os filtros são combinados com "e" lógico. Exemplo: todos os pedidos
+ * pendentes do restaurante REST001 feitos hoje:</p>
+ *
+ * <pre>
+ * gerenciador.consultarPedidos()
+ *         .doRestaurante("REST001")
+ *         .comStatus(Pedido.StatusPedido.Pendente)
+ *         .noDia(LocalDate.now())
+ *         .listar();
+ * </pre>
+ *
+ * <p>Históricos longos são lidos em páginas, do mais recente para o mais
+ * antigo. Cada página informa o cursor da seguinte:</p>
+ *
+ * <pre>
+ * ConsultaPedidos.Pagina pagina = gerenciador.consultarPedidos()
+ *         .doCliente("CLI001")
+ *         .pagina(50);
+ * String cursor = pagina.getProximoCursor();
+ * if (cursor != null) {
+ *     pagina = gerenciador.consultarPedidos().doCliente("CLI001").apos(cursor).pagina(50);
+ * }
+ * </pre>
+ */
+public class ConsultaPedidos {
+
+    private final IndicePedidos indice;
+
+    String idRestaurante;
+    String idCliente;
+    EnumSet<Pedido.StatusPedido> status;
+    LocalDate diaInicial;
+    LocalDate diaFinal;
+    LocalDateTime instanteInicial;
+    LocalDateTime instanteFinal;
+    int limite = Integer.MAX_VALUE;
+    IndicePedidos.Chave cursor;
+
+    /**
+     * Cria uma consulta sem filtros.
+     *
+     * @param indice índices onde a consulta será executada.
+     */
+    ConsultaPedidos(IndicePedidos indice) {
+        this.indice = indice;
+    }
+
+    /**
+     * Filtra pelos pedidos recebidos por um restaurante.
+     *
+     * @param idRestaurante ID do restaurante.
+     * @return esta consulta.
+     */
+    public ConsultaPedidos doRestaurante(String idRestaurante) {
+        this.idRestaurante = idRestaurante;
+        return this;
+    }
+
+    /**
+     * Filtra pelos pedidos feitos por um cliente.
+     *
+     * @param idCliente ID do cliente.
+     * @return esta consulta.
+     */
+    public ConsultaPedidos doCliente(String idCliente) {
+        this.idCliente = idCliente;
+        return this;
+    }
+
+    /**
+     * Filtra pelos pedidos em qualquer um dos status informados.
+     *
+     * @param primeiro status aceito.
+     * @param outros demais status aceitos.
+     * @return esta consulta.
+     */
+    public ConsultaPedidos comStatus(Pedido.StatusPedido primeiro, Pedido.StatusPedido... outros) {
+        this.status = EnumSet.of(primeiro, outros);
+        return this;
+    }
+
+    /**
+     * Filtra pelos pedidos criados em um dia.
+     *
+     * @param dia dia desejado.
+     * @return esta consulta.
+     */
+    public ConsultaPedidos noDia(LocalDate dia) {
+        return entre(dia, dia);
+    }
+
+    /**
+     * Filtra pelos pedidos criados entre dois dias, inclusive.
+     * Qualquer um dos limites pode ser nulo para deixar o intervalo aberto.
+     *
+     * @param inicio primeiro dia do intervalo.
+     * @param fim último dia do intervalo.
+     * @return esta consulta.
+     */
+    public ConsultaPedidos entre(LocalDate inicio, LocalDate fim) {
+        this.diaInicial = inicio;
+        this.diaFinal = fim;
+        return this;
+    }
+
+    /**
+     * Filtra pelos pedidos criados entre dois instantes, inclusive, com precisão
+     * de milissegundos. Qualquer um dos limites pode ser nulo para deixar o
+     * intervalo aberto. Pedidos com IDs do {@link GeradorIds} são selecionados
+     * diretamente pelo intervalo de IDs correspondente.
+     *
+     * @param inicio primeiro instante do intervalo.
+     * @param fim último instante do intervalo.
+     * @return esta consulta.
+     */
+    public ConsultaPedidos criadosEntre(LocalDateTime inicio, LocalDateTime fim) {
+        this.instanteInicial = inicio;
+        this.instanteFinal = fim;
+        return this;
+    }
+
+    /**
+     * Limita a quantidade de pedidos retornados.
+     *
+     * @param limite quantidade máxima.
+     * @return esta consulta.
+     */
+    public ConsultaPedidos limitar(int limite) {
+        this.limite = Math.max(0, limite);
+        return this;
+    }
+
+    /**
+     * Continua uma consulta paginada a partir do cursor de uma página anterior.
+     *
+     * @param cursor cursor retornado por {@link Pagina#getProximoCursor()}, ou nulo para a primeira página.
+     * @return esta consulta.
+     * @throws IllegalArgumentException se o cursor for inválido.
+     */
+    public ConsultaPedidos apos(String cursor) {
+        this.cursor = cursor != null ? IndicePedidos.Chave.ler(cursor) : null;
+        return this;
+    }
+
+    /**
+     * Executa a consulta e retorna uma página, do pedido mais recente para o
+     * mais antigo, começando depois do cursor informado em {@link #apos(String)}.
+     * O limite de {@link #limitar(int)} não se aplica às páginas.
+     *
+     * @param tamanho quantidade máxima de pedidos na página (no mínimo 1).
+     * @return página com os pedidos e o cursor da próxima.
+     */
+    public Pagina pagina(int tamanho) {
+        return indice.executarPagina(this, Math.max(1, tamanho));
+    }
+
+    /**
+     * Executa a consulta.
+     *
+     * @return pedidos que atendem a todos os filtros.
+     */
+    public ArrayList<Pedido> listar() {
+        return indice.executar(this);
+    }
+
+    /**
+     * Página de uma consulta paginada.
+     */
+    public static final class Pagina {
+        private final List<Pedido> pedidos;
+        private final String proximoCursor;
+
+        Pagina(List<Pedido> pedidos, String proximoCursor) {
+            this.pedidos = Collections.unmodifiableList(pedidos);
+            this.proximoCursor = proximoCursor;
+        }
+
+        /** @return pedidos da página, do mais recente para o mais antigo. */
+        public List<Pedido> getPedidos() { return pedidos; }
+
+        /** @return cursor da próxima página, ou nulo se esta for a última. */
+        public String getProximoCursor() { return proximoCursor; }
+
+        /** @return {@code true} se houver pedidos depois desta página. */
+        public boolean temMais() { return proximoCursor != null; }
+    }
+}
@@ -32,15 +32,17 @@ public class DadosIniciais {
             // === Criação de Clientes ===
             Cliente c1 = new Cliente("CLI001", "João Silva", "joao@email.com", "senha123",
                     "(11) 99999-0001", "Rua A, 123", "123.456.789-00");
-            c1.adicionarCredito(500.0);
 
             Cliente c2 = new Cliente("CLI002", "Maria Santos", "maria@email.com", "senha456",
                     "(11) 99999-0002", "Rua B, 456", "987.654.321-00");
-            c2.adicionarCredito(300.0);
 
             gerenciador.cadastrarCliente(c1);
             gerenciador.cadastrarCliente(c2);
 
+            // Créditos iniciais lançados pelo gerenciador, para que fiquem no livro de créditos
+            gerenciador.adicionarCredito(c1, 500.0);
+            gerenciador.adicionarCredito(c2, 300.0);
+
             // === Criação de Restaurantes ===
             Restaurante r1 = new Restaurante("REST001", "Pizza Delícia", "pizza@email.com",
                     "senha123", "(11) 3333-0001", "Av. Principal, 100",
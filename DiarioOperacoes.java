@@ -0,0 +1,299 @@
+package main;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.Collection;
+import java.util.zip.CRC32;
+
+/**
+ * Diário (journal) de operações do sistema, gravado apenas por acréscimo.
+ *
+ * <p>Cada alteração em um cliente, restaurante ou pedido é registrada como um
+ * pequeno registro com o estado atual da entidade alterada. Alterações de
+ * crédito são registradas como lançamentos do livro de créditos, com o saldo
+ * resultante (ver {@link Carteira}). Os registros são
+ * gravados em lotes pelo {@link ServicoPersistencia}. O custo de cada
+ * gravação depende apenas do tamanho da entidade, e não da quantidade de dados
+ * do sistema. Na inicialização, o estado é reconstruído reaplicando o diário
+ * sobre o último snapshot salvo pelo {@link Gerenciador}.</p>
+ *
+ * <p>Formato de cada registro: tipo (1 byte), tamanho do conteúdo (int),
+ * conteúdo e CRC32 do conteúdo (int). O conteúdo começa com a versão do
+ * {@link CodecBinario} usada na gravação, seguida da entidade codificada.
+ * Um registro incompleto ou corrompido no final do arquivo (ex: queda durante
+ * a gravação) encerra a leitura e é descartado antes da próxima gravação,
+ * para que os novos registros não fiquem atrás dele.</p>
+ */
+public class DiarioOperacoes implements Closeable {
+
+    /** Tipo de registro com o estado de um cliente. */
+    static final byte REGISTRO_CLIENTE = 1;
+
+    /** Tipo de registro com o estado de um restaurante e seu cardápio. */
+    static final byte REGISTRO_RESTAURANTE = 2;
+
+    /** Tipo de registro com o estado de um pedido. */
+    static final byte REGISTRO_PEDIDO = 3;
+
+    /** Tipo de registro com um lançamento do livro de créditos de um cliente. */
+    static final byte REGISTRO_LANCAMENTO = 4;
+
+    /** Caminho do arquivo do diário. */
+    private final Path arquivo;
+
+    /** Stream de gravação mantido aberto entre as operações. */
+    private FileOutputStream fos;
+
+    /** Quantidade de registros gravados desde o último snapshot. */
+    private int quantidadeRegistros;
+
+    /**
+     * Tamanho da parte válida do arquivo encontrada por {@link #reproduzir}, ou -1
+     * se o diário ainda não foi lido. O restante é descartado antes da próxima gravação.
+     */
+    private long tamanhoValido = -1;
+
+    /**
+     * Cria um diário associado ao arquivo informado.
+     *
+     * @param caminho caminho do arquivo do diário.
+     */
+    public DiarioOperacoes(String caminho) {
+        this.arquivo = Paths.get(caminho);
+    }
+
+    /**
+     * Registro já codificado, pronto para ser gravado no diário.
+     *
+     * <p>A chave identifica a entidade (tipo + ID) e permite que alterações
+     * repetidas na mesma entidade sejam agrupadas antes da gravação.</p>
+     */
+    public static final class Registro {
+
+        /** Tipo do registro. */
+        final byte tipo;
+
+        /** Chave da entidade registrada. */
+        final String chave;
+
+        /** Conteúdo codificado. */
+        final byte[] conteudo;
+
+        private Registro(byte tipo, String chave, byte[] conteudo) {
+            this.tipo = tipo;
+            this.chave = chave;
+            this.conteudo = conteudo;
+        }
+
+        /** @return chave da entidade registrada */
+        public String getChave() { return chave; }
+    }
+
+    /**
+     * Codifica o estado atual de um cliente (sem a lista de pedidos).
+     *
+     * @param c cliente alterado.
+     * @return registro pronto para gravação.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na codificação.
+     */
+    public static Registro registroCliente(Cliente c) throws ArquivoNaoEncontradoException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            CodecBinario.Escritor escritor = new CodecBinario.Escritor(out);
+            escritor.escreverVarInt(CodecBinario.VERSAO_ATUAL);
+            escritor.escreverCliente(c, false);
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao registrar cliente: " + e.getMessage());
+        }
+        return new Registro(REGISTRO_CLIENTE, "C:" + c.getId(), buffer.toByteArray());
+    }
+
+    /**
+     * Codifica o estado atual de um restaurante, incluindo o cardápio.
+     *
+     * @param r restaurante alterado.
+     * @return registro pronto para gravação.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na codificação.
+     */
+    public static Registro registroRestaurante(Restaurante r) throws ArquivoNaoEncontradoException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            CodecBinario.Escritor escritor = new CodecBinario.Escritor(out);
+            escritor.escreverVarInt(CodecBinario.VERSAO_ATUAL);
+            escritor.escreverRestaurante(r, false);
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao registrar restaurante: " + e.getMessage());
+        }
+        return new Registro(REGISTRO_RESTAURANTE, "R:" + r.getId(), buffer.toByteArray());
+    }
+
+    /**
+     * Codifica o estado atual de um pedido.
+     *
+     * @param p pedido criado ou alterado.
+     * @return registro pronto para gravação.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na codificação.
+     */
+    public static Registro registroPedido(Pedido p) throws ArquivoNaoEncontradoException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            CodecBinario.Escritor escritor = new CodecBinario.Escritor(out);
+            escritor.escreverVarInt(CodecBinario.VERSAO_ATUAL);
+            escritor.escreverPedido(p);
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao registrar pedido: " + e.getMessage());
+        }
+        return new Registro(REGISTRO_PEDIDO, "P:" + p.getId(), buffer.toByteArray());
+    }
+
+    /**
+     * Codifica um lançamento do livro de créditos. Cada lançamento tem chave
+     * própria (cliente + versão do saldo) e, por isso, nunca é agrupado com outro.
+     *
+     * @param l lançamento gerado pela carteira.
+     * @return registro pronto para gravação.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na codificação.
+     */
+    public static Registro registroLancamento(Carteira.Lancamento l) throws ArquivoNaoEncontradoException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            CodecBinario.Escritor escritor = new CodecBinario.Escritor(out);
+            escritor.escreverVarInt(CodecBinario.VERSAO_ATUAL);
+            escritor.escreverLancamento(l);
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao registrar lançamento: " + e.getMessage());
+        }
+        return new Registro(REGISTRO_LANCAMENTO, "L:" + l.getIdCliente() + ":" + l.getVersao(), buffer.toByteArray());
+    }
+
+    /**
+     * Acrescenta um lote de registros ao final do arquivo e força sua gravação
+     * em disco uma única vez para todo o lote.
+     *
+     * @param registros registros a serem gravados, na ordem.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na gravação.
+     */
+    public synchronized void gravar(Collection<Registro> registros) throws ArquivoNaoEncontradoException {
+        if (registros.isEmpty()) return;
+        try {
+            if (fos == null) {
+                fos = new FileOutputStream(arquivo.toFile(), true);
+                // Descarta o registro incompleto ou corrompido deixado por uma queda
+                if (tamanhoValido >= 0 && fos.getChannel().size() > tamanhoValido) {
+                    fos.getChannel().truncate(tamanhoValido);
+                    fos.getChannel().force(true);
+                }
+                tamanhoValido = -1;
+            }
+
+            ByteArrayOutputStream lote = new ByteArrayOutputStream(4096);
+            DataOutputStream out = new DataOutputStream(lote);
+            CRC32 crc = new CRC32();
+            for (Registro r : registros) {
+                crc.reset();
+                crc.update(r.conteudo);
+                out.writeByte(r.tipo);
+                out.writeInt(r.conteudo.length);
+                out.write(r.conteudo);
+                out.writeInt((int) crc.getValue());
+            }
+
+            fos.write(lote.toByteArray());
+            fos.getChannel().force(false);
+            quantidadeRegistros += registros.size();
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao gravar diário: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reaplica todos os registros válidos do diário no gerenciador informado.
+     * A posição do fim do último registro válido é guardada para que a próxima
+     * gravação descarte o que vier depois dele.
+     *
+     * @param g gerenciador que receberá as alterações.
+     * @return quantidade de registros reaplicados.
+     * @throws ArquivoNaoEncontradoException se ocorrer erro na leitura do arquivo.
+     */
+    public synchronized int reproduzir(Gerenciador g) throws ArquivoNaoEncontradoException {
+        if (!Files.exists(arquivo)) return 0;
+
+        int aplicados = 0;
+        long valido = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(arquivo)))) {
+            long tamanhoArquivo = Files.size(arquivo);
+            while (true) {
+                int tipo = in.read();
+                if (tipo < 0) break;
+
+                int tamanho = in.readInt();
+                // Tamanho negativo ou além do fim do arquivo: registro corrompido
+                if (tamanho < 0 || valido + 9 + tamanho > tamanhoArquivo) break;
+                byte[] conteudo = new byte[tamanho];
+                in.readFully(conteudo);
+
+                CRC32 crc = new CRC32();
+                crc.update(conteudo);
+                if ((int) crc.getValue() != in.readInt()) break;
+                valido += 9 + tamanho;
+
+                CodecBinario.Leitor leitor = new CodecBinario.Leitor(
+                        new DataInputStream(new ByteArrayInputStream(conteudo)));
+                leitor.lerVersao();
+                switch (tipo) {
+                    case REGISTRO_CLIENTE:     g.aplicarCliente(leitor.lerCliente()); break;
+                    case REGISTRO_RESTAURANTE: g.aplicarRestaurante(leitor.lerRestaurante()); break;
+                    case REGISTRO_PEDIDO:      g.aplicarPedido(leitor.lerPedido()); break;
+                    case REGISTRO_LANCAMENTO:  g.aplicarLancamento(leitor.lerLancamento()); break;
+                    default: continue;
+                }
+                aplicados++;
+            }
+        } catch (EOFException e) {
+            // Registro final incompleto: descartado
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao ler diário: " + e.getMessage());
+        }
+        tamanhoValido = valido;
+        quantidadeRegistros = aplicados;
+        return aplicados;
+    }
+
+    /**
+     * Esvazia o diário. Deve ser chamado logo após um snapshot completo ser salvo.
+     *
+     * @throws ArquivoNaoEncontradoException se ocorrer erro ao truncar o arquivo.
+     */
+    public synchronized void truncar() throws ArquivoNaoEncontradoException {
+        try {
+            close();
+            Files.deleteIfExists(arquivo);
+            quantidadeRegistros = 0;
+            tamanhoValido = -1;
+        } catch (IOException e) {
+            throw new ArquivoNaoEncontradoException("Erro ao truncar diário: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retorna a quantidade de registros acumulados desde o último snapshot.
+     *
+     * @return número de registros no diário.
+     */
+    public synchronized int getQuantidadeRegistros() {
+        return quantidadeRegistros;
+    }
+
+    /**
+     * Fecha o arquivo do diário, se estiver aberto.
+     *
+     * @throws IOException se ocorrer erro ao fechar o arquivo.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (fos != null) {
+            fos.close();
+            fos = null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package main;
+
+/**
+ * Valores em dinheiro representados como centavos em um {@code long}.
+ *
+ * <p>Somas e multiplicações em centavos são exatas, sem o acúmulo de erros de
+ * arredondamento dos valores em {@code double}. Os métodos de formatação
+ * escrevem em um {@link StringBuilder} recebido, sem criar objetos
+ * intermediários, para que listas grandes possam ser desenhadas reutilizando
+ * o mesmo buffer.</p>
+ */
+public final class Dinheiro {
+
+    /** Maior potência de 10 que cabe em um {@code long}. */
+    private static final long MAIOR_POTENCIA = 1_000_000_000_000_000_000L;
+
+    private Dinheiro() {
+    }
+
+    /**
+     * Converte um valor em reais para centavos, arredondando para o centavo mais próximo.
+     *
+     * @param reais valor em reais.
+     * @return valor em centavos.
+     */
+    public static long paraCentavos(double reais) {
+        return Math.round(reais * 100.0);
+    }
+
+    /**
+     * Converte um valor em centavos para reais.
+     *
+     * @param centavos valor em centavos.
+     * @return valor em reais.
+     */
+    public static double paraReais(long centavos) {
+        return centavos / 100.0;
+    }
+
+    /**
+     * Lê um valor digitado pelo usuário, como {@code 35}, {@code 35,5},
+     * {@code 35.50}, {@code 1.234,56} ou {@code R$ 1,234.56}. O último ponto ou
+     * vírgula seguido de um ou dois dígitos é o separador decimal; os demais
+     * são separadores de milhar.
+     *
+     * @param texto valor digitado.
+     * @return valor em centavos.
+     * @throws NumberFormatException se o texto não for um valor válido.
+     */
+    public static long converter(String texto) {
+        if (texto == null) throw new NumberFormatException("Valor vazio");
+        String s = texto.trim();
+        if (s.startsWith("R$")) s = s.substring(2).trim();
+        boolean negativo = s.startsWith("-");
+        if (negativo) s = s.substring(1).trim();
+        if (s.isEmpty()) throw new NumberFormatException("Valor vazio: " + texto);
+        try {
+            long valor = lerDigitos(s, texto);
+            return negativo ? -valor : valor;
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Valor muito grande: " + texto);
+        }
+    }
+
+    /**
+     * Lê os dígitos de um valor sem sinal, em centavos.
+     */
+    private static long lerDigitos(String s, String texto) {
+        int decimal = Math.max(s.lastIndexOf(','), s.lastIndexOf('.'));
+        int casas = s.length() - decimal - 1;
+        if (decimal >= 0 && (casas < 1 || casas > 2)) decimal = -1;
+
+        long reais = 0;
+        long centavos = 0;
+        int digitos = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (i == decimal) continue;
+            if (c == '.' || c == ',') {
+                if (decimal >= 0 && i > decimal) throw new NumberFormatException("Valor inválido: " + texto);
+                continue;
+            }
+            if (c < '0' || c > '9') throw new NumberFormatException("Valor inválido: " + texto);
+            digitos++;
+            if (decimal >= 0 && i > decimal) {
+                centavos = centavos * 10 + (c - '0');
+            } else {
+                reais = Math.addExact(Math.multiplyExact(reais, 10), c - '0');
+            }
+        }
+        if (digitos == 0) throw new NumberFormatException("Valor inválido: " + texto);
+        if (decimal >= 0 && casas == 1) centavos *= 10;
+        return Math.addExact(Math.multiplyExact(reais, 100), centavos);
+    }
+
+    /**
+     * Escreve o valor no formato brasileiro, como {@code R$ 1.234,56}.
+     *
+     * @param sb destino do texto.
+     * @param centavos valor em centavos.
+     * @return o próprio {@code sb}.
+     */
+    public static StringBuilder formatar(StringBuilder sb, long centavos) {
+        if (centavos < 0) sb.append('-');
+        sb.append("R$ ");
+        return escrever(sb, centavos, '.', ',');
+    }
+
+    /**
+     * Formata o valor no formato brasileiro, como {@code R$ 1.234,56}.
+     *
+     * @param centavos valor em centavos.
+     * @return texto formatado.
+     */
+    public static String formatar(long centavos) {
+        return formatar(new StringBuilder(16), centavos).toString();
+    }
+
+    /**
+     * Escreve o valor como número decimal, sem separador de milhar e com ponto
+     * decimal, como {@code 1234.56} (usado em JSON).
+     *
+     * @param sb destino do texto.
+     * @param centavos valor em centavos.
+     * @return o próprio {@code sb}.
+     */
+    public static StringBuilder formatarDecimal(StringBuilder sb, long centavos) {
+        if (centavos < 0) sb.append('-');
+        return escrever(sb, centavos, (char) 0, '.');
+    }
+
+    /**
+     * Escreve o valor absoluto com os separadores informados. As contas são
+     * feitas com números negativos para que {@link Long#MIN_VALUE} também funcione.
+     */
+    private static StringBuilder escrever(StringBuilder sb, long centavos, char milhar, char decimal) {
+        long negativo = centavos < 0 ? centavos : -centavos;
+        long reais = negativo / 100;
+        int resto = (int) -(negativo % 100);
+
+        int digitos = 1;
+        long potencia = 1;
+        while (potencia < MAIOR_POTENCIA && reais <= -potencia * 10) {
+            potencia *= 10;
+            digitos++;
+        }
+        for (; digitos > 0; digitos--, potencia /= 10) {
+            sb.append((char) ('0' - (reais / potencia) % 10));
+            if (milhar != 0 && digitos > 1 && (digitos - 1) % 3 == 0) sb.append(milhar);
+        }
+        return sb.append(decimal).append((char) ('0' + resto / 10)).append((char) ('0' + resto % 10));
+    }
+}
@@ -0,0 +1,375 @@
+package main;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estatísticas de vendas de cada restaurante, atualizadas a cada pedido.
+ *
+ * <p>Para cada restaurante são mantidos o total geral, um agregado por dia,
+ * um por hora do dia (somando todos os dias) e as unidades vendidas de cada
+ * produto. Um pedido conta assim que é criado ({@link #registrar(Pedido)}) e
+ * deixa de contar se for cancelado ({@link #statusAlterado}); se sair do
+ * cancelamento, volta a contar. Nenhuma consulta percorre os pedidos: as
+ * leituras custam o mesmo para 10 ou 1 milhão de pedidos (os mais vendidos
+ * dependem apenas da quantidade de produtos do restaurante).</p>
+ *
+ * <p>As estatísticas são gravadas no snapshot do {@link Gerenciador} e,
+ * após o carregamento, os pedidos do diário são aplicados por cima. Quando
+ * os dados vêm de um formato sem estatísticas, elas são reconstruídas uma vez
+ * a partir dos pedidos ({@link #reconstruir(Collection)}).</p>
+ */
+public class EstatisticasVendas {
+
+    /** Vendas por ID do restaurante. */
+    private final ConcurrentHashMap<String, VendasRestaurante> porRestaurante = new ConcurrentHashMap<>();
+
+    /** Indica se as estatísticas foram lidas de um snapshot desde o último {@link #limpar()}. */
+    private volatile boolean carregada;
+
+    /**
+     * Conta um pedido recém-criado, se ele não estiver cancelado.
+     *
+     * @param p pedido criado.
+     */
+    public void registrar(Pedido p) {
+        if (conta(p.getStatus())) vendas(p.getIdRestaurante()).aplicar(p, 1);
+    }
+
+    /**
+     * Ajusta as estatísticas após uma mudança de status: retira o pedido ao ser
+     * cancelado e o devolve se deixar de estar cancelado.
+     *
+     * @param p pedido alterado.
+     * @param anterior status antes da alteração.
+     */
+    public void statusAlterado(Pedido p, Pedido.StatusPedido anterior) {
+        boolean contava = conta(anterior);
+        boolean conta = conta(p.getStatus());
+        if (contava != conta) vendas(p.getIdRestaurante()).aplicar(p, conta ? 1 : -1);
+    }
+
+    /**
+     * Descarta todas as estatísticas e as recalcula a partir dos pedidos informados.
+     *
+     * @param pedidos todos os pedidos do sistema.
+     */
+    public void reconstruir(Collection<Pedido> pedidos) {
+        porRestaurante.clear();
+        for (Pedido p : pedidos) registrar(p);
+    }
+
+    /**
+     * Descarta todas as estatísticas.
+     */
+    public void limpar() {
+        porRestaurante.clear();
+        carregada = false;
+    }
+
+    /**
+     * Indica se as estatísticas foram lidas de um snapshot desde o último {@link #limpar()}.
+     *
+     * @return {@code true} se foram carregadas.
+     */
+    public boolean foiCarregada() {
+        return carregada;
+    }
+
+    /**
+     * Retorna o total de vendas do restaurante.
+     *
+     * @param idRestaurante ID do restaurante.
+     * @return agregado de todos os pedidos não cancelados.
+     */
+    public Agregado obterTotal(String idRestaurante) {
+        VendasRestaurante v = porRestaurante.get(idRestaurante);
+        if (v == null) return Agregado.VAZIO;
+        synchronized (v) {
+            return v.total.copiar();
+        }
+    }
+
+    /**
+     * Retorna as vendas do restaurante em um dia.
+     *
+     * @param idRestaurante ID do restaurante.
+     * @param dia dia desejado.
+     * @return agregado dos pedidos criados no dia.
+     */
+    public Agregado obterDia(String idRestaurante, LocalDate dia) {
+        VendasRestaurante v = porRestaurante.get(idRestaurante);
+        if (v == null) return Agregado.VAZIO;
+        synchronized (v) {
+            Acumulador a = v.porDia.get(dia);
+            return a != null ? a.copiar() : Agregado.VAZIO;
+        }
+    }
+
+    /**
+     * Retorna as vendas do restaurante em cada dia do intervalo, inclusive,
+     * incluindo os dias sem vendas.
+     *
+     * @param idRestaurante ID do restaurante.
+     * @param inicio primeiro dia.
+     * @param fim último dia.
+     * @return agregado por dia, em ordem cronológica.
+     */
+    public LinkedHashMap<LocalDate, Agregado> obterDias(String idRestaurante, LocalDate inicio, LocalDate fim) {
+        LinkedHashMap<LocalDate, Agregado> dias = new LinkedHashMap<>();
+        VendasRestaurante v = porRestaurante.get(idRestaurante);
+        for (LocalDate d = inicio; !d.isAfter(fim); d = d.plusDays(1)) dias.put(d, Agregado.VAZIO);
+        if (v == null) return dias;
+        synchronized (v) {
+            for (Map.Entry<LocalDate, Acumulador> e : v.porDia.subMap(inicio, true, fim, true).entrySet()) {
+                dias.put(e.getKey(), e.getValue().copiar());
+            }
+        }
+        return dias;
+    }
+
+    /**
+     * Retorna as vendas do restaurante por hora do dia, somando todos os dias.
+     *
+     * @param idRestaurante ID do restaurante.
+     * @return 24 agregados, da hora 0 à hora 23.
+     */
+    public Agregado[] obterPorHora(String idRestaurante) {
+        Agregado[] horas = new Agregado[24];
+        Arrays.fill(horas, Agregado.VAZIO);
+        VendasRestaurante v = porRestaurante.get(idRestaurante);
+        if (v == null) return horas;
+        synchronized (v) {
+            for (int h = 0; h < 24; h++) horas[h] = v.porHora[h].copiar();
+        }
+        return horas;
+    }
+
+    /**
+     * Retorna os produtos mais vendidos do restaurante, por unidades.
+     *
+     * @param idRestaurante ID do restaurante.
+     * @param quantidade quantidade máxima de produtos.
+     * @return produtos do mais para o menos vendido (sem os que não têm vendas).
+     */
+    public List<ProdutoVendido> obterMaisVendidos(String idRestaurante, int quantidade) {
+        ArrayList<ProdutoVendido> produtos = new ArrayList<>();
+        VendasRestaurante v = porRestaurante.get(idRestaurante);
+        if (v == null) return produtos;
+        synchronized (v) {
+            for (Map.Entry<String, ContadorProduto> e : v.porProduto.entrySet()) {
+                ContadorProduto c = e.getValue();
+                if (c.unidades > 0) produtos.add(new ProdutoVendido(e.getKey(), c.nome, c.unidades, c.receitaCentavos));
+            }
+        }
+        produtos.sort(Comparator.comparingLong(ProdutoVendido::getUnidades).reversed()
+                .thenComparing(ProdutoVendido::getNome));
+        return produtos.size() > quantidade ? new ArrayList<>(produtos.subList(0, quantidade)) : produtos;
+    }
+
+    /**
+     * Grava as estatísticas de todos os restaurantes.
+     *
+     * @param escritor destino.
+     * @throws IOException se ocorrer erro de escrita.
+     */
+    public void gravar(CodecBinario.Escritor escritor) throws IOException {
+        escritor.escreverVarInt(porRestaurante.size());
+        for (Map.Entry<String, VendasRestaurante> e : porRestaurante.entrySet()) {
+            VendasRestaurante v = e.getValue();
+            synchronized (v) {
+                escritor.escreverTexto(e.getKey());
+                v.total.gravar(escritor);
+                escritor.escreverVarInt(v.porDia.size());
+                for (Map.Entry<LocalDate, Acumulador> dia : v.porDia.entrySet()) {
+                    escritor.escreverVarLong(dia.getKey().toEpochDay());
+                    dia.getValue().gravar(escritor);
+                }
+                for (Acumulador hora : v.porHora) hora.gravar(escritor);
+                escritor.escreverVarInt(v.porProduto.size());
+                for (Map.Entry<String, ContadorProduto> p : v.porProduto.entrySet()) {
+                    escritor.escreverTexto(p.getKey());
+                    escritor.escreverTexto(p.getValue().nome);
+                    escritor.escreverVarLong(p.getValue().unidades);
+                    escritor.escreverVarLong(p.getValue().receitaCentavos);
+                }
+            }
+        }
+    }
+
+    /**
+     * Substitui as estatísticas pelas gravadas por {@link #gravar}.
+     *
+     * @param leitor origem.
+     * @throws IOException se ocorrer erro de leitura.
+     */
+    public void carregar(CodecBinario.Leitor leitor) throws IOException {
+        porRestaurante.clear();
+        int restaurantes = leitor.lerVarInt();
+        for (int i = 0; i < restaurantes; i++) {
+            VendasRestaurante v = new VendasRestaurante();
+            String id = leitor.lerTexto();
+            v.total.carregar(leitor);
+            int dias = leitor.lerVarInt();
+            for (int d = 0; d < dias; d++) {
+                Acumulador a = new Acumulador();
+                LocalDate dia = LocalDate.ofEpochDay(leitor.lerVarLong());
+                a.carregar(leitor);
+                v.porDia.put(dia, a);
+            }
+            for (Acumulador hora : v.porHora) hora.carregar(leitor);
+            int produtos = leitor.lerVarInt();
+            for (int p = 0; p < produtos; p++) {
+                String idProduto = leitor.lerTexto();
+                ContadorProduto c = new ContadorProduto(leitor.lerTexto());
+                c.unidades = leitor.lerVarLong();
+                c.receitaCentavos = leitor.lerVarLong();
+                v.porProduto.put(idProduto, c);
+            }
+            porRestaurante.put(id, v);
+        }
+        carregada = true;
+    }
+
+    private VendasRestaurante vendas(String idRestaurante) {
+        return porRestaurante.computeIfAbsent(idRestaurante, k -> new VendasRestaurante());
+    }
+
+    private static boolean conta(Pedido.StatusPedido status) {
+        return status != Pedido.StatusPedido.Cancelado;
+    }
+
+    /**
+     * Vendas de um restaurante, protegidas pela trava do próprio objeto.
+     */
+    private static final class VendasRestaurante {
+        final Acumulador total = new Acumulador();
+        final TreeMap<LocalDate, Acumulador> porDia = new TreeMap<>();
+        final Acumulador[] porHora = new Acumulador[24];
+        final HashMap<String, ContadorProduto> porProduto = new HashMap<>();
+
+        VendasRestaurante() {
+            for (int h = 0; h < 24; h++) porHora[h] = new Acumulador();
+        }
+
+        /**
+         * Soma (sinal 1) ou subtrai (sinal -1) um pedido de todos os agregados.
+         */
+        synchronized void aplicar(Pedido p, int sinal) {
+            long receita = sinal * p.getTotalCentavos();
+            long unidades = sinal * (long) p.getQuantidadeProdutos();
+            LocalDateTime data = p.getDataPedido();
+
+            total.somar(sinal, receita, unidades);
+            porDia.computeIfAbsent(data.toLocalDate(), k -> new Acumulador()).somar(sinal, receita, unidades);
+            porHora[data.getHour()].somar(sinal, receita, unidades);
+            for (ItemPedido item : p.obterItens()) {
+                ContadorProduto c = porProduto.computeIfAbsent(item.getIdProduto(), k -> new ContadorProduto(item.getNome()));
+                c.unidades += sinal * (long) item.getQuantidade();
+                c.receitaCentavos += sinal * item.getSubtotalCentavos();
+            }
+        }
+    }
+
+    /**
+     * Contadores mutáveis de um agregado.
+     */
+    private static final class Acumulador {
+        long pedidos;
+        long receitaCentavos;
+        long unidades;
+
+        void somar(long pedidos, long receitaCentavos, long unidades) {
+            this.pedidos += pedidos;
+            this.receitaCentavos += receitaCentavos;
+            this.unidades += unidades;
+        }
+
+        Agregado copiar() {
+            return new Agregado(pedidos, receitaCentavos, unidades);
+        }
+
+        void gravar(CodecBinario.Escritor escritor) throws IOException {
+            escritor.escreverVarLong(pedidos);
+            escritor.escreverVarLong(receitaCentavos);
+            escritor.escreverVarLong(unidades);
+        }
+
+        void carregar(CodecBinario.Leitor leitor) throws IOException {
+            pedidos = leitor.lerVarLong();
+            receitaCentavos = leitor.lerVarLong();
+            unidades = leitor.lerVarLong();
+        }
+    }
+
+    /**
+     * Contadores mutáveis das vendas de um produto.
+     */
+    private static final class ContadorProduto {
+        final String nome;
+        long unidades;
+        long receitaCentavos;
+
+        ContadorProduto(String nome) {
+            this.nome = nome;
+        }
+    }
+
+    /**
+     * Agregado imutável de vendas: quantidade de pedidos, receita e unidades.
+     */
+    public static final class Agregado {
+
+        /** Agregado sem vendas. */
+        public static final Agregado VAZIO = new Agregado(0, 0, 0);
+
+        private final long pedidos;
+        private final long receitaCentavos;
+        private final long unidades;
+
+        Agregado(long pedidos, long receitaCentavos, long unidades) {
+            this.pedidos = pedidos;
+            this.receitaCentavos = receitaCentavos;
+            this.unidades = unidades;
+        }
+
+        /** @return quantidade de pedidos */
+        public long getPedidos() { return pedidos; }
+
+        /** @return receita em centavos, com as taxas de entrega */
+        public long getReceitaCentavos() { return receitaCentavos; }
+
+        /** @return unidades de produtos vendidas */
+        public long getUnidades() { return unidades; }
+
+        /** @return valor médio por pedido, em centavos (0 sem pedidos) */
+        public long getTicketMedioCentavos() {
+            return pedidos > 0 ? Math.round((double) receitaCentavos / pedidos) : 0;
+        }
+    }
+
+    /**
+     * Vendas de um produto: unidades e receita (sem a taxa de entrega).
+     */
+    public static final class ProdutoVendido {
+        private final String idProduto;
+        private final String nome;
+        private final long unidades;
+        private final long receitaCentavos;
+
+        ProdutoVendido(String idProduto, String nome, long unidades, long receitaCentavos) {
+            this.idProduto = idProduto;
+            this.nome = nome;
+            this.unidades = unidades;
+            this.receitaCentavos = receitaCentavos;
+        }
+
+        public String getIdProduto() { return idProduto; }
+        public String getNome() { return nome; }
+        public long getUnidades() { return unidades; }
+        public long getReceitaCentavos() { return receitaCentavos; }
+    }
+}
@@ -0,0 +1,55 @@
+package main;
+
+/**
+ * Evento publicado pelo {@link Gerenciador} quando um pedido é criado ou tem
+ * seu status alterado.
+ *
+ * <p>O evento guarda o status no momento da publicação; como a entrega aos
+ * assinantes é assíncrona, o pedido pode já estar em outro status quando o
+ * evento for recebido.</p>
+ */
+public final class EventoPedido {
+
+    /**
+     * Tipo do evento.
+     */
+    public enum Tipo {
+        /** Pedido criado. */
+        CRIADO,
+        /** Status do pedido alterado. */
+        STATUS_ALTERADO
+    }
+
+    private final Tipo tipo;
+    private final Pedido pedido;
+    private final Pedido.StatusPedido statusAnterior;
+    private final Pedido.StatusPedido status;
+    private final long instante;
+
+    /**
+     * Cria um evento.
+     *
+     * @param tipo tipo do evento.
+     * @param pedido pedido afetado.
+     * @param statusAnterior status antes da alteração (null para pedidos criados).
+     */
+    public EventoPedido(Tipo tipo, Pedido pedido, Pedido.StatusPedido statusAnterior) {
+        this.tipo = tipo;
+        this.pedido = pedido;
+        this.statusAnterior = statusAnterior;
+        this.status = pedido.getStatus();
+        this.instante = System.currentTimeMillis();
+    }
+
+    public Tipo getTipo() { return tipo; }
+    public Pedido getPedido() { return pedido; }
+    public Pedido.StatusPedido getStatusAnterior() { return statusAnterior; }
+    public Pedido.StatusPedido getStatus() { return status; }
+    public long getInstante() { return instante; }
+
+    /** @return ID do cliente do pedido */
+    public String getIdCliente() { return pedido.getIdCliente(); }
+
+    /** @return ID do restaurante do pedido */
+    public String getIdRestaurante() { return pedido.getIdRestaurante(); }
+}
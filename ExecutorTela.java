@@ -0,0 +1,164 @@
+package main;
+
+import javax.swing.JComponent;
+import javax.swing.JOptionPane;
+import javax.swing.RootPaneContainer;
+import javax.swing.SwingWorker;
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.KeyboardFocusManager;
+import java.awt.event.KeyAdapter;
+import java.awt.event.MouseAdapter;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Executa fora da thread de eventos do Swing as ações das telas que acessam o
+ * {@link Gerenciador} (cadastros, pedidos, créditos, cardápio), para que um
+ * clique nunca espere pela gravação em disco ou por uma trava.
+ *
+ * <p>Enquanto a ação executa, a janela fica ocupada: o cursor de espera é
+ * exibido e cliques e teclas são ignorados, o que também impede que a mesma
+ * ação seja disparada duas vezes. O resultado é entregue na thread de eventos,
+ * onde a tela pode ser atualizada.</p>
+ */
+public final class ExecutorTela {
+
+    /** Propriedade da janela com a quantidade de ações em andamento. */
+    private static final String PROPRIEDADE_OCUPADA = "ExecutorTela.ocupada";
+
+    private ExecutorTela() {
+    }
+
+    /**
+     * Executa uma ação em segundo plano. Em caso de erro, a mensagem é exibida
+     * em uma caixa de diálogo sobre a janela.
+     *
+     * @param tela janela que fica ocupada durante a ação.
+     * @param trabalho ação executada fora da thread de eventos.
+     * @param aoConcluir recebe o resultado na thread de eventos.
+     * @param <T> tipo do resultado.
+     */
+    public static <T> void executar(RootPaneContainer tela, Callable<T> trabalho, Consumer<T> aoConcluir) {
+        executar(tela, trabalho, aoConcluir, e -> exibirErro(tela, e));
+    }
+
+    /**
+     * Executa uma ação em segundo plano.
+     *
+     * @param tela janela que fica ocupada durante a ação.
+     * @param trabalho ação executada fora da thread de eventos.
+     * @param aoConcluir recebe o resultado na thread de eventos.
+     * @param aoFalhar recebe, na thread de eventos, a exceção lançada pela ação.
+     * @param <T> tipo do resultado.
+     */
+    public static <T> void executar(RootPaneContainer tela, Callable<T> trabalho,
+                                    Consumer<T> aoConcluir, Consumer<Exception> aoFalhar) {
+        Component foco = ocupar(tela);
+        new SwingWorker<T, Void>() {
+            @Override
+            protected T doInBackground() throws Exception {
+                return trabalho.call();
+            }
+
+            @Override
+            protected void done() {
+                liberar(tela, foco);
+                T resultado;
+                try {
+                    resultado = get();
+                } catch (ExecutionException e) {
+                    Throwable causa = e.getCause();
+                    if (causa instanceof Error) throw (Error) causa;
+                    aoFalhar.accept((Exception) causa);
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                aoConcluir.accept(resultado);
+            }
+        }.execute();
+    }
+
+    /**
+     * Indica se a janela está aguardando alguma ação.
+     *
+     * @param tela janela consultada.
+     * @return {@code true} se houver ação em andamento.
+     */
+    public static boolean isOcupada(RootPaneContainer tela) {
+        return contador(tela) > 0;
+    }
+
+    /**
+     * Marca a janela como ocupada, cobrindo-a com um painel que exibe o cursor
+     * de espera e consome os eventos de mouse e teclado.
+     *
+     * @return componente que tinha o foco, devolvido em {@link #liberar}.
+     */
+    private static Component ocupar(RootPaneContainer tela) {
+        Component foco = KeyboardFocusManager.getCurrentKeyboardFocusManager().getFocusOwner();
+        int ocupadas = contador(tela) + 1;
+        tela.getRootPane().putClientProperty(PROPRIEDADE_OCUPADA, ocupadas);
+        if (ocupadas == 1) {
+            Component painel = tela.getGlassPane();
+            if (!(painel instanceof PainelOcupado)) {
+                painel = new PainelOcupado();
+                tela.setGlassPane((PainelOcupado) painel);
+            }
+            painel.setVisible(true);
+            painel.requestFocusInWindow();
+        }
+        return foco;
+    }
+
+    /**
+     * Libera a janela quando a última ação em andamento termina.
+     */
+    private static void liberar(RootPaneContainer tela, Component foco) {
+        int ocupadas = Math.max(0, contador(tela) - 1);
+        tela.getRootPane().putClientProperty(PROPRIEDADE_OCUPADA, ocupadas);
+        if (ocupadas == 0) {
+            tela.getGlassPane().setVisible(false);
+            if (foco != null && foco.isShowing()) foco.requestFocusInWindow();
+        }
+    }
+
+    private static int contador(RootPaneContainer tela) {
+        Object valor = tela.getRootPane().getClientProperty(PROPRIEDADE_OCUPADA);
+        return valor instanceof Integer ? (Integer) valor : 0;
+    }
+
+    /**
+     * Exibe a mensagem de uma exceção sobre a janela.
+     *
+     * @param tela janela sobre a qual o diálogo é exibido.
+     * @param e exceção lançada pela ação.
+     */
+    public static void exibirErro(RootPaneContainer tela, Exception e) {
+        String mensagem = e.getMessage() != null ? e.getMessage() : e.toString();
+        if (!(e instanceof PedidoException)) System.err.println("Erro na ação da tela: " + mensagem);
+        Component pai = tela instanceof Component ? (Component) tela : null;
+        JOptionPane.showMessageDialog(pai, mensagem, "Erro", JOptionPane.ERROR_MESSAGE);
+    }
+
+    /**
+     * Painel transparente que cobre a janela enquanto há ação em andamento.
+     */
+    private static class PainelOcupado extends JComponent {
+
+        private static final long serialVersionUID = 1L;
+
+        PainelOcupado() {
+            setOpaque(false);
+            setFocusable(true);
+            setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+            addMouseListener(new MouseAdapter() { });
+            addMouseMotionListener(new MouseAdapter() { });
+            addKeyListener(new KeyAdapter() { });
+            setFocusTraversalKeysEnabled(false);
+        }
+    }
+}
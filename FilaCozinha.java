@@ -0,0 +1,349 @@
+package main;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Fila de trabalho da cozinha de um restaurante.
+ *
+ * <p>Contém os pedidos em andamento (que ainda não foram entregues nem
+ * cancelados), ordenados por prioridade: primeiro pelo status, dos mais
+ * adiantados para os mais recentes (pronto, preparando, confirmado,
+ * pendente), e, dentro do mesmo status, pelo prazo de entrega, que é a data
+ * do pedido somada ao SLA da cozinha.</p>
+ *
+ * <p>A capacidade é ilimitada até ser configurada ({@link #configurar}).
+ * Com capacidade definida, quando a fila está cheia, novos pedidos são
+ * recusados por {@link #reservar} e o {@link Gerenciador} informa que o
+ * restaurante está ocupado. Acima de {@link #LIMITE_OCUPADA} da capacidade,
+ * {@link #isOcupada} já sinaliza a sobrecarga para que a interface avise o
+ * cliente antes da recusa.</p>
+ *
+ * <p>Cada restaurante tem sua própria fila, protegida por sua própria trava:
+ * o movimento de um restaurante não atrasa as operações dos demais.</p>
+ */
+public class FilaCozinha {
+
+    /** Capacidade que indica uma fila sem limite de pedidos em andamento. */
+    public static final int SEM_LIMITE = Integer.MAX_VALUE;
+
+    /** Capacidade padrão: sem limite até que a cozinha seja configurada. */
+    public static final int CAPACIDADE_PADRAO = SEM_LIMITE;
+
+    /** SLA padrão: tempo, em milissegundos, para entregar um pedido (45 minutos). */
+    public static final long SLA_PADRAO_MS = 45 * 60 * 1000L;
+
+    /** Fração da capacidade a partir da qual a cozinha é considerada ocupada. */
+    public static final double LIMITE_OCUPADA = 0.8;
+
+    /**
+     * Ordem de prioridade entre pedidos em andamento, pelo status atual e pela data
+     * do pedido. Coincide com a ordem da fila enquanto o SLA não for alterado.
+     */
+    public static final Comparator<Pedido> ORDEM_PRIORIDADE =
+            Comparator.<Pedido>comparingInt(p -> prioridade(p.getStatus()))
+                    .thenComparing(Pedido::getDataPedido)
+                    .thenComparing(Pedido::getId);
+
+    /** ID do restaurante dono da fila. */
+    private final String idRestaurante;
+
+    /** Quantidade máxima de pedidos em andamento. */
+    private volatile int capacidade = CAPACIDADE_PADRAO;
+
+    /** Tempo para entregar um pedido, usado no cálculo do prazo. */
+    private volatile long slaMs = SLA_PADRAO_MS;
+
+    /** Pedidos em andamento, em ordem de prioridade. */
+    private final TreeSet<Entrada> ordem = new TreeSet<>();
+
+    /** Entrada de cada pedido na fila. */
+    private final HashMap<Pedido, Entrada> entradas = new HashMap<>();
+
+    /** Sequência de inclusão, usada para desempatar pedidos com o mesmo prazo. */
+    private long sequencia;
+
+    /** Quantidade de pedidos reservados e efetivados ({@link #contarAceito}). */
+    private long aceitos;
+
+    /** Quantidade de pedidos recusados por falta de capacidade. */
+    private long recusados;
+
+    /** Maior quantidade de pedidos em andamento já observada. */
+    private int profundidadeMaxima;
+
+    /**
+     * Cria uma fila vazia.
+     *
+     * @param idRestaurante ID do restaurante dono da fila.
+     */
+    public FilaCozinha(String idRestaurante) {
+        this.idRestaurante = idRestaurante;
+    }
+
+    /**
+     * Define a capacidade e o SLA da cozinha. Os prazos dos pedidos já na fila
+     * não são recalculados.
+     *
+     * @param capacidade quantidade máxima de pedidos em andamento; zero ou negativo remove o limite.
+     * @param slaMs tempo, em milissegundos, para entregar um pedido.
+     */
+    public void configurar(int capacidade, long slaMs) {
+        this.capacidade = capacidade > 0 ? capacidade : SEM_LIMITE;
+        this.slaMs = Math.max(0, slaMs);
+    }
+
+    /**
+     * Inclui um novo pedido se houver capacidade. O pedido só é contado como
+     * aceito em {@link #contarAceito}, depois de efetivado, pois ainda pode ser
+     * recusado (ex: por falta de crédito) e retirado com {@link #remover}.
+     *
+     * @param p pedido a ser incluído.
+     * @return true se o pedido foi incluído (ou já estava na fila); false se a fila estiver cheia.
+     */
+    public synchronized boolean reservar(Pedido p) {
+        if (entradas.containsKey(p)) return true;
+        if (entradas.size() >= capacidade) {
+            recusados++;
+            return false;
+        }
+        incluir(p);
+        return true;
+    }
+
+    /**
+     * Conta como aceito um pedido reservado que foi efetivado.
+     */
+    public synchronized void contarAceito() {
+        aceitos++;
+    }
+
+    /**
+     * Inclui um pedido sem verificar a capacidade (usado ao carregar os pedidos salvos).
+     * Pedidos entregues ou cancelados e pedidos já presentes são ignorados.
+     *
+     * @param p pedido a ser incluído.
+     */
+    public synchronized void incluir(Pedido p) {
+        if (entradas.containsKey(p) || finalizado(p.getStatus())) return;
+        long prazo = p.getDataPedido().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + slaMs;
+        Entrada e = new Entrada(p, p.getStatus(), prazo, sequencia++);
+        entradas.put(p, e);
+        ordem.add(e);
+        profundidadeMaxima = Math.max(profundidadeMaxima, entradas.size());
+    }
+
+    /**
+     * Reposiciona um pedido cujo status mudou, retirando-o da fila se tiver sido
+     * entregue ou cancelado.
+     *
+     * @param p pedido alterado.
+     */
+    public synchronized void atualizar(Pedido p) {
+        Entrada anterior = entradas.get(p);
+        if (anterior == null) {
+            incluir(p);
+            return;
+        }
+        if (anterior.status == p.getStatus()) return;
+        ordem.remove(anterior);
+        if (finalizado(p.getStatus())) {
+            entradas.remove(p);
+            return;
+        }
+        Entrada nova = new Entrada(p, p.getStatus(), anterior.prazo, anterior.sequencia);
+        entradas.put(p, nova);
+        ordem.add(nova);
+    }
+
+    /**
+     * Retira um pedido da fila.
+     *
+     * @param p pedido a ser retirado.
+     */
+    public synchronized void remover(Pedido p) {
+        Entrada e = entradas.remove(p);
+        if (e != null) ordem.remove(e);
+    }
+
+    /**
+     * Esvazia a fila, mantendo a configuração e os contadores.
+     */
+    public synchronized void limpar() {
+        ordem.clear();
+        entradas.clear();
+    }
+
+    /**
+     * Retorna os pedidos em andamento em ordem de prioridade.
+     *
+     * @return cópia da fila.
+     */
+    public synchronized List<Pedido> obterPedidos() {
+        ArrayList<Pedido> lista = new ArrayList<>(ordem.size());
+        for (Entrada e : ordem) lista.add(e.pedido);
+        return lista;
+    }
+
+    /**
+     * Retorna o pedido de maior prioridade.
+     *
+     * @return pedido, ou null se a fila estiver vazia.
+     */
+    public synchronized Pedido proximo() {
+        return ordem.isEmpty() ? null : ordem.first().pedido;
+    }
+
+    /** @return quantidade de pedidos em andamento */
+    public synchronized int getProfundidade() { return entradas.size(); }
+
+    /** @return quantidade máxima de pedidos em andamento */
+    public int getCapacidade() { return capacidade; }
+
+    /** @return SLA em milissegundos */
+    public long getSlaMs() { return slaMs; }
+
+    /** @return ID do restaurante dono da fila */
+    public String getIdRestaurante() { return idRestaurante; }
+
+    /**
+     * Indica se a fila passou de {@link #LIMITE_OCUPADA} da capacidade.
+     *
+     * @return true se a cozinha estiver ocupada.
+     */
+    public synchronized boolean isOcupada() {
+        return entradas.size() >= Math.ceil(capacidade * LIMITE_OCUPADA);
+    }
+
+    /**
+     * Indica se a fila está cheia e novos pedidos serão recusados.
+     *
+     * @return true se a cozinha estiver saturada.
+     */
+    public synchronized boolean isSaturada() {
+        return entradas.size() >= capacidade;
+    }
+
+    /**
+     * Calcula as métricas atuais da fila.
+     *
+     * @return métricas em um instante.
+     */
+    public synchronized Metricas obterMetricas() {
+        long agora = System.currentTimeMillis();
+        EnumMap<Pedido.StatusPedido, Integer> porStatus = new EnumMap<>(Pedido.StatusPedido.class);
+        int atrasados = 0;
+        long esperaMaxima = 0;
+        for (Entrada e : ordem) {
+            porStatus.merge(e.status, 1, Integer::sum);
+            if (e.prazo < agora) atrasados++;
+            esperaMaxima = Math.max(esperaMaxima, agora - (e.prazo - slaMs));
+        }
+        return new Metricas(idRestaurante, entradas.size(), capacidade, porStatus, atrasados,
+                esperaMaxima, aceitos, recusados, profundidadeMaxima, isOcupada());
+    }
+
+    /**
+     * Indica se o status encerra o pedido (entregue ou cancelado), retirando-o da fila.
+     *
+     * @param status status do pedido.
+     * @return true se o pedido estiver finalizado.
+     */
+    public static boolean finalizado(Pedido.StatusPedido status) {
+        return status == Pedido.StatusPedido.Entregue || status == Pedido.StatusPedido.Cancelado;
+    }
+
+    /**
+     * Prioridade de cada status: pedidos mais adiantados saem primeiro.
+     */
+    private static int prioridade(Pedido.StatusPedido status) {
+        switch (status) {
+            case Pronto: return 0;
+            case Preparando: return 1;
+            case Confirmado: return 2;
+            default: return 3;
+        }
+    }
+
+    /**
+     * Posição de um pedido na fila, com o status em que foi posicionado.
+     */
+    private static final class Entrada implements Comparable<Entrada> {
+        final Pedido pedido;
+        final Pedido.StatusPedido status;
+        final long prazo;
+        final long sequencia;
+
+        Entrada(Pedido pedido, Pedido.StatusPedido status, long prazo, long sequencia) {
+            this.pedido = pedido;
+            this.status = status;
+            this.prazo = prazo;
+            this.sequencia = sequencia;
+        }
+
+        @Override
+        public int compareTo(Entrada o) {
+            int c = Integer.compare(prioridade(status), prioridade(o.status));
+            if (c != 0) return c;
+            c = Long.compare(prazo, o.prazo);
+            return c != 0 ? c : Long.compare(sequencia, o.sequencia);
+        }
+    }
+
+    /**
+     * Métricas de uma fila em um instante.
+     */
+    public static final class Metricas {
+        private final String idRestaurante;
+        private final int profundidade;
+        private final int capacidade;
+        private final Map<Pedido.StatusPedido, Integer> porStatus;
+        private final int atrasados;
+        private final long esperaMaximaMs;
+        private final long aceitos;
+        private final long recusados;
+        private final int profundidadeMaxima;
+        private final boolean ocupada;
+
+        Metricas(String idRestaurante, int profundidade, int capacidade, Map<Pedido.StatusPedido, Integer> porStatus,
+                 int atrasados, long esperaMaximaMs, long aceitos, long recusados, int profundidadeMaxima,
+                 boolean ocupada) {
+            this.idRestaurante = idRestaurante;
+            this.profundidade = profundidade;
+            this.capacidade = capacidade;
+            this.porStatus = porStatus;
+            this.atrasados = atrasados;
+            this.esperaMaximaMs = esperaMaximaMs;
+            this.aceitos = aceitos;
+            this.recusados = recusados;
+            this.profundidadeMaxima = profundidadeMaxima;
+            this.ocupada = ocupada;
+        }
+
+        public String getIdRestaurante() { return idRestaurante; }
+        public int getProfundidade() { return profundidade; }
+        public int getCapacidade() { return capacidade; }
+        public int getAtrasados() { return atrasados; }
+        public long getEsperaMaximaMs() { return esperaMaximaMs; }
+        public long getAceitos() { return aceitos; }
+        public long getRecusados() { return recusados; }
+        public int getProfundidadeMaxima() { return profundidadeMaxima; }
+        public boolean isOcupada() { return ocupada; }
+
+        /**
+         * Retorna a quantidade de pedidos na fila com o status informado.
+         *
+         * @param status status desejado.
+         * @return quantidade de pedidos.
+         */
+        public int contar(Pedido.StatusPedido status) {
+            return porStatus.getOrDefault(status, 0);
+        }
+    }
+}
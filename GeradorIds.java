@@ -0,0 +1,198 @@
+package main;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerador de IDs de 64 bits no estilo Snowflake, sem travas.
+ *
+ * <p>Cada ID é composto, do bit mais alto para o mais baixo, por: 41 bits com
+ * os milissegundos desde {@link #EPOCA}, 10 bits com o número do nó (permite
+ * até 1024 instâncias gerando IDs ao mesmo tempo) e 12 bits de sequência
+ * (até 4096 IDs por milissegundo). Os IDs crescem com o tempo, de modo que a
+ * ordem numérica é, aproximadamente, a ordem de criação.</p>
+ *
+ * <p>O último instante e a sequência ficam em um único {@link AtomicLong},
+ * alterado por compare-and-set. Se o relógio voltar no tempo, o gerador
+ * continua a partir do último instante usado, e se a sequência de um
+ * milissegundo se esgotar, avança para o milissegundo seguinte: os IDs
+ * nunca se repetem nem diminuem. Como o estado não sobrevive a um reinício,
+ * {@link #avancarAlem(long)} recebe o maior ID já gravado, para que um relógio
+ * atrasado após o reinício não repita IDs existentes.</p>
+ *
+ * <p>Para exibição, o ID é escrito como {@link #PREFIXO} seguido do número
+ * em decimal, no mesmo formato usado anteriormente ("PED" + número).</p>
+ */
+public class GeradorIds {
+
+    /** Prefixo usado na forma textual dos IDs de pedidos. */
+    public static final String PREFIXO = "PED";
+
+    /** Época dos IDs: 01/01/2024 00:00 UTC, em milissegundos. */
+    public static final long EPOCA = 1_704_067_200_000L;
+
+    /** Bits reservados ao número do nó. */
+    private static final int BITS_NO = 10;
+
+    /** Bits reservados à sequência dentro do mesmo milissegundo. */
+    private static final int BITS_SEQUENCIA = 12;
+
+    /** Maior número de nó permitido. */
+    public static final int NO_MAXIMO = (1 << BITS_NO) - 1;
+
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+    /** Fuso usado na conversão entre {@link LocalDateTime} e milissegundos. */
+    private static final ZoneId FUSO = ZoneId.systemDefault();
+
+    /** Número deste nó. */
+    private final int no;
+
+    /** Último instante usado (relativo à época) e sequência, juntos: instante << 12 | sequência. */
+    private final AtomicLong estado = new AtomicLong();
+
+    /**
+     * Cria um gerador para o nó informado.
+     *
+     * @param no número do nó, entre 0 e {@link #NO_MAXIMO}.
+     */
+    public GeradorIds(int no) {
+        if (no < 0 || no > NO_MAXIMO)
+            throw new IllegalArgumentException("Número de nó inválido: " + no);
+        this.no = no;
+    }
+
+    /**
+     * Gera um novo ID numérico, maior que todos os gerados antes por este gerador.
+     *
+     * @return ID gerado.
+     */
+    public long proximo() {
+        while (true) {
+            long atual = estado.get();
+            long ultimoInstante = atual >>> BITS_SEQUENCIA;
+            long agora = System.currentTimeMillis() - EPOCA;
+
+            long novo;
+            if (agora > ultimoInstante) {
+                novo = agora << BITS_SEQUENCIA;
+            } else {
+                // Mesmo milissegundo ou relógio atrasado: segue a partir do último instante usado.
+                // Ao esgotar a sequência, o incremento passa naturalmente para o milissegundo seguinte.
+                novo = atual + 1;
+            }
+
+            if (estado.compareAndSet(atual, novo)) {
+                long instante = novo >>> BITS_SEQUENCIA;
+                long sequencia = novo & MASCARA_SEQUENCIA;
+                return (instante << (BITS_NO + BITS_SEQUENCIA)) | ((long) no << BITS_SEQUENCIA) | sequencia;
+            }
+        }
+    }
+
+    /**
+     * Garante que os próximos IDs sejam gerados a partir do milissegundo seguinte
+     * ao do ID informado. Chamado na inicialização com o maior ID já existente.
+     *
+     * @param id ID numérico já usado (de qualquer nó).
+     */
+    public void avancarAlem(long id) {
+        if (id < 0) return;
+        long minimo = ((id >>> (BITS_NO + BITS_SEQUENCIA)) << BITS_SEQUENCIA) | MASCARA_SEQUENCIA;
+        estado.accumulateAndGet(minimo, Math::max);
+    }
+
+    /**
+     * Gera um novo ID na forma textual ({@link #PREFIXO} + número).
+     *
+     * @return ID textual.
+     */
+    public String proximoTexto() {
+        return formatar(proximo());
+    }
+
+    /**
+     * Retorna o número do nó deste gerador.
+     *
+     * @return número do nó.
+     */
+    public int getNo() {
+        return no;
+    }
+
+    /**
+     * Escreve um ID numérico na forma textual.
+     *
+     * @param id ID numérico.
+     * @return {@link #PREFIXO} seguido do número.
+     */
+    public static String formatar(long id) {
+        return PREFIXO + id;
+    }
+
+    /**
+     * Extrai o valor numérico de um ID textual.
+     *
+     * @param texto ID textual.
+     * @return valor numérico, ou -1 se o texto não estiver no formato {@link #PREFIXO} + número.
+     */
+    public static long valorDe(String texto) {
+        if (texto == null || !texto.startsWith(PREFIXO) || texto.length() == PREFIXO.length()
+                || texto.length() > PREFIXO.length() + 19) return -1;
+        long valor = 0;
+        for (int i = PREFIXO.length(); i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            valor = valor * 10 + (c - '0');
+            if (valor < 0) return -1;
+        }
+        return valor;
+    }
+
+    /**
+     * Retorna o instante, em milissegundos desde 1970, em que um ID foi gerado.
+     *
+     * @param id ID numérico.
+     * @return instante de geração.
+     */
+    public static long instanteDe(long id) {
+        return (id >>> (BITS_NO + BITS_SEQUENCIA)) + EPOCA;
+    }
+
+    /**
+     * Retorna o menor ID possível gerado no instante informado, por qualquer nó.
+     *
+     * @param data instante desejado.
+     * @return menor ID do instante.
+     */
+    public static long menorIdEm(LocalDateTime data) {
+        long relativo = Math.max(0, data.atZone(FUSO).toInstant().toEpochMilli() - EPOCA);
+        return relativo << (BITS_NO + BITS_SEQUENCIA);
+    }
+
+    /**
+     * Retorna o maior ID possível gerado no instante informado, por qualquer nó.
+     *
+     * @param data instante desejado.
+     * @return maior ID do instante.
+     */
+    public static long maiorIdEm(LocalDateTime data) {
+        return menorIdEm(data) | ((1L << (BITS_NO + BITS_SEQUENCIA)) - 1);
+    }
+
+    /**
+     * Verifica se um ID textual foi gerado por este esquema para um pedido criado na data informada.
+     * IDs antigos ("PED" + milissegundos) não passam nesta verificação.
+     *
+     * @param texto ID textual.
+     * @param data data de criação do pedido.
+     * @return true se o instante contido no ID estiver a menos de um dia da data.
+     */
+    public static boolean foiGeradoEm(String texto, LocalDateTime data) {
+        long valor = valorDe(texto);
+        if (valor < 0 || data == null) return false;
+        long diferenca = Math.abs(instanteDe(valor) - data.atZone(FUSO).toInstant().toEpochMilli());
+        return diferenca < 24L * 60 * 60 * 1000;
+    }
+}
@@ -1,6 +1,18 @@
 package main;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Classe responsável por gerenciar as operações principais do sistema,
@@ -18,62 +30,671 @@ public class Gerenciador {
     /** Lista de todos os pedidos realizados */
     private ArrayList<Pedido> pedidos;
 
-    /** Usuário atualmente logado no sistema (Cliente ou Restaurante) */
-    private Usuario usuarioLogado;
+    /** Índice de clientes por ID */
+    private ConcurrentHashMap<String, Cliente> clientesPorId;
+
+    /** Índice de restaurantes por ID */
+    private ConcurrentHashMap<String, Restaurante> restaurantesPorId;
+
+    /** Índice de pedidos por ID */
+    private ConcurrentHashMap<String, Pedido> pedidosPorId;
+
+    /** Índices secundários de pedidos por restaurante, cliente, status e dia */
+    private final IndicePedidos indicePedidos = new IndicePedidos();
+
+    /** Estatísticas de vendas de cada restaurante, atualizadas a cada pedido */
+    private final EstatisticasVendas estatisticas = new EstatisticasVendas();
+
+    /** Visão mantida dos restaurantes abertos, por categoria */
+    private final VisaoRestaurantesAbertos restaurantesAbertos = new VisaoRestaurantesAbertos();
+
+    /** Índice invertido dos produtos de todos os cardápios, para busca por texto */
+    private final IndiceProdutos indiceProdutos = new IndiceProdutos();
+
+    /** Fila de pedidos em andamento da cozinha de cada restaurante, por ID do restaurante */
+    private final ConcurrentHashMap<String, FilaCozinha> filasCozinha = new ConcurrentHashMap<>();
+
+    /** Pedidos já criados por chave de idempotência, para ignorar reenvios */
+    private final CacheIdempotencia idempotencia = new CacheIdempotencia();
+
+    /** Barramento que avisa os assinantes sobre pedidos criados e mudanças de status */
+    private final BarramentoEventos eventos = new BarramentoEventos();
+
+    /** Índice de clientes por email normalizado */
+    private ConcurrentHashMap<String, Cliente> clientesPorEmail;
+
+    /** Índice de restaurantes por email normalizado */
+    private ConcurrentHashMap<String, Restaurante> restaurantesPorEmail;
+
+    /** Ouvinte que mantém os índices atualizados quando uma entidade é alterada */
+    private final OuvinteEntidades ouvinte = new OuvinteIndices();
+
+    /** Usuário logado na interface gráfica (Cliente ou Restaurante) */
+    private volatile Usuario usuarioLogado;
+
+    /** Sessões abertas por token, para vários usuários simultâneos */
+    private final GerenciadorSessoes sessoes = new GerenciadorSessoes();
+
+    /** Travas por entidade e trava de estado usada pelo snapshot */
+    private final TravasEntidades travas = new TravasEntidades(QUANTIDADE_TRAVAS);
+
+    /** Gerador dos IDs de pedidos, únicos e ordenados pelo instante de criação */
+    private final GeradorIds geradorIds = new GeradorIds(Integer.getInteger(PROPRIEDADE_NO, 0));
+
+    /** Indica se um snapshot automático já está em andamento */
+    private final AtomicBoolean snapshotEmAndamento = new AtomicBoolean();
+
+    /** Diário de operações gravadas desde o último snapshot */
+    private DiarioOperacoes diario;
+
+    /** Serviço que grava o diário em lotes, fora da thread que fez a alteração */
+    private ServicoPersistencia persistencia;
+
+    /** Garantia de gravação usada nas operações do gerenciador */
+    private volatile ServicoPersistencia.Durabilidade durabilidade = ServicoPersistencia.Durabilidade.ASSINCRONA;
+
+    /** Quantidade de registros no diário que dispara um novo snapshot automático */
+    private static final int LIMITE_REGISTROS_DIARIO = 10_000;
+
+    /** Intervalo padrão, em milissegundos, entre gravações de lotes do diário */
+    private static final long INTERVALO_PERSISTENCIA_MS = 50;
+
+    /** Quantidade padrão de entidades pendentes que dispara a gravação de um lote */
+    private static final int LIMITE_LOTE_PERSISTENCIA = 256;
+
+    /** Quantidade de travas listradas usadas para proteger as entidades */
+    private static final int QUANTIDADE_TRAVAS = 64;
+
+    /** Propriedade do sistema com o número do nó usado nos IDs de pedidos (padrão 0) */
+    public static final String PROPRIEDADE_NO = "app.no";
 
     /**
      * Construtor da classe Gerenciador.
      * Inicializa as listas e tenta carregar os dados salvos em arquivo.
      */
     public Gerenciador() {
+        this(INTERVALO_PERSISTENCIA_MS, LIMITE_LOTE_PERSISTENCIA);
+    }
+
+    /**
+     * Construtor da classe Gerenciador com a configuração de persistência em lotes.
+     *
+     * @param intervaloPersistenciaMs Tempo máximo que uma alteração espera para ser gravada
+     * @param limiteLote Quantidade de entidades alteradas que dispara a gravação imediata
+     */
+    public Gerenciador(long intervaloPersistenciaMs, int limiteLote) {
+        this(intervaloPersistenciaMs, limiteLote, new PerfilInicializacao());
+    }
+
+    /**
+     * Construtor da classe Gerenciador que registra o tempo de cada etapa do
+     * carregamento no perfil informado.
+     *
+     * @param perfil Perfil da inicialização
+     */
+    public Gerenciador(PerfilInicializacao perfil) {
+        this(INTERVALO_PERSISTENCIA_MS, LIMITE_LOTE_PERSISTENCIA, perfil);
+    }
+
+    /**
+     * Construtor da classe Gerenciador com a configuração de persistência em lotes
+     * e o perfil onde são registrados os tempos do carregamento.
+     *
+     * @param intervaloPersistenciaMs Tempo máximo que uma alteração espera para ser gravada
+     * @param limiteLote Quantidade de entidades alteradas que dispara a gravação imediata
+     * @param perfil Perfil da inicialização
+     */
+    public Gerenciador(long intervaloPersistenciaMs, int limiteLote, PerfilInicializacao perfil) {
         this.clientes = new ArrayList<>();
         this.restaurantes = new ArrayList<>();
         this.pedidos = new ArrayList<>();
+        this.clientesPorId = new ConcurrentHashMap<>();
+        this.restaurantesPorId = new ConcurrentHashMap<>();
+        this.pedidosPorId = new ConcurrentHashMap<>();
+        this.clientesPorEmail = new ConcurrentHashMap<>();
+        this.restaurantesPorEmail = new ConcurrentHashMap<>();
         this.usuarioLogado = null;
-        carregarDados();
+        this.diario = new DiarioOperacoes(ArquivoUtils.caminhoDiario());
+        perfil.marcar("estruturas");
+        carregarDados(perfil);
+        this.persistencia = new ServicoPersistencia(diario, intervaloPersistenciaMs, limiteLote);
+        perfil.marcar("persistência");
     }
 
     /**
-     * Carrega os dados salvos em arquivos (clientes, restaurantes e pedidos).
+     * Carrega os dados salvos em arquivos (clientes, restaurantes e pedidos)
+     * e reaplica as operações registradas no diário após o último snapshot.
      * Caso os arquivos não sejam encontrados, exibe uma mensagem de erro.
+     *
+     * <p>O snapshot unificado é usado quando existir. Caso contrário, os arquivos
+     * separados do formato anterior são lidos e as cópias de cada pedido são
+     * substituídas por uma única instância.</p>
      */
     public void carregarDados() {
+        carregarDados(new PerfilInicializacao());
+    }
+
+    /**
+     * Carrega os dados registrando o tempo de cada etapa no perfil informado.
+     *
+     * @param perfil Perfil da inicialização
+     */
+    private void carregarDados(PerfilInicializacao perfil) {
         try {
             ArquivoUtils.inicializarDiretorio();
-            this.clientes = ArquivoUtils.carregarClientes();
-            this.restaurantes = ArquivoUtils.carregarRestaurantes();
-            this.pedidos = ArquivoUtils.carregarPedidos();
+            perfil.marcar("diretório");
+            this.clientes = new ArrayList<>();
+            this.restaurantes = new ArrayList<>();
+            this.pedidos = new ArrayList<>();
+            estatisticas.limpar();
+            boolean snapshot = ArquivoUtils.carregarSnapshot(clientes, restaurantes, pedidos, estatisticas);
+            if (!snapshot) {
+                this.clientes = ArquivoUtils.carregarClientes();
+                this.restaurantes = ArquivoUtils.carregarRestaurantes();
+                this.pedidos = ArquivoUtils.carregarPedidos();
+            }
+            perfil.marcar("leitura");
+            reconstruirIndices();
+            if (!snapshot) religarPedidos();
+            if (!estatisticas.foiCarregada()) estatisticas.reconstruir(pedidos);
+            perfil.marcar("índices");
+            diario.reproduzir(this);
+            avancarGeradorIds();
+            perfil.marcar("diário");
         } catch (ArquivoNaoEncontradoException e) {
             System.err.println("Erro ao carregar: " + e.getMessage());
         }
     }
 
     /**
-     * Salva os dados atuais de clientes, restaurantes e pedidos nos arquivos correspondentes.
+     * Faz o gerador de IDs continuar depois do maior ID de pedido carregado,
+     * para que um relógio atrasado após o reinício não repita IDs.
+     */
+    private void avancarGeradorIds() {
+        long maior = -1;
+        for (String id : pedidosPorId.keySet()) maior = Math.max(maior, GeradorIds.valorDe(id));
+        geradorIds.avancarAlem(maior);
+    }
+
+    /**
+     * Recria os índices por ID a partir das listas carregadas.
+     * Em caso de IDs repetidos, prevalece a primeira ocorrência.
+     */
+    private void reconstruirIndices() {
+        clientesPorId = new ConcurrentHashMap<>(clientes.size() * 2);
+        clientesPorEmail = new ConcurrentHashMap<>(clientes.size() * 2);
+        for (Cliente c : clientes) {
+            clientesPorId.putIfAbsent(c.getId(), c);
+            indexarEmail(clientesPorEmail, c);
+        }
+
+        restaurantesPorId = new ConcurrentHashMap<>(restaurantes.size() * 2);
+        restaurantesPorEmail = new ConcurrentHashMap<>(restaurantes.size() * 2);
+        indiceProdutos.limpar();
+        for (Restaurante r : restaurantes) {
+            restaurantesPorId.putIfAbsent(r.getId(), r);
+            indexarEmail(restaurantesPorEmail, r);
+            indexarCardapio(r);
+        }
+        restaurantesAbertos.reconstruir(restaurantes);
+
+        pedidosPorId = new ConcurrentHashMap<>(pedidos.size() * 2);
+        indicePedidos.limpar();
+        for (FilaCozinha fila : filasCozinha.values()) fila.limpar();
+        for (Pedido p : pedidos) {
+            if (pedidosPorId.putIfAbsent(p.getId(), p) == null) indexarPedido(p);
+        }
+    }
+
+    /**
+     * Adiciona um cliente à lista e ao índice por ID.
+     *
+     * @param c Cliente a ser incluído
+     */
+    private void incluirCliente(Cliente c) {
+        synchronized (clientes) {
+            clientes.add(c);
+        }
+        clientesPorId.put(c.getId(), c);
+        indexarEmail(clientesPorEmail, c);
+    }
+
+    /**
+     * Adiciona um restaurante à lista e ao índice por ID.
+     *
+     * @param r Restaurante a ser incluído
+     */
+    private void incluirRestaurante(Restaurante r) {
+        restaurantesPorId.put(r.getId(), r);
+        indexarEmail(restaurantesPorEmail, r);
+        anexarRestaurante(r);
+    }
+
+    /**
+     * Acrescenta um restaurante já presente nos índices por ID e email à lista,
+     * ao índice de busca e à visão de restaurantes abertos.
+     *
+     * @param r Restaurante a ser anexado
+     */
+    private void anexarRestaurante(Restaurante r) {
+        synchronized (restaurantes) {
+            restaurantes.add(r);
+        }
+        indexarCardapio(r);
+        restaurantesAbertos.adicionar(r);
+    }
+
+    /**
+     * Reserva o ID e o email de um novo usuário nos índices, de forma atômica:
+     * se qualquer um deles já estiver em uso, nada é reservado.
+     *
+     * @param <U> Tipo do usuário
+     * @param porId Índice por ID do tipo do usuário
+     * @param porEmail Índice de emails do tipo do usuário
+     * @param u Usuário a ser cadastrado
+     * @return true se o ID e o email foram reservados
+     */
+    private <U extends Usuario> boolean reservarUsuario(ConcurrentHashMap<String, U> porId,
+                                                        ConcurrentHashMap<String, U> porEmail, U u) {
+        if (u.getId() == null || porId.putIfAbsent(u.getId(), u) != null) return false;
+        String chave = Usuario.normalizarEmail(u.getEmail());
+        if (chave != null && porEmail.putIfAbsent(chave, u) != null) {
+            porId.remove(u.getId(), u);
+            return false;
+        }
+        u.definirOuvinte(ouvinte);
+        return true;
+    }
+
+    /**
+     * Inclui os produtos do cardápio de um restaurante no índice de busca.
+     *
+     * @param r Restaurante cujo cardápio será indexado
+     */
+    private void indexarCardapio(Restaurante r) {
+        for (Produto p : r.obterCardapio()) indexarProduto(p);
+    }
+
+    /**
+     * Inclui um produto no índice de busca.
+     *
+     * @param p Produto a ser indexado
+     */
+    private void indexarProduto(Produto p) {
+        indiceProdutos.adicionar(p);
+    }
+
+    /**
+     * Inclui um usuário no índice de emails e passa a acompanhar suas alterações.
+     * Se o email já pertencer a outro usuário, o índice mantém o primeiro.
+     *
+     * @param <U> Tipo do usuário
+     * @param indice Índice de emails do tipo do usuário
+     * @param u Usuário a ser indexado
+     */
+    private <U extends Usuario> void indexarEmail(ConcurrentHashMap<String, U> indice, U u) {
+        u.definirOuvinte(ouvinte);
+        String chave = Usuario.normalizarEmail(u.getEmail());
+        if (chave != null) indice.putIfAbsent(chave, u);
+    }
+
+    /**
+     * Move um usuário para a nova chave no índice de emails.
+     *
+     * <p>Se o novo email já pertencer a outro usuário (alteração feita direto em
+     * {@link Usuario#setEmail} em vez de {@link #alterarEmail}), a alteração é
+     * desfeita: o usuário volta ao email anterior e continua no índice.</p>
+     *
+     * @param <U> Tipo do usuário
+     * @param indice Índice de emails do tipo do usuário
+     * @param u Usuário alterado
+     * @param emailAnterior Email antes da alteração
+     */
+    private <U extends Usuario> void reindexarEmail(ConcurrentHashMap<String, U> indice, U u, String emailAnterior) {
+        String anterior = Usuario.normalizarEmail(emailAnterior);
+        String chave = Usuario.normalizarEmail(u.getEmail());
+        U dono = chave != null ? indice.putIfAbsent(chave, u) : null;
+        if (dono != null && dono != u) {
+            u.setEmail(emailAnterior);
+            return;
+        }
+        if (anterior != null && !anterior.equals(chave)) indice.remove(anterior, u);
+    }
+
+    /**
+     * Ouvinte que atualiza os índices do gerenciador quando uma entidade é alterada.
+     */
+    private class OuvinteIndices implements OuvinteEntidades {
+        @Override
+        public void emailAlterado(Usuario usuario, String emailAnterior) {
+            if (usuario instanceof Cliente)
+                reindexarEmail(clientesPorEmail, (Cliente) usuario, emailAnterior);
+            else if (usuario instanceof Restaurante)
+                reindexarEmail(restaurantesPorEmail, (Restaurante) usuario, emailAnterior);
+        }
+
+        @Override
+        public void statusPedidoAlterado(Pedido pedido, Pedido.StatusPedido statusAnterior) {
+            indicePedidos.atualizarStatus(pedido);
+            estatisticas.statusAlterado(pedido, statusAnterior);
+            obterFilaCozinha(pedido.getIdRestaurante()).atualizar(pedido);
+            eventos.publicar(new EventoPedido(EventoPedido.Tipo.STATUS_ALTERADO, pedido, statusAnterior));
+        }
+
+        @Override
+        public void funcionamentoAlterado(Restaurante restaurante) {
+            restaurantesAbertos.atualizar(restaurante);
+        }
+
+        @Override
+        public void produtoAdicionado(Restaurante restaurante, Produto produto) {
+            indexarProduto(produto);
+        }
+
+        @Override
+        public void produtoRemovido(Restaurante restaurante, Produto produto) {
+            indiceProdutos.remover(produto);
+        }
+    }
+
+    /**
+     * Adiciona um pedido à lista e ao índice por ID.
+     *
+     * @param p Pedido a ser incluído
+     */
+    private void incluirPedido(Pedido p) {
+        pedidosPorId.put(p.getId(), p);
+        anexarPedido(p);
+    }
+
+    /**
+     * Acrescenta um pedido já presente no índice por ID à lista, aos índices
+     * secundários e às estatísticas de vendas.
+     *
+     * @param p Pedido a ser anexado
+     */
+    private void anexarPedido(Pedido p) {
+        synchronized (pedidos) {
+            pedidos.add(p);
+        }
+        indexarPedido(p);
+        estatisticas.registrar(p);
+    }
+
+    /**
+     * Inclui um pedido nos índices secundários e passa a acompanhar suas mudanças de status.
+     *
+     * @param p Pedido a ser indexado
+     */
+    private void indexarPedido(Pedido p) {
+        p.definirOuvinte(ouvinte);
+        indicePedidos.adicionar(p);
+        obterFilaCozinha(p.getIdRestaurante()).incluir(p);
+    }
+
+    /**
+     * Substitui as cópias de pedidos lidas de arquivos separados pela instância
+     * da lista principal, para que cada pedido exista uma única vez em memória.
+     */
+    private void religarPedidos() {
+        for (Cliente c : clientes) {
+            ArrayList<Pedido> unicos = new ArrayList<>();
+            for (Pedido p : c.obterPedidos()) unicos.add(instanciaUnica(p));
+            c.substituirPedidos(unicos);
+        }
+        for (Restaurante r : restaurantes) {
+            ArrayList<Pedido> unicos = new ArrayList<>();
+            for (Pedido p : r.obterPedidosRecebidos()) unicos.add(instanciaUnica(p));
+            r.substituirPedidos(unicos);
+        }
+    }
+
+    /**
+     * Retorna a instância única de um pedido, registrando-a se ainda não existir.
+     *
+     * @param p Cópia do pedido
+     * @return Instância única do pedido
+     */
+    private Pedido instanciaUnica(Pedido p) {
+        Pedido unico = pedidosPorId.get(p.getId());
+        if (unico == null) {
+            incluirPedido(p);
+            unico = p;
+        }
+        return unico;
+    }
+
+    /**
+     * Salva um snapshot completo de clientes, restaurantes e pedidos em um único
+     * arquivo, sem duplicar pedidos, e esvazia o diário de operações.
+     *
+     * <p>As operações do dia a dia não precisam chamar este método: elas são
+     * registradas no diário. Se o sistema cair entre o snapshot e a limpeza do
+     * diário, a reaplicação dos registros é inofensiva, pois cada um contém o
+     * estado completo da entidade.</p>
+     *
+     * <p>O snapshot aguarda o término das operações em andamento e bloqueia novas
+     * operações enquanto grava, para que nenhuma alteração fique pela metade.</p>
      */
     public void salvarDados() {
         try {
-            ArquivoUtils.salvarClientes(clientes);
-            ArquivoUtils.salvarRestaurantes(restaurantes);
-            ArquivoUtils.salvarPedidos(pedidos);
+            persistencia.checkpoint(() -> {
+                TravasEntidades.Trava t = travas.travarTudo();
+                try {
+                    ArquivoUtils.salvarSnapshot(clientes, restaurantes, pedidos, estatisticas);
+                } finally {
+                    t.liberar();
+                }
+            });
+        } catch (ArquivoNaoEncontradoException e) {
+            System.err.println("Erro ao salvar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Define se as operações devem aguardar a gravação em disco antes de retornar.
+     *
+     * @param durabilidade SINCRONA para aguardar, ASSINCRONA para gravar no próximo lote
+     */
+    public void setDurabilidade(ServicoPersistencia.Durabilidade durabilidade) {
+        this.durabilidade = durabilidade;
+    }
+
+    /**
+     * Aguarda até que todas as alterações feitas até agora estejam gravadas em disco.
+     */
+    public void aguardarPersistencia() {
+        try {
+            persistencia.flush();
+        } catch (ArquivoNaoEncontradoException e) {
+            System.err.println("Erro ao salvar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Grava as alterações pendentes e encerra o serviço de persistência.
+     * Deve ser chamado ao finalizar o sistema.
+     */
+    public void encerrar() {
+        sessoes.fechar();
+        eventos.fechar();
+        persistencia.close();
+    }
+
+    /**
+     * Enfileira o estado de um cliente para gravação no diário de operações.
+     *
+     * @param c Cliente alterado
+     */
+    private void registrarCliente(Cliente c) {
+        try {
+            persistencia.enfileirar(DiarioOperacoes.registroCliente(c), ServicoPersistencia.Durabilidade.ASSINCRONA);
         } catch (ArquivoNaoEncontradoException e) {
             System.err.println("Erro ao salvar: " + e.getMessage());
         }
     }
 
     /**
-     * Cadastra um novo cliente, caso o ID não exista.
+     * Enfileira o estado de um restaurante para gravação no diário de operações.
+     *
+     * @param r Restaurante alterado
+     */
+    private void registrarRestaurante(Restaurante r) {
+        try {
+            persistencia.enfileirar(DiarioOperacoes.registroRestaurante(r), ServicoPersistencia.Durabilidade.ASSINCRONA);
+        } catch (ArquivoNaoEncontradoException e) {
+            System.err.println("Erro ao salvar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Enfileira o estado de um pedido para gravação no diário de operações.
+     *
+     * @param p Pedido criado ou alterado
+     */
+    private void registrarPedido(Pedido p) {
+        try {
+            persistencia.enfileirar(DiarioOperacoes.registroPedido(p), ServicoPersistencia.Durabilidade.ASSINCRONA);
+        } catch (ArquivoNaoEncontradoException e) {
+            System.err.println("Erro ao salvar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Enfileira um lançamento do livro de créditos para gravação no diário de operações.
+     *
+     * @param l Lançamento gerado pela carteira (nulo é ignorado)
+     */
+    private void registrarLancamento(Carteira.Lancamento l) {
+        if (l == null) return;
+        try {
+            persistencia.enfileirar(DiarioOperacoes.registroLancamento(l), ServicoPersistencia.Durabilidade.ASSINCRONA);
+        } catch (ArquivoNaoEncontradoException e) {
+            System.err.println("Erro ao salvar: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finaliza uma operação depois de liberar suas travas: aguarda a gravação
+     * em disco, se a durabilidade for síncrona, e verifica o limite do diário.
+     * Nunca deve ser chamado com travas adquiridas, pois o snapshot precisa
+     * da trava exclusiva e a gravação pode estar aguardando o snapshot.
+     */
+    private void concluirOperacao() {
+        if (durabilidade == ServicoPersistencia.Durabilidade.SINCRONA) aguardarPersistencia();
+        verificarLimiteDiario();
+    }
+
+    /**
+     * Gera um novo snapshot quando o diário cresce além do limite,
+     * mantendo o tempo de reaplicação na inicialização controlado.
+     * Apenas uma thread gera o snapshot; as demais seguem sem esperar.
+     */
+    private void verificarLimiteDiario() {
+        if (diario.getQuantidadeRegistros() < LIMITE_REGISTROS_DIARIO) return;
+        if (!snapshotEmAndamento.compareAndSet(false, true)) return;
+        try {
+            salvarDados();
+        } finally {
+            snapshotEmAndamento.set(false);
+        }
+    }
+
+    /**
+     * Aplica um cliente lido do diário: cadastra se for novo ou atualiza o existente.
+     *
+     * @param c Estado do cliente registrado
+     */
+    void aplicarCliente(Cliente c) {
+        Cliente existente = obterClienteById(c.getId());
+        if (existente == null) {
+            incluirCliente(c);
+            return;
+        }
+        existente.setNome(c.getNome());
+        existente.setEmail(c.getEmail());
+        existente.setSenha(c.getSenha());
+        existente.setTelefone(c.getTelefone());
+        existente.setEndereco(c.getEndereco());
+        existente.setCpf(c.getCpf());
+        existente.setAtivo(c.isAtivo());
+        existente.getCarteira().restaurar(c.getCreditoCentavos(), c.getCarteira().getVersao());
+    }
+
+    /**
+     * Aplica um lançamento do livro de créditos lido do diário, se ele for mais
+     * novo que o saldo atual do cliente.
+     *
+     * @param l Lançamento registrado
+     */
+    void aplicarLancamento(Carteira.Lancamento l) {
+        Cliente cliente = obterClienteById(l.getIdCliente());
+        if (cliente != null) cliente.getCarteira().restaurar(l.getSaldoCentavos(), l.getVersao());
+    }
+
+    /**
+     * Aplica um restaurante lido do diário: cadastra se for novo ou atualiza o existente.
+     *
+     * @param r Estado do restaurante registrado
+     */
+    void aplicarRestaurante(Restaurante r) {
+        Restaurante existente = obterRestauranteById(r.getId());
+        if (existente == null) {
+            incluirRestaurante(r);
+            return;
+        }
+        existente.setNome(r.getNome());
+        existente.setEmail(r.getEmail());
+        existente.setSenha(r.getSenha());
+        existente.setTelefone(r.getTelefone());
+        existente.setEndereco(r.getEndereco());
+        existente.setCategoria(r.getCategoria());
+        existente.setTaxaEntregaCentavos(r.getTaxaEntregaCentavos());
+        existente.setAberto(r.isAberto());
+        existente.substituirCardapio(r.obterCardapio());
+    }
+
+    /**
+     * Aplica um pedido lido do diário: inclui se for novo ou atualiza o status
+     * e as observações do pedido existente.
+     *
+     * @param p Estado do pedido registrado
+     */
+    void aplicarPedido(Pedido p) {
+        Pedido existente = obterPedidoById(p.getId());
+        if (existente != null) {
+            existente.alterarStatus(p.getStatus());
+            existente.setObservacoes(p.getObservacoes());
+            return;
+        }
+
+        incluirPedido(p);
+        Cliente cliente = obterClienteById(p.getIdCliente());
+        if (cliente != null) cliente.adicionarPedido(p);
+        Restaurante restaurante = obterRestauranteById(p.getIdRestaurante());
+        if (restaurante != null) restaurante.receberPedido(p);
+    }
+
+    /**
+     * Cadastra um novo cliente, caso o ID e o email não existam.
      *
      * @param c Cliente a ser cadastrado
      * @return true se o cliente for adicionado com sucesso
      */
     public boolean cadastrarCliente(Cliente c) {
-        if (c != null && !existeClienteComId(c.getId())) {
-            clientes.add(c);
-            salvarDados();
-            return true;
+        if (c == null) return false;
+        TravasEntidades.Trava t = travas.travar(c.getId());
+        try {
+            if (!reservarUsuario(clientesPorId, clientesPorEmail, c)) return false;
+            synchronized (clientes) {
+                clientes.add(c);
+            }
+            registrarCliente(c);
+        } finally {
+            t.liberar();
         }
-        return false;
+        concluirOperacao();
+        return true;
     }
 
     /**
@@ -85,11 +706,10 @@ public class Gerenciador {
      * @throws UsuarioNaoAutenticadoException Se as credenciais forem inválidas
      */
     public Cliente autenticarCliente(String email, String senha) throws UsuarioNaoAutenticadoException {
-        for (Cliente c : clientes) {
-            if (c.validarCredenciais(email, senha)) {
-                this.usuarioLogado = c;
-                return c;
-            }
+        Cliente c = clientesPorEmail.get(Usuario.normalizarEmail(email));
+        if (c != null && c.validarCredenciais(email, senha)) {
+            this.usuarioLogado = c;
+            return c;
         }
         throw new UsuarioNaoAutenticadoException("Email ou senha inválidos");
     }
@@ -101,19 +721,41 @@ public class Gerenciador {
      * @return Cliente correspondente ou null se não encontrado
      */
     public Cliente obterClienteById(String id) {
-        for (Cliente c : clientes)
-            if (c.getId().equals(id)) return c;
-        return null;
+        return clientesPorId.get(id);
     }
 
     /**
-     * Verifica se já existe um cliente com o ID especificado.
+     * Adiciona crédito à conta de um cliente.
      *
-     * @param id ID do cliente
-     * @return true se o cliente existir
+     * @param c Cliente que receberá o crédito
+     * @param valor Valor positivo a ser adicionado
+     * @return true se o crédito for adicionado
      */
-    private boolean existeClienteComId(String id) {
-        return obterClienteById(id) != null;
+    public boolean adicionarCredito(Cliente c, double valor) {
+        if (c == null || valor <= 0) return false;
+        // A carteira dispensa a trava do cliente; a trava de estado mantém o snapshot consistente
+        TravasEntidades.Trava t = travas.travar();
+        try {
+            Carteira.Lancamento l = c.getCarteira().creditar(Dinheiro.paraCentavos(valor));
+            if (l == null) return false;
+            registrarLancamento(l);
+        } finally {
+            t.liberar();
+        }
+        concluirOperacao();
+        return true;
+    }
+
+    /**
+     * Verifica se já existe um cliente com o email especificado,
+     * sem diferenciar maiúsculas de minúsculas.
+     *
+     * @param email Email do cliente
+     * @return true se o email já estiver em uso
+     */
+    public boolean existeClienteComEmail(String email) {
+        String chave = Usuario.normalizarEmail(email);
+        return chave != null && clientesPorEmail.containsKey(chave);
     }
 
     /**
@@ -123,24 +765,31 @@ public class Gerenciador {
      */
     public ArrayList<Cliente> obterClientesAtivos() {
         ArrayList<Cliente> ativos = new ArrayList<>();
-        for (Cliente c : clientes)
-            if (c.isAtivo()) ativos.add(c);
+        synchronized (clientes) {
+            for (Cliente c : clientes)
+                if (c.isAtivo()) ativos.add(c);
+        }
         return ativos;
     }
 
     /**
-     * Cadastra um novo restaurante, se o ID ainda não existir.
+     * Cadastra um novo restaurante, se o ID e o email ainda não existirem.
      *
      * @param r Restaurante a ser cadastrado
      * @return true se o restaurante for adicionado com sucesso
      */
     public boolean cadastrarRestaurante(Restaurante r) {
-        if (r != null && !existeRestauranteComId(r.getId())) {
-            restaurantes.add(r);
-            salvarDados();
-            return true;
+        if (r == null) return false;
+        TravasEntidades.Trava t = travas.travar(r.getId());
+        try {
+            if (!reservarUsuario(restaurantesPorId, restaurantesPorEmail, r)) return false;
+            anexarRestaurante(r);
+            registrarRestaurante(r);
+        } finally {
+            t.liberar();
         }
-        return false;
+        concluirOperacao();
+        return true;
     }
 
     /**
@@ -152,11 +801,10 @@ public class Gerenciador {
      * @throws UsuarioNaoAutenticadoException Se as credenciais forem inválidas
      */
     public Restaurante autenticarRestaurante(String email, String senha) throws UsuarioNaoAutenticadoException {
-        for (Restaurante r : restaurantes) {
-            if (r.validarCredenciais(email, senha)) {
-                this.usuarioLogado = r;
-                return r;
-            }
+        Restaurante r = restaurantesPorEmail.get(Usuario.normalizarEmail(email));
+        if (r != null && r.validarCredenciais(email, senha)) {
+            this.usuarioLogado = r;
+            return r;
         }
         throw new UsuarioNaoAutenticadoException("Email ou senha inválidos");
     }
@@ -168,31 +816,180 @@ public class Gerenciador {
      * @return Restaurante encontrado ou null
      */
     public Restaurante obterRestauranteById(String id) {
-        for (Restaurante r : restaurantes)
-            if (r.getId().equals(id)) return r;
-        return null;
+        return restaurantesPorId.get(id);
     }
 
     /**
-     * Verifica se existe restaurante com o ID especificado.
+     * Verifica se já existe um restaurante com o email especificado,
+     * sem diferenciar maiúsculas de minúsculas.
      *
-     * @param id ID do restaurante
-     * @return true se existir
+     * @param email Email do restaurante
+     * @return true se o email já estiver em uso
      */
-    private boolean existeRestauranteComId(String id) {
-        return obterRestauranteById(id) != null;
+    public boolean existeRestauranteComEmail(String email) {
+        String chave = Usuario.normalizarEmail(email);
+        return chave != null && restaurantesPorEmail.containsKey(chave);
+    }
+
+    /**
+     * Altera o email de um cliente ou restaurante, garantindo que o novo
+     * email não esteja em uso por outro usuário do mesmo tipo.
+     *
+     * @param u Usuário a ser alterado
+     * @param novoEmail Novo email
+     * @return true se o email for alterado
+     */
+    public boolean alterarEmail(Usuario u, String novoEmail) {
+        String chave = Usuario.normalizarEmail(novoEmail);
+        if (u == null || chave == null || chave.isEmpty()) return false;
+
+        TravasEntidades.Trava t = travas.travar(u.getId());
+        try {
+            // Reserva o novo email antes de alterar, para que dois usuários não fiquem com o mesmo
+            Usuario dono = (u instanceof Cliente)
+                    ? clientesPorEmail.putIfAbsent(chave, (Cliente) u)
+                    : restaurantesPorEmail.putIfAbsent(chave, (Restaurante) u);
+            if (dono != null && dono != u) return false;
+
+            u.setEmail(novoEmail);
+            if (u instanceof Cliente) registrarCliente((Cliente) u);
+            else if (u instanceof Restaurante) registrarRestaurante((Restaurante) u);
+        } finally {
+            t.liberar();
+        }
+        concluirOperacao();
+        return true;
     }
 
     /**
      * Retorna todos os restaurantes que estão abertos.
+     * A lista é imutável e mantida pelo gerenciador, sem cópia a cada chamada.
      *
      * @return Lista de restaurantes abertos
      */
-    public ArrayList<Restaurante> obterRestaurantesAbertos() {
-        ArrayList<Restaurante> abertos = new ArrayList<>();
-        for (Restaurante r : restaurantes)
-            if (r.isAberto()) abertos.add(r);
-        return abertos;
+    public List<Restaurante> obterRestaurantesAbertos() {
+        return restaurantesAbertos.obterAbertos();
+    }
+
+    /**
+     * Retorna os restaurantes abertos de uma categoria.
+     * A lista é imutável e mantida pelo gerenciador, sem cópia a cada chamada.
+     *
+     * @param categoria Categoria desejada
+     * @return Lista de restaurantes abertos da categoria
+     */
+    public List<Restaurante> obterRestaurantesAbertos(String categoria) {
+        return restaurantesAbertos.obterAbertos(categoria);
+    }
+
+    /**
+     * Busca produtos ativos de restaurantes abertos pelo nome, descrição ou categoria,
+     * sem diferenciar acentos nem maiúsculas. O último termo digitado também casa
+     * como prefixo.
+     *
+     * @param consulta Texto da busca
+     * @param limite Quantidade máxima de resultados
+     * @return Produtos encontrados, do mais relevante para o menos relevante
+     */
+    public ArrayList<Produto> buscarProdutos(String consulta, int limite) {
+        return indiceProdutos.buscar(consulta, limite, p -> {
+            Restaurante r = obterRestauranteById(p.getIdRestaurante());
+            return r != null && r.isAberto();
+        });
+    }
+
+    /**
+     * Sugere termos de busca que começam com o texto digitado.
+     *
+     * @param prefixo Texto digitado
+     * @param limite Quantidade máxima de sugestões
+     * @return Termos sugeridos, dos mais frequentes para os menos frequentes
+     */
+    public ArrayList<String> sugerirTermosBusca(String prefixo, int limite) {
+        return indiceProdutos.sugerir(prefixo, limite);
+    }
+
+    /**
+     * Retorna as categorias com ao menos um restaurante aberto.
+     *
+     * @return Conjunto imutável de categorias
+     */
+    public Set<String> obterCategoriasAbertas() {
+        return restaurantesAbertos.obterCategorias();
+    }
+
+    /**
+     * Altera o status de funcionamento (aberto/fechado) de um restaurante.
+     *
+     * @param r Restaurante a ser alterado
+     * @param aberto true para abrir, false para fechar
+     */
+    public void alterarFuncionamento(Restaurante r, boolean aberto) {
+        TravasEntidades.Trava t = travas.travar(r.getId());
+        try {
+            r.setAberto(aberto);
+            registrarRestaurante(r);
+        } finally {
+            t.liberar();
+        }
+        concluirOperacao();
+    }
+
+    /**
+     * Adiciona um produto ao cardápio de um restaurante.
+     *
+     * @param r Restaurante dono do cardápio
+     * @param produto Produto a ser adicionado
+     */
+    public void adicionarProdutoCardapio(Restaurante r, Produto produto) {
+        TravasEntidades.Trava t = travas.travar(r.getId());
+        try {
+            r.adicionarProduto(produto);
+            registrarRestaurante(r);
+        } finally {
+            t.liberar();
+        }
+        concluirOperacao();
+    }
+
+    /**
+     * Substitui um produto do cardápio de um restaurante pela versão informada,
+     * com o mesmo ID (ver {@link Produto#alterado}).
+     *
+     * @param r Restaurante dono do cardápio
+     * @param produto Nova versão do produto
+     * @return true se o produto existia no cardápio e foi substituído
+     */
+    public boolean alterarProduto(Restaurante r, Produto produto) {
+        if (r == null || produto == null || !produto.validar()) return false;
+        TravasEntidades.Trava t = travas.travar(r.getId());
+        try {
+            if (!r.substituirProduto(produto)) return false;
+            registrarRestaurante(r);
+        } finally {
+            t.liberar();
+        }
+        concluirOperacao();
+        return true;
+    }
+
+    /**
+     * Remove um produto do cardápio de um restaurante.
+     *
+     * @param r Restaurante dono do cardápio
+     * @param idProduto ID do produto a ser removido
+     * @return true se o produto foi removido
+     */
+    public boolean removerProdutoCardapio(Restaurante r, String idProduto) {
+        TravasEntidades.Trava t = travas.travar(r.getId());
+        try {
+            if (!r.removerProduto(idProduto)) return false;
+            registrarRestaurante(r);
+        } finally {
+            t.liberar();
+        }
+        concluirOperacao();
+        return true;
     }
 
     /**
@@ -201,7 +998,19 @@ public class Gerenciador {
      * @return Lista completa de restaurantes
      */
     public ArrayList<Restaurante> obterTodosRestaurantes() {
-        return new ArrayList<>(restaurantes);
+        synchronized (restaurantes) {
+            return new ArrayList<>(restaurantes);
+        }
+    }
+
+    /**
+     * Gera um novo ID de pedido, único mesmo para pedidos criados no mesmo
+     * milissegundo, no formato "PED" + número.
+     *
+     * @return ID do pedido
+     */
+    public String gerarIdPedido() {
+        return geradorIds.proximoTexto();
     }
 
     /**
@@ -210,8 +1019,113 @@ public class Gerenciador {
      * @param p Pedido a ser criado
      * @return true se o pedido for criado com sucesso
      * @throws PedidoInvalidoException Se o pedido for inválido ou houver problema de crédito
+     * @throws RestauranteOcupadoException Se a fila da cozinha do restaurante estiver cheia
      */
     public boolean criarPedido(Pedido p) throws PedidoInvalidoException {
+        Cliente cliente = validarPedido(p);
+        Restaurante restaurante = obterRestauranteById(p.getIdRestaurante());
+
+        // O crédito é reservado na carteira sem travar o cliente: vários pedidos
+        // do mesmo cliente disputam apenas o compare-and-set do saldo
+        TravasEntidades.Trava t = travas.travar(restaurante.getId());
+        try {
+            efetuarPedido(p, cliente, restaurante);
+        } finally {
+            t.liberar();
+        }
+        eventos.publicar(new EventoPedido(EventoPedido.Tipo.CRIADO, p, null));
+        concluirOperacao();
+        return true;
+    }
+
+    /**
+     * Cria um pedido protegido por uma chave de idempotência gerada pelo cliente.
+     *
+     * <p>Se a mesma chave já tiver sido usada pelo mesmo cliente dentro da
+     * validade do cache, o pedido original é devolvido sem nova cobrança nem
+     * nova gravação. Envios simultâneos com a mesma chave aguardam o primeiro.
+     * Se o pedido for recusado, a chave fica livre para uma nova tentativa.</p>
+     *
+     * @param p Pedido a ser criado
+     * @param chaveIdempotencia Chave gerada pelo cliente para esta tentativa (null desativa a proteção)
+     * @return Pedido criado agora ou, em um reenvio, o pedido criado originalmente
+     * @throws PedidoInvalidoException Se o pedido for inválido ou houver problema de crédito
+     * @throws RestauranteOcupadoException Se a fila da cozinha do restaurante estiver cheia
+     */
+    public Pedido criarPedido(Pedido p, String chaveIdempotencia) throws PedidoInvalidoException {
+        if (chaveIdempotencia == null || p == null) {
+            criarPedido(p);
+            return p;
+        }
+        return idempotencia.executar(p.getIdCliente() + ":" + chaveIdempotencia, () -> {
+            criarPedido(p);
+            return p;
+        });
+    }
+
+    /**
+     * Cria vários pedidos de uma vez, como em pedidos corporativos, importação
+     * de outro canal ou testes de carga.
+     *
+     * <p>Cada pedido é validado e tem o crédito reservado individualmente: a
+     * falha de um não impede os demais. Os pedidos de um mesmo restaurante são
+     * criados sob uma única aquisição da trava do restaurante, e a gravação
+     * (e, na durabilidade síncrona, a espera pelo disco) acontece uma única vez
+     * ao final do lote.</p>
+     *
+     * @param lote Pedidos a serem criados
+     * @return Resultado de cada pedido, na ordem do lote
+     */
+    public List<ResultadoPedido> criarPedidos(Collection<Pedido> lote) {
+        ResultadoPedido[] resultados = new ResultadoPedido[lote.size()];
+
+        // Agrupa por restaurante, guardando a posição original de cada pedido
+        LinkedHashMap<Restaurante, ArrayList<Integer>> porRestaurante = new LinkedHashMap<>();
+        Cliente[] clientesDoLote = new Cliente[lote.size()];
+        Pedido[] pedidosDoLote = lote.toArray(new Pedido[0]);
+        for (int i = 0; i < pedidosDoLote.length; i++) {
+            Pedido p = pedidosDoLote[i];
+            try {
+                clientesDoLote[i] = validarPedido(p);
+                porRestaurante.computeIfAbsent(obterRestauranteById(p.getIdRestaurante()), k -> new ArrayList<>()).add(i);
+            } catch (PedidoInvalidoException e) {
+                resultados[i] = new ResultadoPedido(p, e);
+            }
+        }
+
+        ArrayList<Pedido> criados = new ArrayList<>(pedidosDoLote.length);
+        for (Map.Entry<Restaurante, ArrayList<Integer>> grupo : porRestaurante.entrySet()) {
+            Restaurante restaurante = grupo.getKey();
+            TravasEntidades.Trava t = travas.travar(restaurante.getId());
+            try {
+                for (int i : grupo.getValue()) {
+                    Pedido p = pedidosDoLote[i];
+                    try {
+                        efetuarPedido(p, clientesDoLote[i], restaurante);
+                        resultados[i] = new ResultadoPedido(p, null);
+                        criados.add(p);
+                    } catch (PedidoInvalidoException e) {
+                        resultados[i] = new ResultadoPedido(p, e);
+                    }
+                }
+            } finally {
+                t.liberar();
+            }
+        }
+
+        for (Pedido p : criados) eventos.publicar(new EventoPedido(EventoPedido.Tipo.CRIADO, p, null));
+        if (!criados.isEmpty()) concluirOperacao();
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * Verifica se o pedido é válido e se o cliente e o restaurante existem.
+     *
+     * @param p Pedido a ser verificado
+     * @return Cliente do pedido
+     * @throws PedidoInvalidoException Se o pedido for inválido
+     */
+    private Cliente validarPedido(Pedido p) throws PedidoInvalidoException {
         if (p == null || !p.validar())
             throw new PedidoInvalidoException("Produtos vazios ou total inválido");
 
@@ -220,14 +1134,125 @@ public class Gerenciador {
 
         if (cliente == null || restaurante == null)
             throw new PedidoInvalidoException("Cliente ou restaurante não encontrado");
-        if (!cliente.deduzirCredito(p.getTotal()))
+        return cliente;
+    }
+
+    /**
+     * Reserva o ID, a vaga na cozinha e o crédito, e registra o pedido.
+     * Deve ser chamado com a trava do restaurante adquirida.
+     *
+     * @param p Pedido já validado
+     * @param cliente Cliente do pedido
+     * @param restaurante Restaurante do pedido
+     * @throws PedidoInvalidoException Se o ID já existir, a cozinha estiver cheia ou faltar crédito
+     */
+    private void efetuarPedido(Pedido p, Cliente cliente, Restaurante restaurante) throws PedidoInvalidoException {
+        // Reserva o ID antes de debitar, para que dois pedidos iguais não sejam cobrados
+        if (pedidosPorId.putIfAbsent(p.getId(), p) != null)
+            throw new PedidoInvalidoException("Já existe um pedido com o ID " + p.getId());
+        // Recusa o pedido antes de cobrar se a cozinha estiver cheia
+        FilaCozinha fila = obterFilaCozinha(restaurante.getId());
+        if (!fila.reservar(p)) {
+            pedidosPorId.remove(p.getId(), p);
+            throw new RestauranteOcupadoException(restaurante.getId());
+        }
+        Carteira carteira = cliente.getCarteira();
+        Carteira.Reserva reserva = carteira.reservar(p.getTotalCentavos());
+        if (reserva == null) {
+            fila.remover(p);
+            pedidosPorId.remove(p.getId(), p);
             throw new PedidoInvalidoException("Crédito insuficiente");
+        }
 
         cliente.adicionarPedido(p);
         restaurante.receberPedido(p);
-        pedidos.add(p);
-        salvarDados();
-        return true;
+        anexarPedido(p);
+        registrarPedido(p);
+        registrarLancamento(reserva.getLancamento());
+        registrarLancamento(carteira.confirmar(reserva));
+        fila.contarAceito();
+    }
+
+    /**
+     * Assina os eventos de pedidos (criação e mudança de status). As ações são
+     * executadas de forma assíncrona, fora da thread que alterou o pedido.
+     *
+     * @param filtro Eventos de interesse
+     * @param acao Ação executada para cada evento aceito pelo filtro
+     * @return Assinatura, a ser encerrada quando os eventos não forem mais necessários
+     */
+    public BarramentoEventos.Assinatura assinarEventosPedidos(Predicate<EventoPedido> filtro,
+                                                               Consumer<EventoPedido> acao) {
+        return eventos.assinar(filtro, acao);
+    }
+
+    /**
+     * Assina os eventos de pedidos informando uma ação de ressincronização,
+     * executada quando algum evento de interesse for descartado porque o
+     * assinante não acompanhou o ritmo. Deve recarregar o estado do gerenciador.
+     *
+     * @param filtro Eventos de interesse
+     * @param acao Ação executada para cada evento
+     * @param aoDescartar Ação executada após o descarte de eventos de interesse
+     * @return Assinatura, a ser encerrada quando os eventos não forem mais necessários
+     */
+    public BarramentoEventos.Assinatura assinarEventosPedidos(Predicate<EventoPedido> filtro,
+                                                               Consumer<EventoPedido> acao,
+                                                               Runnable aoDescartar) {
+        return eventos.assinar(filtro, acao, aoDescartar);
+    }
+
+    /**
+     * Inscreve um assinante do Flow nos eventos de pedidos.
+     *
+     * @param assinante Assinante que receberá os eventos
+     */
+    public void inscreverEventosPedidos(Flow.Subscriber<? super EventoPedido> assinante) {
+        eventos.inscrever(assinante);
+    }
+
+    /**
+     * Retorna a fila da cozinha de um restaurante, criando-a se ainda não existir.
+     *
+     * @param idRestaurante ID do restaurante
+     * @return Fila de pedidos em andamento do restaurante
+     */
+    public FilaCozinha obterFilaCozinha(String idRestaurante) {
+        return filasCozinha.computeIfAbsent(idRestaurante, FilaCozinha::new);
+    }
+
+    /**
+     * Define a capacidade e o SLA da cozinha de um restaurante.
+     * A configuração vale enquanto o sistema estiver em execução.
+     *
+     * @param idRestaurante ID do restaurante
+     * @param capacidade Quantidade máxima de pedidos em andamento (zero ou negativo remove o limite)
+     * @param slaMinutos Tempo, em minutos, para entregar um pedido
+     */
+    public void configurarCozinha(String idRestaurante, int capacidade, int slaMinutos) {
+        obterFilaCozinha(idRestaurante).configurar(capacidade, slaMinutos * 60_000L);
+    }
+
+    /**
+     * Indica se a cozinha de um restaurante está perto da capacidade máxima.
+     *
+     * @param idRestaurante ID do restaurante
+     * @return true se o restaurante estiver ocupado
+     */
+    public boolean isRestauranteOcupado(String idRestaurante) {
+        FilaCozinha fila = filasCozinha.get(idRestaurante);
+        return fila != null && fila.isOcupada();
+    }
+
+    /**
+     * Retorna as métricas das filas de todas as cozinhas.
+     *
+     * @return Métricas por ID do restaurante
+     */
+    public Map<String, FilaCozinha.Metricas> obterMetricasCozinhas() {
+        HashMap<String, FilaCozinha.Metricas> metricas = new HashMap<>();
+        for (FilaCozinha fila : filasCozinha.values()) metricas.put(fila.getIdRestaurante(), fila.obterMetricas());
+        return metricas;
     }
 
     /**
@@ -237,26 +1262,68 @@ public class Gerenciador {
      * @return Pedido encontrado ou null
      */
     public Pedido obterPedidoById(String id) {
-        for (Pedido p : pedidos)
-            if (p.getId().equals(id)) return p;
-        return null;
+        return pedidosPorId.get(id);
     }
 
     /**
      * Atualiza o status de um pedido existente.
      *
+     * <p>Ao cancelar um pedido, o valor debitado volta ao crédito do cliente.
+     * Ao tirar um pedido do cancelamento, o valor é debitado de novo; se não
+     * houver crédito suficiente, o status não é alterado. Os lançamentos são
+     * gravados no diário junto com o pedido.</p>
+     *
      * @param id ID do pedido
      * @param status Novo status do pedido
      * @return true se o status for alterado com sucesso
      */
     public boolean atualizarStatusPedido(String id, Pedido.StatusPedido status) {
         Pedido p = obterPedidoById(id);
-        if (p != null) {
+        if (p == null || status == null) return false;
+        Cliente cliente = obterClienteById(p.getIdCliente());
+        TravasEntidades.Trava t = travas.travar(p.getIdRestaurante());
+        try {
+            boolean cancelado = p.getStatus() == Pedido.StatusPedido.Cancelado;
+            boolean cancelar = status == Pedido.StatusPedido.Cancelado;
+            if (cliente != null && cancelado != cancelar) {
+                Carteira carteira = cliente.getCarteira();
+                if (cancelar) {
+                    Carteira.Lancamento estorno = carteira.estornar(p.getTotalCentavos());
+                    if (estorno != null) registrarLancamento(estorno);
+                } else if (p.getTotalCentavos() > 0) {
+                    Carteira.Reserva reserva = carteira.reservar(p.getTotalCentavos());
+                    if (reserva == null) return false;
+                    registrarLancamento(reserva.getLancamento());
+                    registrarLancamento(carteira.confirmar(reserva));
+                }
+            }
             p.alterarStatus(status);
-            salvarDados();
-            return true;
+            registrarPedido(p);
+        } finally {
+            t.liberar();
         }
-        return false;
+        concluirOperacao();
+        return true;
+    }
+
+    /**
+     * Inicia uma consulta de pedidos pelos índices secundários
+     * (restaurante, cliente, status, dia e intervalo de IDs), sem varrer todos os pedidos.
+     *
+     * @return Consulta sem filtros
+     */
+    public ConsultaPedidos consultarPedidos() {
+        return indicePedidos.consultar();
+    }
+
+    /**
+     * Retorna as estatísticas de vendas dos restaurantes, mantidas a cada pedido
+     * criado ou cancelado.
+     *
+     * @return Estatísticas de vendas
+     */
+    public EstatisticasVendas getEstatisticasVendas() {
+        return estatisticas;
     }
 
     /**
@@ -265,7 +1332,64 @@ public class Gerenciador {
      * @return Lista completa de pedidos
      */
     public ArrayList<Pedido> obterTodosPedidos() {
-        return new ArrayList<>(pedidos);
+        synchronized (pedidos) {
+            return new ArrayList<>(pedidos);
+        }
+    }
+
+    /**
+     * Autentica um cliente e abre uma sessão própria para ele, independente
+     * do usuário logado na interface gráfica.
+     *
+     * @param email Email do cliente
+     * @param senha Senha do cliente
+     * @return Sessão aberta, com o token a ser usado nas operações seguintes
+     * @throws UsuarioNaoAutenticadoException Se as credenciais forem inválidas
+     */
+    public GerenciadorSessoes.Sessao entrarComoCliente(String email, String senha) throws UsuarioNaoAutenticadoException {
+        Cliente c = clientesPorEmail.get(Usuario.normalizarEmail(email));
+        if (c == null || !c.validarCredenciais(email, senha))
+            throw new UsuarioNaoAutenticadoException("Email ou senha inválidos");
+        return sessoes.abrir(c);
+    }
+
+    /**
+     * Autentica um restaurante e abre uma sessão própria para ele, independente
+     * do usuário logado na interface gráfica.
+     *
+     * @param email Email do restaurante
+     * @param senha Senha do restaurante
+     * @return Sessão aberta, com o token a ser usado nas operações seguintes
+     * @throws UsuarioNaoAutenticadoException Se as credenciais forem inválidas
+     */
+    public GerenciadorSessoes.Sessao entrarComoRestaurante(String email, String senha) throws UsuarioNaoAutenticadoException {
+        Restaurante r = restaurantesPorEmail.get(Usuario.normalizarEmail(email));
+        if (r == null || !r.validarCredenciais(email, senha))
+            throw new UsuarioNaoAutenticadoException("Email ou senha inválidos");
+        return sessoes.abrir(r);
+    }
+
+    /**
+     * Retorna o usuário de uma sessão válida.
+     *
+     * @param token Token da sessão
+     * @return Usuário da sessão
+     * @throws UsuarioNaoAutenticadoException Se o token for desconhecido ou a sessão tiver expirado
+     */
+    public Usuario obterUsuarioDaSessao(String token) throws UsuarioNaoAutenticadoException {
+        GerenciadorSessoes.Sessao sessao = sessoes.obter(token);
+        if (sessao == null) throw new UsuarioNaoAutenticadoException("Sessão inválida ou expirada");
+        return sessao.getUsuario();
+    }
+
+    /**
+     * Encerra uma sessão aberta.
+     *
+     * @param token Token da sessão
+     * @return true se a sessão existia
+     */
+    public boolean encerrarSessao(String token) {
+        return sessoes.encerrar(token);
     }
 
     /**
@@ -0,0 +1,176 @@
+package main;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controla as sessões abertas no sistema, permitindo que vários clientes e
+ * restaurantes usem o mesmo {@link Gerenciador} ao mesmo tempo.
+ *
+ * <p>Cada login bem-sucedido recebe um token aleatório, que identifica o
+ * usuário nas operações seguintes. Uma sessão sem uso por mais tempo que o
+ * limite configurado expira e o token deixa de ser aceito.</p>
+ *
+ * <p>A sessão expirada é descartada quando seu token é usado. As que não forem
+ * mais usadas são removidas periodicamente por uma thread própria, fora do
+ * caminho do login.</p>
+ */
+public class GerenciadorSessoes {
+
+    /** Tempo padrão, em milissegundos, que uma sessão sem uso permanece válida (30 minutos). */
+    public static final long EXPIRACAO_PADRAO_MS = 30 * 60 * 1000L;
+
+    /** Quantidade de bytes aleatórios de cada token. */
+    private static final int TAMANHO_TOKEN = 32;
+
+    /** Sessões abertas por token. */
+    private final ConcurrentHashMap<String, Sessao> sessoes = new ConcurrentHashMap<>();
+
+    /**
+     * Gerador dos tokens, criado no primeiro login: a semeadura do
+     * {@link SecureRandom} custa dezenas de milissegundos na inicialização.
+     */
+    private static final class Aleatorio {
+        static final SecureRandom GERADOR = new SecureRandom();
+    }
+
+    /** Tempo sem uso após o qual uma sessão expira. */
+    private final long expiracaoMs;
+
+    /** Intervalo mínimo, em milissegundos, entre duas limpezas das sessões expiradas. */
+    private static final long INTERVALO_MINIMO_LIMPEZA_MS = 1000;
+
+    /** Thread que remove periodicamente as sessões expiradas. */
+    private final ScheduledExecutorService limpeza;
+
+    /**
+     * Cria o gerenciador de sessões com a expiração padrão.
+     */
+    public GerenciadorSessoes() {
+        this(EXPIRACAO_PADRAO_MS);
+    }
+
+    /**
+     * Cria o gerenciador de sessões.
+     *
+     * @param expiracaoMs tempo sem uso, em milissegundos, após o qual uma sessão expira.
+     */
+    public GerenciadorSessoes(long expiracaoMs) {
+        this.expiracaoMs = Math.max(1, expiracaoMs);
+        this.limpeza = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "limpeza-sessoes");
+            t.setDaemon(true);
+            return t;
+        });
+        long intervalo = Math.max(INTERVALO_MINIMO_LIMPEZA_MS, this.expiracaoMs);
+        limpeza.scheduleWithFixedDelay(this::removerExpiradas, intervalo, intervalo, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abre uma nova sessão para o usuário.
+     *
+     * @param usuario usuário autenticado.
+     * @return sessão criada, com seu token.
+     */
+    public Sessao abrir(Usuario usuario) {
+        byte[] bytes = new byte[TAMANHO_TOKEN];
+        Sessao sessao;
+        do {
+            Aleatorio.GERADOR.nextBytes(bytes);
+            sessao = new Sessao(Base64.getUrlEncoder().withoutPadding().encodeToString(bytes), usuario);
+        } while (sessoes.putIfAbsent(sessao.getToken(), sessao) != null);
+        return sessao;
+    }
+
+    /**
+     * Retorna a sessão válida associada ao token e renova sua validade.
+     *
+     * @param token token da sessão.
+     * @return sessão encontrada, ou null se o token for desconhecido ou a sessão tiver expirado.
+     */
+    public Sessao obter(String token) {
+        if (token == null) return null;
+        Sessao sessao = sessoes.get(token);
+        if (sessao == null) return null;
+        long agora = System.currentTimeMillis();
+        if (sessao.expirou(agora, expiracaoMs)) {
+            sessoes.remove(token, sessao);
+            return null;
+        }
+        sessao.ultimoAcesso = agora;
+        return sessao;
+    }
+
+    /**
+     * Encerra uma sessão.
+     *
+     * @param token token da sessão.
+     * @return true se a sessão existia.
+     */
+    public boolean encerrar(String token) {
+        return token != null && sessoes.remove(token) != null;
+    }
+
+    /**
+     * Encerra todas as sessões de um usuário.
+     *
+     * @param usuario usuário cujas sessões serão encerradas.
+     */
+    public void encerrarTodas(Usuario usuario) {
+        sessoes.values().removeIf(s -> s.getUsuario() == usuario);
+    }
+
+    /**
+     * Retorna a quantidade de sessões abertas (incluindo as expiradas ainda não removidas).
+     *
+     * @return quantidade de sessões.
+     */
+    public int getQuantidadeSessoes() {
+        return sessoes.size();
+    }
+
+    /**
+     * Remove as sessões expiradas.
+     */
+    public void removerExpiradas() {
+        long agora = System.currentTimeMillis();
+        sessoes.values().removeIf(s -> s.expirou(agora, expiracaoMs));
+    }
+
+    /**
+     * Encerra a limpeza periódica das sessões expiradas.
+     */
+    public void fechar() {
+        limpeza.shutdownNow();
+    }
+
+    /**
+     * Sessão de um usuário autenticado.
+     */
+    public static final class Sessao {
+        private final String token;
+        private final Usuario usuario;
+        private final long criadaEm;
+        private volatile long ultimoAcesso;
+
+        Sessao(String token, Usuario usuario) {
+            this.token = token;
+            this.usuario = usuario;
+            this.criadaEm = System.currentTimeMillis();
+            this.ultimoAcesso = criadaEm;
+        }
+
+        private boolean expirou(long agora, long expiracaoMs) {
+            return agora - ultimoAcesso > expiracaoMs;
+        }
+
+        public String getToken() { return token; }
+        public Usuario getUsuario() { return usuario; }
+        public long getCriadaEm() { return criadaEm; }
+        public long getUltimoAcesso() { return ultimoAcesso; }
+    }
+}
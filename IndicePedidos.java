@@ -0,0 +1,507 @@
+package main;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índices secundários de pedidos por restaurante, cliente, status e dia.
+ *
+ * <p>Os índices são mantidos pelo {@link Gerenciador}: cada pedido incluído é
+ * registrado em todos eles, e uma mudança de status move o pedido de um grupo
+ * de status para outro em uma única operação sob a trava de escrita. As
+ * consultas usam a trava de leitura e podem rodar ao mesmo tempo; uma consulta
+ * nunca vê o pedido em dois status, nem em nenhum.</p>
+ *
+ * <p>As consultas ({@link ConsultaPedidos}) percorrem apenas o menor conjunto
+ * entre os filtros informados e testam os demais filtros por pertinência, sem
+ * varrer todos os pedidos.</p>
+ *
+ * <p>Pedidos com IDs do {@link GeradorIds} ficam também ordenados pelo valor
+ * numérico do ID, que cresce com o instante de criação: uma consulta por
+ * intervalo de horário é um recorte contínuo desse índice. Pedidos com IDs
+ * antigos ficam à parte e são testados pela data do pedido.</p>
+ *
+ * <p>Os pedidos de cada cliente e de cada restaurante ficam ordenados pela
+ * {@link Chave} de criação (data do pedido e ID). Uma página de consulta
+ * ({@link ConsultaPedidos#pagina(int)}) é lida desse índice do mais recente
+ * para o mais antigo a partir do cursor da página anterior, sem percorrer as
+ * páginas já lidas: o custo não depende do tamanho do histórico. Os pedidos de
+ * cada cliente, de cada restaurante e do sistema todo ficam também separados
+ * por status, na mesma ordem, para que uma página filtrada por status seja
+ * lida da mesma forma.</p>
+ */
+public class IndicePedidos {
+
+    /** Pedidos por ID do restaurante, na ordem de criação. */
+    private final HashMap<String, TreeMap<Chave, Pedido>> porRestaurante = new HashMap<>();
+
+    /** Pedidos por ID do cliente, na ordem de criação. */
+    private final HashMap<String, TreeMap<Chave, Pedido>> porCliente = new HashMap<>();
+
+    /** Todos os pedidos, na ordem de criação. */
+    private final TreeMap<Chave, Pedido> porCriacao = new TreeMap<>();
+
+    /** Pedidos por status, na ordem em que entraram no status. */
+    private final EnumMap<Pedido.StatusPedido, LinkedHashSet<Pedido>> porStatus =
+            new EnumMap<>(Pedido.StatusPedido.class);
+
+    /** Pedidos por dia de criação. */
+    private final TreeMap<LocalDate, LinkedHashSet<Pedido>> porDia = new TreeMap<>();
+
+    /** Pedidos com IDs do {@link GeradorIds}, pelo valor numérico do ID. */
+    private final TreeMap<Long, Pedido> porIdGerado = new TreeMap<>();
+
+    /** Pedidos com IDs em outro formato, na ordem de inclusão. */
+    private final LinkedHashSet<Pedido> semIdGerado = new LinkedHashSet<>();
+
+    /** Status sob o qual cada pedido está indexado, na ordem de inclusão. */
+    private final LinkedHashMap<Pedido, Pedido.StatusPedido> statusIndexado = new LinkedHashMap<>();
+
+    /** Pedidos por status, na ordem de criação. */
+    private final EnumMap<Pedido.StatusPedido, TreeMap<Chave, Pedido>> porStatusCriacao =
+            new EnumMap<>(Pedido.StatusPedido.class);
+
+    /** Pedidos de cada restaurante por status, na ordem de criação. */
+    private final HashMap<String, EnumMap<Pedido.StatusPedido, TreeMap<Chave, Pedido>>> porRestauranteStatus =
+            new HashMap<>();
+
+    /** Pedidos de cada cliente por status, na ordem de criação. */
+    private final HashMap<String, EnumMap<Pedido.StatusPedido, TreeMap<Chave, Pedido>>> porClienteStatus =
+            new HashMap<>();
+
+    /** Trava dos índices: leitura para as consultas, escrita para as alterações. */
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    /**
+     * Cria os índices vazios.
+     */
+    public IndicePedidos() {
+        for (Pedido.StatusPedido s : Pedido.StatusPedido.values()) porStatus.put(s, new LinkedHashSet<>());
+    }
+
+    /**
+     * Inclui um pedido em todos os índices. Pedidos já indexados são ignorados.
+     *
+     * @param p pedido a ser incluído.
+     */
+    public void adicionar(Pedido p) {
+        trava.writeLock().lock();
+        try {
+            if (statusIndexado.containsKey(p)) return;
+            Pedido.StatusPedido status = p.getStatus();
+            statusIndexado.put(p, status);
+            Chave chave = new Chave(p.getDataPedido(), p.getId());
+            porRestaurante.computeIfAbsent(p.getIdRestaurante(), k -> new TreeMap<>()).put(chave, p);
+            porCliente.computeIfAbsent(p.getIdCliente(), k -> new TreeMap<>()).put(chave, p);
+            porCriacao.put(chave, p);
+            porStatus.get(status).add(p);
+            grupoStatus(porStatusCriacao, status).put(chave, p);
+            grupoStatus(porRestauranteStatus.computeIfAbsent(p.getIdRestaurante(), k -> novoPorStatus()), status).put(chave, p);
+            grupoStatus(porClienteStatus.computeIfAbsent(p.getIdCliente(), k -> novoPorStatus()), status).put(chave, p);
+            porDia.computeIfAbsent(diaDo(p), k -> new LinkedHashSet<>()).add(p);
+            if (GeradorIds.foiGeradoEm(p.getId(), p.getDataPedido())) porIdGerado.put(GeradorIds.valorDe(p.getId()), p);
+            else semIdGerado.add(p);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move um pedido para o grupo do seu status atual.
+     *
+     * @param p pedido cujo status foi alterado.
+     */
+    public void atualizarStatus(Pedido p) {
+        trava.writeLock().lock();
+        try {
+            Pedido.StatusPedido anterior = statusIndexado.get(p);
+            Pedido.StatusPedido atual = p.getStatus();
+            if (anterior == null || anterior == atual) return;
+            Chave chave = new Chave(p.getDataPedido(), p.getId());
+            porStatus.get(anterior).remove(p);
+            porStatus.get(atual).add(p);
+            moverStatus(porStatusCriacao, chave, p, anterior, atual);
+            moverStatus(porRestauranteStatus.get(p.getIdRestaurante()), chave, p, anterior, atual);
+            moverStatus(porClienteStatus.get(p.getIdCliente()), chave, p, anterior, atual);
+            statusIndexado.put(p, atual);
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove todos os pedidos dos índices.
+     */
+    public void limpar() {
+        trava.writeLock().lock();
+        try {
+            porRestaurante.clear();
+            porCliente.clear();
+            porCriacao.clear();
+            for (LinkedHashSet<Pedido> grupo : porStatus.values()) grupo.clear();
+            porStatusCriacao.clear();
+            porRestauranteStatus.clear();
+            porClienteStatus.clear();
+            porDia.clear();
+            porIdGerado.clear();
+            semIdGerado.clear();
+            statusIndexado.clear();
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de pedidos indexados com o status informado.
+     *
+     * @param status status desejado.
+     * @return quantidade de pedidos.
+     */
+    public int contarPorStatus(Pedido.StatusPedido status) {
+        trava.readLock().lock();
+        try {
+            return porStatus.get(status).size();
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cria uma nova consulta sobre estes índices.
+     *
+     * @return consulta sem filtros.
+     */
+    public ConsultaPedidos consultar() {
+        return new ConsultaPedidos(this);
+    }
+
+    /**
+     * Executa uma consulta: escolhe o menor conjunto entre os filtros informados,
+     * percorre apenas esse conjunto e testa os demais filtros em tempo constante.
+     *
+     * @param c consulta com os filtros.
+     * @return pedidos que atendem a todos os filtros, na ordem do conjunto percorrido.
+     */
+    ArrayList<Pedido> executar(ConsultaPedidos c) {
+        trava.readLock().lock();
+        try {
+            ArrayList<Collection<Pedido>> candidatos = new ArrayList<>();
+
+            if (c.idRestaurante != null) candidatos.add(grupo(porRestaurante, c.idRestaurante));
+            if (c.idCliente != null) candidatos.add(grupo(porCliente, c.idCliente));
+            if (c.status != null) candidatos.add(uniaoStatus(c.status));
+            if (c.diaInicial != null || c.diaFinal != null) candidatos.add(uniaoDias(c.diaInicial, c.diaFinal));
+            if (c.instanteInicial != null || c.instanteFinal != null)
+                candidatos.add(uniaoInstantes(c.instanteInicial, c.instanteFinal));
+
+            Collection<Pedido> menor = null;
+            for (Collection<Pedido> conjunto : candidatos) {
+                if (menor == null || conjunto.size() < menor.size()) menor = conjunto;
+            }
+            if (menor == null) menor = statusIndexado.keySet();
+
+            ArrayList<Pedido> resultado = new ArrayList<>(Math.min(menor.size(), c.limite));
+            for (Pedido p : menor) {
+                if (resultado.size() >= c.limite) break;
+                if (atende(c, p)) resultado.add(p);
+            }
+            return resultado;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executa uma consulta paginada, do pedido mais recente para o mais antigo.
+     *
+     * <p>Sem filtro de status, percorre de trás para frente o menor índice
+     * ordenado entre o do cliente, o do restaurante e o geral. Com filtro de
+     * status, usa os mesmos índices separados por status e intercala os grupos
+     * dos status pedidos. Os índices são recortados pelo cursor e pelo
+     * intervalo de dias, e a leitura para assim que a página estiver completa.</p>
+     *
+     * @param c consulta com os filtros e o cursor.
+     * @param tamanho quantidade máxima de pedidos na página.
+     * @return página com os pedidos e o cursor da próxima.
+     */
+    ConsultaPedidos.Pagina executarPagina(ConsultaPedidos c, int tamanho) {
+        trava.readLock().lock();
+        try {
+            Chave teto = c.cursor;
+            if (c.diaFinal != null) {
+                Chave fimDoDia = new Chave(c.diaFinal.plusDays(1).atStartOfDay(), "");
+                if (teto == null || fimDoDia.compareTo(teto) < 0) teto = fimDoDia;
+            }
+            Chave piso = c.diaInicial != null ? new Chave(c.diaInicial.atStartOfDay(), "") : null;
+            if (teto != null && piso != null && teto.compareTo(piso) <= 0)
+                return new ConsultaPedidos.Pagina(new ArrayList<>(), null);
+
+            ArrayList<NavigableMap<Chave, Pedido>> grupos = new ArrayList<>();
+            if (c.status == null) {
+                NavigableMap<Chave, Pedido> ordem = porCriacao;
+                if (c.idCliente != null) ordem = menorIndice(ordem, porCliente.get(c.idCliente));
+                if (c.idRestaurante != null) ordem = menorIndice(ordem, porRestaurante.get(c.idRestaurante));
+                grupos.add(ordem);
+            } else {
+                Map<Pedido.StatusPedido, TreeMap<Chave, Pedido>> origem = porStatusCriacao;
+                if (c.idCliente != null) origem = menorPorStatus(origem, porClienteStatus.get(c.idCliente), c.status);
+                if (c.idRestaurante != null)
+                    origem = menorPorStatus(origem, porRestauranteStatus.get(c.idRestaurante), c.status);
+                for (Pedido.StatusPedido s : c.status) {
+                    TreeMap<Chave, Pedido> grupo = origem.get(s);
+                    if (grupo != null && !grupo.isEmpty()) grupos.add(grupo);
+                }
+            }
+
+            // Cabeça de cada grupo, do mais recente para o mais antigo; os grupos são disjuntos
+            ArrayList<Iterator<Map.Entry<Chave, Pedido>>> fontes = new ArrayList<>(grupos.size());
+            ArrayList<Map.Entry<Chave, Pedido>> cabecas = new ArrayList<>(grupos.size());
+            for (NavigableMap<Chave, Pedido> grupo : grupos) {
+                if (teto != null) grupo = grupo.headMap(teto, false);
+                if (piso != null) grupo = grupo.tailMap(piso, true);
+                Iterator<Map.Entry<Chave, Pedido>> it = grupo.descendingMap().entrySet().iterator();
+                if (!it.hasNext()) continue;
+                fontes.add(it);
+                cabecas.add(it.next());
+            }
+
+            ArrayList<Pedido> pedidos = new ArrayList<>(Math.min(tamanho + 1, 64));
+            while (!cabecas.isEmpty()) {
+                int maior = 0;
+                for (int i = 1; i < cabecas.size(); i++) {
+                    if (cabecas.get(i).getKey().compareTo(cabecas.get(maior).getKey()) > 0) maior = i;
+                }
+                Pedido p = cabecas.get(maior).getValue();
+                if (fontes.get(maior).hasNext()) {
+                    cabecas.set(maior, fontes.get(maior).next());
+                } else {
+                    fontes.remove(maior);
+                    cabecas.remove(maior);
+                }
+                if (!atende(c, p)) continue;
+                pedidos.add(p);
+                if (pedidos.size() > tamanho) break;
+            }
+
+            String proximo = null;
+            if (pedidos.size() > tamanho) {
+                pedidos.remove(tamanho);
+                Pedido ultimo = pedidos.get(tamanho - 1);
+                proximo = new Chave(ultimo.getDataPedido(), ultimo.getId()).toString();
+            }
+            return new ConsultaPedidos.Pagina(pedidos, proximo);
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /**
+     * Testa os filtros da consulta em um pedido, em tempo constante.
+     */
+    private boolean atende(ConsultaPedidos c, Pedido p) {
+        if (c.idRestaurante != null && !c.idRestaurante.equals(p.getIdRestaurante())) return false;
+        if (c.idCliente != null && !c.idCliente.equals(p.getIdCliente())) return false;
+        if (c.status != null && !c.status.contains(statusIndexado.get(p))) return false;
+        if (c.diaInicial != null && diaDo(p).isBefore(c.diaInicial)) return false;
+        if (c.diaFinal != null && diaDo(p).isAfter(c.diaFinal)) return false;
+        return (c.instanteInicial == null && c.instanteFinal == null)
+                || criadoEntre(p, c.instanteInicial, c.instanteFinal);
+    }
+
+    private static NavigableMap<Chave, Pedido> menorIndice(NavigableMap<Chave, Pedido> atual, TreeMap<Chave, Pedido> outro) {
+        if (outro == null) return Collections.emptyNavigableMap();
+        return outro.size() < atual.size() ? outro : atual;
+    }
+
+    /**
+     * Escolhe, entre dois índices separados por status, o que tem menos pedidos
+     * nos status informados.
+     */
+    private static Map<Pedido.StatusPedido, TreeMap<Chave, Pedido>> menorPorStatus(
+            Map<Pedido.StatusPedido, TreeMap<Chave, Pedido>> atual,
+            Map<Pedido.StatusPedido, TreeMap<Chave, Pedido>> outro, EnumSet<Pedido.StatusPedido> status) {
+        if (outro == null) return Collections.emptyMap();
+        return contar(outro, status) < contar(atual, status) ? outro : atual;
+    }
+
+    private static int contar(Map<Pedido.StatusPedido, TreeMap<Chave, Pedido>> indice, EnumSet<Pedido.StatusPedido> status) {
+        int soma = 0;
+        for (Pedido.StatusPedido s : status) {
+            TreeMap<Chave, Pedido> grupo = indice.get(s);
+            if (grupo != null) soma += grupo.size();
+        }
+        return soma;
+    }
+
+    private static EnumMap<Pedido.StatusPedido, TreeMap<Chave, Pedido>> novoPorStatus() {
+        return new EnumMap<>(Pedido.StatusPedido.class);
+    }
+
+    private static TreeMap<Chave, Pedido> grupoStatus(EnumMap<Pedido.StatusPedido, TreeMap<Chave, Pedido>> indice,
+                                                      Pedido.StatusPedido status) {
+        return indice.computeIfAbsent(status, k -> new TreeMap<>());
+    }
+
+    /**
+     * Move o pedido do grupo do status anterior para o do status atual.
+     */
+    private static void moverStatus(EnumMap<Pedido.StatusPedido, TreeMap<Chave, Pedido>> indice, Chave chave,
+                                    Pedido p, Pedido.StatusPedido anterior, Pedido.StatusPedido atual) {
+        if (indice == null) return;
+        TreeMap<Chave, Pedido> grupo = indice.get(anterior);
+        if (grupo != null) grupo.remove(chave);
+        grupoStatus(indice, atual).put(chave, p);
+    }
+
+    /**
+     * Junta os grupos dos status informados sem copiar os pedidos.
+     */
+    private Collection<Pedido> uniaoStatus(EnumSet<Pedido.StatusPedido> status) {
+        if (status.size() == 1) return porStatus.get(status.iterator().next());
+        ArrayList<Collection<Pedido>> grupos = new ArrayList<>();
+        for (Pedido.StatusPedido s : status) grupos.add(porStatus.get(s));
+        return new Uniao(grupos);
+    }
+
+    /**
+     * Junta os grupos dos dias no intervalo informado sem copiar os pedidos.
+     */
+    private Collection<Pedido> uniaoDias(LocalDate inicio, LocalDate fim) {
+        NavigableMap<LocalDate, LinkedHashSet<Pedido>> dias = porDia;
+        if (inicio != null) dias = dias.tailMap(inicio, true);
+        if (fim != null) dias = dias.headMap(fim, true);
+        return new Uniao(new ArrayList<>(dias.values()));
+    }
+
+    /**
+     * Junta o recorte do índice por ID entre os instantes informados aos pedidos
+     * com IDs antigos, sem copiar os pedidos.
+     */
+    private Collection<Pedido> uniaoInstantes(LocalDateTime inicio, LocalDateTime fim) {
+        long menor = inicio != null ? GeradorIds.menorIdEm(inicio) : Long.MIN_VALUE;
+        long maior = fim != null ? GeradorIds.maiorIdEm(fim) : Long.MAX_VALUE;
+        if (menor > maior) return semIdGerado;
+        return new Uniao(Arrays.asList(porIdGerado.subMap(menor, true, maior, true).values(), semIdGerado));
+    }
+
+    /**
+     * Verifica se o pedido foi criado no intervalo, usando o instante do ID
+     * quando ele vem do {@link GeradorIds} e a data do pedido nos demais casos.
+     */
+    private static boolean criadoEntre(Pedido p, LocalDateTime inicio, LocalDateTime fim) {
+        if (GeradorIds.foiGeradoEm(p.getId(), p.getDataPedido())) {
+            long id = GeradorIds.valorDe(p.getId());
+            return (inicio == null || id >= GeradorIds.menorIdEm(inicio))
+                    && (fim == null || id <= GeradorIds.maiorIdEm(fim));
+        }
+        long instante = p.getDataPedido().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return (inicio == null || instante >= inicio.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                && (fim == null || instante <= fim.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private static Collection<Pedido> grupo(HashMap<String, TreeMap<Chave, Pedido>> indice, String chave) {
+        TreeMap<Chave, Pedido> grupo = indice.get(chave);
+        return grupo != null ? grupo.values() : Collections.emptySet();
+    }
+
+    private static LocalDate diaDo(Pedido p) {
+        return p.getDataPedido().toLocalDate();
+    }
+
+    /**
+     * Posição de um pedido na ordem de criação: data do pedido e, no mesmo
+     * instante, o ID. Também é o cursor das consultas paginadas, no formato
+     * {@code data|id}.
+     */
+    static final class Chave implements Comparable<Chave> {
+        private final LocalDateTime data;
+        private final String id;
+
+        Chave(LocalDateTime data, String id) {
+            this.data = data;
+            this.id = id;
+        }
+
+        /**
+         * Lê um cursor gerado por {@link #toString()}.
+         *
+         * @param cursor texto do cursor.
+         * @return chave correspondente.
+         * @throws IllegalArgumentException se o cursor for inválido.
+         */
+        static Chave ler(String cursor) {
+            int separador = cursor.indexOf('|');
+            if (separador < 0) throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            try {
+                return new Chave(LocalDateTime.parse(cursor.substring(0, separador)), cursor.substring(separador + 1));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Cursor inválido: " + cursor);
+            }
+        }
+
+        @Override
+        public int compareTo(Chave outra) {
+            int c = data.compareTo(outra.data);
+            return c != 0 ? c : id.compareTo(outra.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Chave && compareTo((Chave) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return data.hashCode() * 31 + id.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return data + "|" + id;
+        }
+    }
+
+    /**
+     * Visão somente leitura da união de conjuntos disjuntos.
+     */
+    private static final class Uniao extends AbstractCollection<Pedido> {
+        private final List<? extends Collection<Pedido>> partes;
+        private final int tamanho;
+
+        Uniao(List<? extends Collection<Pedido>> partes) {
+            this.partes = partes;
+            int soma = 0;
+            for (Collection<Pedido> parte : partes) soma += parte.size();
+            this.tamanho = soma;
+        }
+
+        @Override
+        public Iterator<Pedido> iterator() {
+            Iterator<? extends Collection<Pedido>> externas = partes.iterator();
+            return new Iterator<Pedido>() {
+                private Iterator<Pedido> atual = Collections.emptyIterator();
+
+                @Override
+                public boolean hasNext() {
+                    while (!atual.hasNext() && externas.hasNext()) atual = externas.next().iterator();
+                    return atual.hasNext();
+                }
+
+                @Override
+                public Pedido next() {
+                    if (!hasNext()) throw new NoSuchElementException();
+                    return atual.next();
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return tamanho;
+        }
+    }
+}
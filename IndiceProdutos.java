@@ -0,0 +1,388 @@
+package main;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Índice invertido de produtos de todos os cardápios, usado na busca por texto.
+ *
+ * <p>Nome, descrição e categoria de cada produto são quebrados em termos sem
+ * acentos e em minúsculas ("Árabe" vira "arabe"). Cada termo aponta para os
+ * produtos que o contêm, com um peso que depende do campo: nome vale mais que
+ * categoria, que vale mais que descrição.</p>
+ *
+ * <p>Na busca, todos os termos da consulta precisam aparecer no produto; o
+ * último termo também casa como prefixo, para permitir autocompletar enquanto
+ * o usuário digita. Os produtos de cada termo ficam ordenados do maior peso
+ * para o menor e, no mesmo peso, por nome — a mesma ordem dos resultados.
+ * Por isso a busca percorre a lista do termo mais restritivo apenas até que
+ * nenhum produto restante possa entrar entre os melhores resultados, sem
+ * precisar avaliar todos os produtos que contêm o termo.</p>
+ *
+ * <p>O índice é mantido pelo {@link Gerenciador}, que o atualiza quando um
+ * produto entra ou sai de um cardápio. Alterar um produto troca a versão
+ * anterior pela nova no cardápio, e o índice segue a troca.</p>
+ */
+public class IndiceProdutos {
+
+    /** Peso de um termo encontrado no nome do produto. */
+    private static final int PESO_NOME = 4;
+
+    /** Peso de um termo encontrado na categoria do produto. */
+    private static final int PESO_CATEGORIA = 2;
+
+    /** Peso de um termo encontrado na descrição do produto. */
+    private static final int PESO_DESCRICAO = 1;
+
+    /** Produtos de cada termo, do maior peso para o menor. Ordenado por termo para buscas por prefixo. */
+    private final TreeMap<String, TreeSet<Entrada>> termos = new TreeMap<>();
+
+    /** Dados indexados de cada produto. */
+    private final HashMap<Produto, Indexado> indexados = new HashMap<>();
+
+    /** Sequência usada para desempatar produtos com mesmo nome e ID. */
+    private long sequencia;
+
+    /**
+     * Inclui um produto no índice. Se ele já estiver indexado, seus termos são recalculados.
+     *
+     * @param p produto a ser indexado.
+     */
+    public synchronized void adicionar(Produto p) {
+        if (p == null) return;
+        remover(p);
+        HashMap<String, Integer> pesos = new HashMap<>();
+        acumular(pesos, p.getNome(), PESO_NOME);
+        acumular(pesos, p.getCategoria(), PESO_CATEGORIA);
+        acumular(pesos, p.getDescricao(), PESO_DESCRICAO);
+
+        Indexado indexado = new Indexado(p, pesos, sequencia++);
+        indexados.put(p, indexado);
+        for (Map.Entry<String, Integer> e : pesos.entrySet())
+            termos.computeIfAbsent(e.getKey(), k -> new TreeSet<>(ORDEM_ENTRADA))
+                    .add(new Entrada(indexado, e.getValue()));
+    }
+
+    /**
+     * Remove um produto do índice.
+     *
+     * @param p produto a ser removido.
+     */
+    public synchronized void remover(Produto p) {
+        Indexado indexado = indexados.remove(p);
+        if (indexado == null) return;
+        for (Map.Entry<String, Integer> e : indexado.pesos.entrySet()) {
+            TreeSet<Entrada> entradas = termos.get(e.getKey());
+            if (entradas == null) continue;
+            entradas.remove(new Entrada(indexado, e.getValue()));
+            if (entradas.isEmpty()) termos.remove(e.getKey());
+        }
+    }
+
+    /**
+     * Remove todos os produtos do índice.
+     */
+    public synchronized void limpar() {
+        termos.clear();
+        indexados.clear();
+    }
+
+    /**
+     * Retorna a quantidade de produtos indexados.
+     *
+     * @return quantidade de produtos.
+     */
+    public synchronized int getQuantidadeProdutos() {
+        return indexados.size();
+    }
+
+    /**
+     * Busca produtos que contenham todos os termos da consulta, do mais relevante
+     * para o menos relevante. O último termo também casa como prefixo.
+     *
+     * @param consulta texto digitado.
+     * @param limite quantidade máxima de resultados.
+     * @param filtro condição adicional que cada produto deve atender (pode ser nulo).
+     * @return produtos encontrados, ordenados por relevância e nome.
+     */
+    public synchronized ArrayList<Produto> buscar(String consulta, int limite, Predicate<Produto> filtro) {
+        ArrayList<String> tokens = tokenizar(consulta);
+        if (tokens.isEmpty() || limite <= 0) return new ArrayList<>();
+        int ultimo = tokens.size() - 1;
+
+        // Contribuição máxima de cada termo da consulta e o termo exato com menos produtos
+        int[] maximos = new int[tokens.size()];
+        int conduz = -1;
+        for (int i = 0; i < ultimo; i++) {
+            TreeSet<Entrada> entradas = termos.get(tokens.get(i));
+            if (entradas == null) return new ArrayList<>();
+            maximos[i] = entradas.first().peso * 2;
+            if (conduz < 0 || entradas.size() < termos.get(tokens.get(conduz)).size()) conduz = i;
+        }
+        String prefixo = tokens.get(ultimo);
+        SortedMap<String, TreeSet<Entrada>> prefixados = comPrefixo(prefixo);
+        if (prefixados.isEmpty()) return new ArrayList<>();
+        int totalPrefixo = 0;
+        for (Map.Entry<String, TreeSet<Entrada>> e : prefixados.entrySet()) {
+            maximos[ultimo] = Math.max(maximos[ultimo], e.getValue().first().peso * multiplicador(e.getKey(), prefixo));
+            totalPrefixo += e.getValue().size();
+        }
+        if (conduz < 0 || totalPrefixo < termos.get(tokens.get(conduz)).size()) conduz = ultimo;
+
+        int outros = 0;
+        for (int i = 0; i < maximos.length; i++) if (i != conduz) outros += maximos[i];
+
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(Math.min(limite, 64) + 1, ORDEM.reversed());
+        Iterator<Entrada> candidatos;
+        HashSet<Produto> vistos = null;
+        if (conduz == ultimo) {
+            candidatos = new Intercalacao(prefixados, prefixo);
+            vistos = new HashSet<>();
+        } else {
+            candidatos = termos.get(tokens.get(conduz)).iterator();
+        }
+
+        while (candidatos.hasNext()) {
+            Entrada e = candidatos.next();
+            if (melhores.size() == limite) {
+                // Nenhum candidato restante pode superar o pior dos melhores resultados
+                // (os restantes com a mesma contribuição vêm depois em nome, e os demais valem menos)
+                int limiteSuperior = (conduz == ultimo ? e.peso : e.peso * 2) + outros;
+                Resultado pior = melhores.peek();
+                if (limiteSuperior < pior.pontos) break;
+                if (limiteSuperior == pior.pontos && ORDEM_PRODUTO.compare(e.indexado, pior.indexado) > 0) break;
+            }
+            Indexado indexado = e.indexado;
+            if (vistos != null && !vistos.add(indexado.produto)) continue;
+            avaliar(indexado, tokens, filtro, melhores, limite);
+        }
+
+        ArrayList<Resultado> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(ORDEM);
+        ArrayList<Produto> resultado = new ArrayList<>(ordenados.size());
+        for (Resultado r : ordenados) resultado.add(r.indexado.produto);
+        return resultado;
+    }
+
+    /**
+     * Sugere termos que começam com o prefixo informado, dos mais frequentes para os menos frequentes.
+     *
+     * @param prefixo início do termo digitado.
+     * @param limite quantidade máxima de sugestões.
+     * @return termos sugeridos, sem acentos e em minúsculas.
+     */
+    public synchronized ArrayList<String> sugerir(String prefixo, int limite) {
+        ArrayList<String> tokens = tokenizar(prefixo);
+        if (tokens.isEmpty() || limite <= 0) return new ArrayList<>();
+
+        Comparator<Map.Entry<String, TreeSet<Entrada>>> frequencia =
+                Comparator.comparingInt((Map.Entry<String, TreeSet<Entrada>> e) -> e.getValue().size())
+                        .reversed().thenComparing(Map.Entry::getKey);
+        PriorityQueue<Map.Entry<String, TreeSet<Entrada>>> melhores = new PriorityQueue<>(frequencia.reversed());
+        for (Map.Entry<String, TreeSet<Entrada>> e : comPrefixo(tokens.get(tokens.size() - 1)).entrySet()) {
+            melhores.add(e);
+            if (melhores.size() > limite) melhores.poll();
+        }
+
+        ArrayList<Map.Entry<String, TreeSet<Entrada>>> ordenados = new ArrayList<>(melhores);
+        ordenados.sort(frequencia);
+        ArrayList<String> sugestoes = new ArrayList<>(ordenados.size());
+        for (Map.Entry<String, TreeSet<Entrada>> e : ordenados) sugestoes.add(e.getKey());
+        return sugestoes;
+    }
+
+    /**
+     * Quebra um texto em termos sem acentos e em minúsculas.
+     * Letras e dígitos formam termos; qualquer outro caractere separa termos.
+     *
+     * @param texto texto original.
+     * @return termos na ordem em que aparecem.
+     */
+    public static ArrayList<String> tokenizar(String texto) {
+        ArrayList<String> tokens = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) return tokens;
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder atual = new StringBuilder();
+        for (int i = 0; i < decomposto.length(); i++) {
+            char ch = decomposto.charAt(i);
+            if (Character.getType(ch) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(ch)) {
+                atual.append(Character.toLowerCase(ch));
+            } else if (atual.length() > 0) {
+                tokens.add(atual.toString());
+                atual.setLength(0);
+            }
+        }
+        if (atual.length() > 0) tokens.add(atual.toString());
+        return tokens;
+    }
+
+    /**
+     * Calcula a pontuação de um produto e o mantém entre os melhores resultados, se for o caso.
+     */
+    private void avaliar(Indexado indexado, ArrayList<String> tokens, Predicate<Produto> filtro,
+                         PriorityQueue<Resultado> melhores, int limite) {
+        if (!indexado.produto.isAtivo()) return;
+
+        int pontos = 0;
+        int ultimo = tokens.size() - 1;
+        for (int i = 0; i < ultimo; i++) {
+            Integer peso = indexado.pesos.get(tokens.get(i));
+            if (peso == null) return;
+            pontos += peso * 2;
+        }
+        String prefixo = tokens.get(ultimo);
+        int melhorPrefixo = 0;
+        for (Map.Entry<String, Integer> e : indexado.pesos.entrySet()) {
+            if (e.getKey().startsWith(prefixo))
+                melhorPrefixo = Math.max(melhorPrefixo, e.getValue() * multiplicador(e.getKey(), prefixo));
+        }
+        if (melhorPrefixo == 0) return;
+        if (filtro != null && !filtro.test(indexado.produto)) return;
+
+        Resultado r = new Resultado(indexado, pontos + melhorPrefixo);
+        if (melhores.size() < limite) {
+            melhores.add(r);
+        } else if (ORDEM.compare(r, melhores.peek()) < 0) {
+            melhores.poll();
+            melhores.add(r);
+        }
+    }
+
+    /**
+     * Termo completo vale o dobro de um termo que apenas começa com o prefixo digitado.
+     */
+    private static int multiplicador(String termo, String prefixo) {
+        return termo.length() == prefixo.length() ? 2 : 1;
+    }
+
+    /**
+     * Retorna os termos que começam com o prefixo informado.
+     */
+    private SortedMap<String, TreeSet<Entrada>> comPrefixo(String prefixo) {
+        return termos.subMap(prefixo, prefixo + Character.MAX_VALUE);
+    }
+
+    /**
+     * Soma ao mapa os termos de um campo, mantendo o maior peso de cada termo.
+     */
+    private static void acumular(HashMap<String, Integer> pesos, String campo, int peso) {
+        for (String termo : tokenizar(campo)) pesos.merge(termo, peso, Math::max);
+    }
+
+    /** Desempate entre produtos: nome, ID e ordem de indexação. */
+    private static final Comparator<Indexado> ORDEM_PRODUTO = Comparator
+            .comparing((Indexado i) -> i.nome)
+            .thenComparing(i -> i.id)
+            .thenComparingLong(i -> i.sequencia);
+
+    /** Ordem das entradas de um termo: maior peso primeiro, depois nome, ID e ordem de indexação. */
+    private static final Comparator<Entrada> ORDEM_ENTRADA = Comparator
+            .comparingInt((Entrada e) -> -e.peso)
+            .thenComparing(e -> e.indexado, ORDEM_PRODUTO);
+
+    /** Ordem dos resultados: maior pontuação primeiro, depois nome, ID e ordem de indexação. */
+    private static final Comparator<Resultado> ORDEM = Comparator
+            .comparingInt((Resultado r) -> -r.pontos)
+            .thenComparing(r -> r.indexado, ORDEM_PRODUTO);
+
+    /**
+     * Dados de um produto no momento em que foi indexado.
+     */
+    private static final class Indexado {
+        private final Produto produto;
+        private final HashMap<String, Integer> pesos;
+        private final String nome;
+        private final String id;
+        private final long sequencia;
+
+        Indexado(Produto produto, HashMap<String, Integer> pesos, long sequencia) {
+            this.produto = produto;
+            this.pesos = pesos;
+            this.nome = produto.getNome() != null ? produto.getNome() : "";
+            this.id = produto.getId() != null ? produto.getId() : "";
+            this.sequencia = sequencia;
+        }
+    }
+
+    /**
+     * Produto na lista de um termo, com o peso do termo nesse produto.
+     */
+    private static final class Entrada {
+        private final Indexado indexado;
+        private final int peso;
+
+        Entrada(Indexado indexado, int peso) {
+            this.indexado = indexado;
+            this.peso = peso;
+        }
+    }
+
+    /**
+     * Produto encontrado com sua pontuação.
+     */
+    private static final class Resultado {
+        private final Indexado indexado;
+        private final int pontos;
+
+        Resultado(Indexado indexado, int pontos) {
+            this.indexado = indexado;
+            this.pontos = pontos;
+        }
+    }
+
+    /**
+     * Percorre as listas de todos os termos com um prefixo como se fossem uma só,
+     * em ordem decrescente de contribuição e, no mesmo valor, por nome. Cada entrada
+     * devolvida traz como peso a sua contribuição (termo completo vale o dobro).
+     */
+    private static final class Intercalacao implements Iterator<Entrada> {
+        private final PriorityQueue<Cabeca> cabecas;
+
+        Intercalacao(SortedMap<String, TreeSet<Entrada>> listas, String prefixo) {
+            cabecas = new PriorityQueue<>(Math.max(1, listas.size()), (a, b) -> {
+                int c = Integer.compare(b.contribuicao, a.contribuicao);
+                return c != 0 ? c : ORDEM_PRODUTO.compare(a.atual.indexado, b.atual.indexado);
+            });
+            for (Map.Entry<String, TreeSet<Entrada>> e : listas.entrySet()) {
+                Cabeca cabeca = new Cabeca(multiplicador(e.getKey(), prefixo), e.getValue().iterator());
+                if (cabeca.avancar()) cabecas.add(cabeca);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !cabecas.isEmpty();
+        }
+
+        @Override
+        public Entrada next() {
+            Cabeca cabeca = cabecas.poll();
+            if (cabeca == null) throw new NoSuchElementException();
+            Entrada atual = new Entrada(cabeca.atual.indexado, cabeca.contribuicao);
+            if (cabeca.avancar()) cabecas.add(cabeca);
+            return atual;
+        }
+
+        /** Posição corrente na lista de um termo. */
+        private static final class Cabeca {
+            private final int multiplicador;
+            private final Iterator<Entrada> restante;
+            private Entrada atual;
+            private int contribuicao;
+
+            Cabeca(int multiplicador, Iterator<Entrada> restante) {
+                this.multiplicador = multiplicador;
+                this.restante = restante;
+            }
+
+            boolean avancar() {
+                if (!restante.hasNext()) return false;
+                atual = restante.next();
+                contribuicao = atual.peso * multiplicador;
+                return true;
+            }
+        }
+    }
+}
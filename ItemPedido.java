@@ -0,0 +1,120 @@
+package main;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Item de um pedido: um produto do cardápio com a quantidade pedida.
+ *
+ * <p>Guarda apenas o necessário para exibir e cobrar o pedido: o ID e o nome
+ * do produto, o preço unitário em centavos no momento do pedido, a quantidade
+ * e uma observação opcional. Alterações posteriores no cardápio não afetam os
+ * pedidos já feitos. O item é imutável; mudar a quantidade gera um novo
+ * item.</p>
+ */
+public final class ItemPedido implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String idProduto;
+    private final String nome;
+    private final long precoCentavos;
+    private final int quantidade;
+    private final String observacao;
+
+    /**
+     * Cria um item.
+     *
+     * @param idProduto ID do produto.
+     * @param nome nome do produto no momento do pedido.
+     * @param precoCentavos preço unitário, em centavos, no momento do pedido.
+     * @param quantidade quantidade pedida (mínimo 1).
+     * @param observacao observação do item, ou null para nenhuma.
+     */
+    public ItemPedido(String idProduto, String nome, long precoCentavos, int quantidade, String observacao) {
+        if (quantidade < 1) throw new IllegalArgumentException("Quantidade inválida: " + quantidade);
+        if (precoCentavos < 0) throw new IllegalArgumentException("Preço inválido: " + precoCentavos);
+        this.idProduto = idProduto;
+        this.nome = nome;
+        this.precoCentavos = precoCentavos;
+        this.quantidade = quantidade;
+        this.observacao = observacao == null || observacao.isEmpty() ? null : observacao;
+    }
+
+    /**
+     * Cria um item com o preço atual de um produto.
+     *
+     * @param produto produto pedido.
+     * @param quantidade quantidade pedida (mínimo 1).
+     * @param observacao observação do item, ou null para nenhuma.
+     * @return item criado.
+     */
+    public static ItemPedido de(Produto produto, int quantidade, String observacao) {
+        return new ItemPedido(produto.getId(), produto.getNome(), produto.getPrecoCentavos(),
+                quantidade, observacao);
+    }
+
+    /**
+     * Retorna uma cópia do item com outra quantidade.
+     *
+     * @param novaQuantidade nova quantidade (mínimo 1).
+     * @return novo item.
+     */
+    public ItemPedido comQuantidade(int novaQuantidade) {
+        return new ItemPedido(idProduto, nome, precoCentavos, novaQuantidade, observacao);
+    }
+
+    /**
+     * Indica se um produto pode ser somado a este item, isto é, se é o mesmo
+     * produto, com o mesmo preço e a mesma observação.
+     *
+     * @param produto produto a ser comparado.
+     * @param observacao observação do produto, ou null.
+     * @return true se o produto corresponde ao item.
+     */
+    boolean corresponde(Produto produto, String observacao) {
+        return idProduto.equals(produto.getId())
+                && precoCentavos == produto.getPrecoCentavos()
+                && Objects.equals(this.observacao, observacao == null || observacao.isEmpty() ? null : observacao);
+    }
+
+    /** @return ID do produto */
+    public String getIdProduto() { return idProduto; }
+
+    /** @return nome do produto no momento do pedido */
+    public String getNome() { return nome; }
+
+    /** @return preço unitário em centavos */
+    public long getPrecoCentavos() { return precoCentavos; }
+
+    /** @return preço unitário em reais */
+    public double getPreco() { return Dinheiro.paraReais(precoCentavos); }
+
+    /** @return quantidade pedida */
+    public int getQuantidade() { return quantidade; }
+
+    /** @return observação do item, ou null se não houver */
+    public String getObservacao() { return observacao; }
+
+    /** @return preço unitário multiplicado pela quantidade, em centavos */
+    public long getSubtotalCentavos() { return precoCentavos * quantidade; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ItemPedido)) return false;
+        ItemPedido outro = (ItemPedido) o;
+        return precoCentavos == outro.precoCentavos && quantidade == outro.quantidade
+                && Objects.equals(idProduto, outro.idProduto) && Objects.equals(nome, outro.nome)
+                && Objects.equals(observacao, outro.observacao);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idProduto, precoCentavos, quantidade, observacao);
+    }
+
+    @Override
+    public String toString() {
+        return quantidade + "x " + nome + " (" + idProduto + ")";
+    }
+}
@@ -0,0 +1,192 @@
+package main;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Leitura e escrita de JSON usadas pelo {@link ServidorHttp}, sem bibliotecas externas.
+ *
+ * <p>A leitura converte objetos em {@link Map}, listas em {@link List},
+ * números em {@link Double}, e textos, booleanos e null nos tipos
+ * correspondentes. A escrita é feita diretamente em um {@link StringBuilder}
+ * pelo chamador, com {@link #texto} para escapar os textos.</p>
+ */
+public final class Json {
+
+    private final String entrada;
+    private int posicao;
+
+    private Json(String entrada) {
+        this.entrada = entrada;
+    }
+
+    /**
+     * Lê um documento JSON.
+     *
+     * @param entrada texto JSON.
+     * @return valor lido.
+     * @throws IllegalArgumentException se o texto não for um JSON válido.
+     */
+    public static Object ler(String entrada) {
+        Json leitor = new Json(entrada);
+        Object valor = leitor.lerValor();
+        leitor.pularEspacos();
+        if (leitor.posicao != entrada.length()) throw leitor.erro("conteúdo após o fim do documento");
+        return valor;
+    }
+
+    /**
+     * Lê um documento JSON que deve ser um objeto.
+     *
+     * @param entrada texto JSON.
+     * @return campos do objeto.
+     * @throws IllegalArgumentException se o texto não for um objeto JSON válido.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> lerObjeto(String entrada) {
+        Object valor = ler(entrada);
+        if (!(valor instanceof Map)) throw new IllegalArgumentException("JSON inválido: esperado um objeto");
+        return (Map<String, Object>) valor;
+    }
+
+    /**
+     * Escreve um texto como string JSON, com aspas e caracteres escapados.
+     *
+     * @param sb destino.
+     * @param s texto (null é escrito como null).
+     * @return o próprio destino.
+     */
+    public static StringBuilder texto(StringBuilder sb, String s) {
+        if (s == null) return sb.append("null");
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':  sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"');
+    }
+
+    private Object lerValor() {
+        pularEspacos();
+        if (posicao >= entrada.length()) throw erro("fim inesperado");
+        char c = entrada.charAt(posicao);
+        switch (c) {
+            case '{': return lerMapa();
+            case '[': return lerLista();
+            case '"': return lerTexto();
+            case 't': esperar("true"); return Boolean.TRUE;
+            case 'f': esperar("false"); return Boolean.FALSE;
+            case 'n': esperar("null"); return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return lerNumero();
+                throw erro("caractere inesperado '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> lerMapa() {
+        LinkedHashMap<String, Object> mapa = new LinkedHashMap<>();
+        posicao++;
+        pularEspacos();
+        if (consumir('}')) return mapa;
+        do {
+            pularEspacos();
+            if (posicao >= entrada.length() || entrada.charAt(posicao) != '"') throw erro("esperado nome do campo");
+            String chave = lerTexto();
+            pularEspacos();
+            if (!consumir(':')) throw erro("esperado ':'");
+            mapa.put(chave, lerValor());
+            pularEspacos();
+        } while (consumir(','));
+        if (!consumir('}')) throw erro("esperado '}'");
+        return mapa;
+    }
+
+    private List<Object> lerLista() {
+        ArrayList<Object> lista = new ArrayList<>();
+        posicao++;
+        pularEspacos();
+        if (consumir(']')) return lista;
+        do {
+            lista.add(lerValor());
+            pularEspacos();
+        } while (consumir(','));
+        if (!consumir(']')) throw erro("esperado ']'");
+        return lista;
+    }
+
+    private String lerTexto() {
+        StringBuilder sb = new StringBuilder();
+        posicao++;
+        while (posicao < entrada.length()) {
+            char c = entrada.charAt(posicao++);
+            if (c == '"') return sb.toString();
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (posicao >= entrada.length()) break;
+            char e = entrada.charAt(posicao++);
+            switch (e) {
+                case '"': case '\\': case '/': sb.append(e); break;
+                case 'b': sb.append('\b'); break;
+                case 'f': sb.append('\f'); break;
+                case 'n': sb.append('\n'); break;
+                case 'r': sb.append('\r'); break;
+                case 't': sb.append('\t'); break;
+                case 'u':
+                    if (posicao + 4 > entrada.length()) throw erro("escape \\u incompleto");
+                    try {
+                        sb.append((char) Integer.parseInt(entrada.substring(posicao, posicao + 4), 16));
+                    } catch (NumberFormatException ex) {
+                        throw erro("escape \\u inválido");
+                    }
+                    posicao += 4;
+                    break;
+                default: throw erro("escape inválido");
+            }
+        }
+        throw erro("texto não terminado");
+    }
+
+    private Double lerNumero() {
+        int inicio = posicao;
+        while (posicao < entrada.length() && "+-0123456789.eE".indexOf(entrada.charAt(posicao)) >= 0) posicao++;
+        try {
+            return Double.valueOf(entrada.substring(inicio, posicao));
+        } catch (NumberFormatException e) {
+            throw erro("número inválido");
+        }
+    }
+
+    private void esperar(String literal) {
+        if (!entrada.startsWith(literal, posicao)) throw erro("esperado " + literal);
+        posicao += literal.length();
+    }
+
+    private boolean consumir(char c) {
+        if (posicao < entrada.length() && entrada.charAt(posicao) == c) {
+            posicao++;
+            return true;
+        }
+        return false;
+    }
+
+    private void pularEspacos() {
+        while (posicao < entrada.length() && Character.isWhitespace(entrada.charAt(posicao))) posicao++;
+    }
+
+    private IllegalArgumentException erro(String motivo) {
+        return new IllegalArgumentException("JSON inválido na posição " + posicao + ": " + motivo);
+    }
+}
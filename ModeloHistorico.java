@@ -0,0 +1,92 @@
+package main;
+
+import javax.swing.AbstractListModel;
+import java.util.function.IntFunction;
+import java.util.function.IntSupplier;
+
+/**
+ * Modelo de {@link javax.swing.JList} que exibe, do mais recente para o mais
+ * antigo, uma lista do domínio que só cresce no fim (como os pedidos de um
+ * cliente ou os recebidos por um restaurante).
+ *
+ * <p>Nada é copiado: cada linha é lida da lista de origem pela posição quando
+ * a {@code JList} a desenha, e só as linhas visíveis são desenhadas. Abrir a
+ * tela custa o mesmo para 10 ou 1 milhão de itens.</p>
+ *
+ * <p>O tamanho exibido só muda em {@link #sincronizar()}, chamado na thread de
+ * eventos, para que a {@code JList} nunca veja a lista crescer sem aviso
+ * enquanto outras threads incluem itens na origem.</p>
+ *
+ * @param <T> tipo dos itens.
+ */
+public class ModeloHistorico<T> extends AbstractListModel<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntSupplier tamanhoOrigem;
+    private final IntFunction<T> itemOrigem;
+
+    /** Quantidade de itens exibidos; os itens da origem além dela ainda não foram anunciados. */
+    private int tamanho;
+
+    /**
+     * Cria o modelo.
+     *
+     * @param tamanhoOrigem quantidade atual de itens na origem.
+     * @param itemOrigem item da origem em uma posição, contada a partir do mais antigo.
+     */
+    public ModeloHistorico(IntSupplier tamanhoOrigem, IntFunction<T> itemOrigem) {
+        this.tamanhoOrigem = tamanhoOrigem;
+        this.itemOrigem = itemOrigem;
+        this.tamanho = tamanhoOrigem.getAsInt();
+    }
+
+    @Override
+    public int getSize() {
+        return tamanho;
+    }
+
+    @Override
+    public T getElementAt(int indice) {
+        return itemOrigem.apply(tamanho - 1 - indice);
+    }
+
+    /**
+     * Anuncia os itens incluídos na origem desde a última chamada, no topo da lista.
+     * Se a origem tiver sido substituída por uma lista menor, a lista é refeita.
+     */
+    public void sincronizar() {
+        int atual = tamanhoOrigem.getAsInt();
+        if (atual > tamanho) {
+            int novos = atual - tamanho;
+            tamanho = atual;
+            fireIntervalAdded(this, 0, novos - 1);
+        } else if (atual < tamanho) {
+            int anterior = tamanho;
+            tamanho = atual;
+            fireIntervalRemoved(this, atual, anterior - 1);
+            if (atual > 0) fireContentsChanged(this, 0, atual - 1);
+        }
+    }
+
+    /**
+     * Procura um item entre as posições informadas (em geral, as linhas visíveis)
+     * e, se encontrado, avisa que a linha deve ser redesenhada. Itens fora do
+     * intervalo serão desenhados com os dados atuais quando ficarem visíveis.
+     *
+     * @param item item alterado.
+     * @param primeiro primeira posição a verificar.
+     * @param ultimo última posição a verificar.
+     * @return posição do item, ou -1 se ele não estiver no intervalo.
+     */
+    public int alterado(T item, int primeiro, int ultimo) {
+        if (primeiro < 0) return -1;
+        for (int i = primeiro; i <= ultimo && i < tamanho; i++) {
+            if (getElementAt(i) == item) {
+                fireContentsChanged(this, i, i);
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,109 @@
+package main;
+
+import javax.swing.AbstractListModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modelo de {@link javax.swing.JList} com os próprios itens, alterado item a item.
+ *
+ * <p>Cada alteração avisa a lista apenas do intervalo afetado, para que ela
+ * redesenhe só as linhas visíveis que mudaram. O texto de cada linha não é
+ * guardado: ele é produzido pelo {@link RenderizadorLista} no momento em que a
+ * linha é desenhada.</p>
+ *
+ * <p>Como todo modelo do Swing, deve ser usado apenas na thread de eventos.</p>
+ *
+ * @param <T> tipo dos itens.
+ */
+public class ModeloLista<T> extends AbstractListModel<T> {
+
+    private static final long serialVersionUID = 1L;
+
+    private ArrayList<T> itens = new ArrayList<>();
+
+    @Override
+    public int getSize() {
+        return itens.size();
+    }
+
+    @Override
+    public T getElementAt(int indice) {
+        return itens.get(indice);
+    }
+
+    /**
+     * Retorna a posição de um item.
+     *
+     * @param item item procurado.
+     * @return posição do item, ou -1 se não estiver na lista.
+     */
+    public int indiceDe(T item) {
+        return itens.indexOf(item);
+    }
+
+    /**
+     * Insere um item na posição informada.
+     *
+     * @param indice posição do novo item.
+     * @param item item a ser inserido.
+     */
+    public void inserir(int indice, T item) {
+        itens.add(indice, item);
+        fireIntervalAdded(this, indice, indice);
+    }
+
+    /**
+     * Remove o item da posição informada.
+     *
+     * @param indice posição do item.
+     * @return item removido.
+     */
+    public T remover(int indice) {
+        T item = itens.remove(indice);
+        fireIntervalRemoved(this, indice, indice);
+        return item;
+    }
+
+    /**
+     * Avisa que os dados do item na posição informada mudaram e a linha deve ser redesenhada.
+     *
+     * @param indice posição do item.
+     */
+    public void alterado(int indice) {
+        fireContentsChanged(this, indice, indice);
+    }
+
+    /**
+     * Substitui todos os itens, avisando a lista apenas do trecho que mudou:
+     * o início e o fim comuns às duas listas (comparados por identidade) são
+     * mantidos. Se nenhum item mudou de lugar, todas as linhas são redesenhadas,
+     * pois os dados dos itens podem ter sido alterados.
+     *
+     * @param novos novos itens.
+     */
+    public void substituir(List<? extends T> novos) {
+        ArrayList<T> antigos = itens;
+        int tamanhoAntigo = antigos.size();
+        int tamanhoNovo = novos.size();
+
+        int inicio = 0;
+        while (inicio < tamanhoAntigo && inicio < tamanhoNovo && antigos.get(inicio) == novos.get(inicio)) inicio++;
+        int fimAntigo = tamanhoAntigo;
+        int fimNovo = tamanhoNovo;
+        while (fimAntigo > inicio && fimNovo > inicio && antigos.get(fimAntigo - 1) == novos.get(fimNovo - 1)) {
+            fimAntigo--;
+            fimNovo--;
+        }
+
+        itens = new ArrayList<>(novos);
+        if (inicio == fimAntigo && inicio == fimNovo) {
+            if (tamanhoNovo > 0) fireContentsChanged(this, 0, tamanhoNovo - 1);
+            return;
+        }
+        int trocados = Math.min(fimAntigo, fimNovo) - inicio;
+        if (trocados > 0) fireContentsChanged(this, inicio, inicio + trocados - 1);
+        if (fimAntigo > fimNovo) fireIntervalRemoved(this, inicio + trocados, fimAntigo - 1);
+        else if (fimNovo > fimAntigo) fireIntervalAdded(this, inicio + trocados, fimNovo - 1);
+    }
+}
@@ -0,0 +1,57 @@
+package main;
+
+/**
+ * Interface para receber notificações de alterações feitas diretamente nas
+ * entidades de domínio.
+ *
+ * <p>É usada pelo {@link Gerenciador} para manter seus índices atualizados
+ * quando um atributo indexado é alterado por um setter da própria entidade.
+ * Todos os métodos têm implementação vazia, para que cada ouvinte trate apenas
+ * os eventos que lhe interessam.</p>
+ */
+public interface OuvinteEntidades {
+
+    /**
+     * Chamado depois que o email de um usuário é alterado.
+     *
+     * @param usuario usuário alterado.
+     * @param emailAnterior email antes da alteração.
+     */
+    default void emailAlterado(Usuario usuario, String emailAnterior) {
+    }
+
+    /**
+     * Chamado depois que o status de um pedido é alterado.
+     *
+     * @param pedido pedido alterado.
+     * @param statusAnterior status antes da alteração.
+     */
+    default void statusPedidoAlterado(Pedido pedido, Pedido.StatusPedido statusAnterior) {
+    }
+
+    /**
+     * Chamado depois que um restaurante abre, fecha ou muda de categoria.
+     *
+     * @param restaurante restaurante alterado.
+     */
+    default void funcionamentoAlterado(Restaurante restaurante) {
+    }
+
+    /**
+     * Chamado depois que um produto entra no cardápio de um restaurante.
+     *
+     * @param restaurante restaurante dono do cardápio.
+     * @param produto produto adicionado.
+     */
+    default void produtoAdicionado(Restaurante restaurante, Produto produto) {
+    }
+
+    /**
+     * Chamado depois que um produto sai do cardápio de um restaurante.
+     *
+     * @param restaurante restaurante dono do cardápio.
+     * @param produto produto removido.
+     */
+    default void produtoRemovido(Restaurante restaurante, Produto produto) {
+    }
+}
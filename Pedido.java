@@ -1,17 +1,47 @@
 package main;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 /**
  * Representa um pedido realizado no sistema de delivery.
- * Contém informações sobre cliente, restaurante, produtos,
+ * Contém informações sobre cliente, restaurante, itens,
  * valores e status do pedido.
+ *
+ * <p>Os produtos pedidos são guardados como {@link ItemPedido}: ID, nome,
+ * preço no momento do pedido e quantidade, em vez de uma cópia completa do
+ * produto por unidade. O subtotal é mantido em centavos a cada alteração.</p>
  */
 public class Pedido implements Serializable {
     private static final long serialVersionUID = 1L;
+
+    /** Formato da data exibida nos detalhes do pedido. */
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    /**
+     * Campos da serialização padrão. Pedidos antigos gravavam um produto completo
+     * por unidade em {@code produtos}; eles são convertidos em itens na leitura.
+     */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("id", String.class),
+            new ObjectStreamField("idCliente", String.class),
+            new ObjectStreamField("idRestaurante", String.class),
+            new ObjectStreamField("observacoes", String.class),
+            new ObjectStreamField("produtos", ArrayList.class),
+            new ObjectStreamField("itens", ArrayList.class),
+            new ObjectStreamField("status", StatusPedido.class),
+            new ObjectStreamField("dataPedido", LocalDateTime.class),
+            new ObjectStreamField("total", double.class),
+            new ObjectStreamField("taxaEntrega", double.class)
+    };
     
     /**
      * Enum que representa os possíveis status de um pedido.
@@ -43,11 +73,20 @@ public class Pedido implements Serializable {
     private String idCliente;
     private String idRestaurante;
     private String observacoes;
-    private ArrayList<Produto> produtos;
-    private StatusPedido status;
+    private ArrayList<ItemPedido> itens;
+    /** Status atual: alterado pelo {@link Gerenciador} e lido sem trava pelas telas */
+    private volatile StatusPedido status;
     private LocalDateTime dataPedido;
-    private double total;
-    private double taxaEntrega;
+    private long taxaEntregaCentavos;
+
+    /** Soma dos subtotais dos itens, em centavos. */
+    private long subtotalCentavos;
+
+    /** Soma das quantidades dos itens. */
+    private int quantidadeUnidades;
+
+    /** Ouvinte notificado sobre alterações de status (não persistido) */
+    private transient OuvinteEntidades ouvinte;
 
     /**
      * Construtor da classe Pedido.
@@ -61,56 +100,89 @@ public class Pedido implements Serializable {
         this.id = id;
         this.idCliente = idCliente;
         this.idRestaurante = idRestaurante;
-        this.produtos = new ArrayList<>();
+        this.itens = new ArrayList<>();
         this.status = StatusPedido.Pendente;
         this.dataPedido = LocalDateTime.now();
-        this.total = 0.0;
         this.observacoes = "";
-        this.taxaEntrega = taxaEntrega;
+        this.taxaEntregaCentavos = Dinheiro.paraCentavos(taxaEntrega);
     }
 
     /**
-     * Adiciona um produto ao pedido, caso ele esteja ativo.
+     * Adiciona uma unidade de um produto ao pedido, caso ele esteja ativo.
      * @param produto produto a ser adicionado
      */
     public void adicionarProduto(Produto produto) {
-        if (produto != null && produto.isAtivo()) {
-            produtos.add(produto);
-            recalcularTotal();
+        adicionarProduto(produto, 1, null);
+    }
+
+    /**
+     * Adiciona um produto ao pedido, caso ele esteja ativo, com o preço atual.
+     * Se já houver um item do mesmo produto, com o mesmo preço e a mesma
+     * observação, a quantidade é somada a ele.
+     * 
+     * @param produto produto a ser adicionado
+     * @param quantidade quantidade a ser adicionada
+     * @param observacao observação do item, ou null para nenhuma
+     */
+    public void adicionarProduto(Produto produto, int quantidade, String observacao) {
+        if (produto == null || !produto.isAtivo() || quantidade < 1) return;
+        for (int i = 0; i < itens.size(); i++) {
+            ItemPedido item = itens.get(i);
+            if (item.corresponde(produto, observacao)) {
+                substituirItem(i, item.comQuantidade(item.getQuantidade() + quantidade));
+                return;
+            }
         }
+        adicionarItem(ItemPedido.de(produto, quantidade, observacao));
+    }
+
+    /**
+     * Adiciona um item já montado, sem juntá-lo aos existentes.
+     * Usado na leitura de pedidos gravados.
+     * 
+     * @param item item a ser adicionado
+     */
+    void adicionarItem(ItemPedido item) {
+        itens.add(item);
+        subtotalCentavos += item.getSubtotalCentavos();
+        quantidadeUnidades += item.getQuantidade();
     }
 
     /**
-     * Remove um produto da lista de produtos do pedido.
+     * Remove uma unidade do item na posição informada; o item sai do pedido
+     * quando a quantidade chega a zero.
      * 
-     * @param indice posição do produto na lista
-     * @return true se o produto foi removido, false caso contrário
+     * @param indice posição do item na lista
+     * @return true se a unidade foi removida, false caso contrário
      */
     public boolean removerProduto(int indice) {
-        if (indice >= 0 && indice < produtos.size()) {
-            produtos.remove(indice);
-            recalcularTotal();
-            return true;
+        if (indice < 0 || indice >= itens.size()) return false;
+        ItemPedido item = itens.get(indice);
+        if (item.getQuantidade() > 1) {
+            substituirItem(indice, item.comQuantidade(item.getQuantidade() - 1));
+        } else {
+            itens.remove(indice);
+            subtotalCentavos -= item.getSubtotalCentavos();
+            quantidadeUnidades -= item.getQuantidade();
         }
-        return false;
+        return true;
     }
 
     /**
-     * Recalcula o valor total do pedido (produtos + taxa de entrega).
+     * Troca o item na posição informada, ajustando os totais pela diferença.
      */
-    private void recalcularTotal() {
-        total = taxaEntrega;
-        for (Produto p : produtos) {
-            total += p.getPreco();
-        }
+    private void substituirItem(int indice, ItemPedido novo) {
+        ItemPedido anterior = itens.set(indice, novo);
+        subtotalCentavos += novo.getSubtotalCentavos() - anterior.getSubtotalCentavos();
+        quantidadeUnidades += novo.getQuantidade() - anterior.getQuantidade();
     }
 
     /**
-     * Retorna uma cópia da lista de produtos do pedido.
-     * @return lista de produtos
+     * Retorna os itens do pedido.
+     * @return lista não modificável com os itens atuais
      */
-    public ArrayList<Produto> obterProdutos() {
-        return new ArrayList<>(produtos);
+    public List<ItemPedido> obterItens() {
+        return Collections.unmodifiableList(new ArrayList<>(itens));
     }
 
     /**
@@ -118,7 +190,17 @@ public class Pedido implements Serializable {
      * @param novoStatus novo status a ser atribuído
      */
     public void alterarStatus(StatusPedido novoStatus) {
+        StatusPedido anterior = this.status;
         this.status = novoStatus;
+        if (ouvinte != null && anterior != novoStatus) ouvinte.statusPedidoAlterado(this, anterior);
+    }
+
+    /**
+     * Define o ouvinte notificado quando o status do pedido for alterado.
+     * @param ouvinte ouvinte a ser notificado (ou null para nenhum)
+     */
+    void definirOuvinte(OuvinteEntidades ouvinte) {
+        this.ouvinte = ouvinte;
     }
 
     /**
@@ -126,7 +208,7 @@ public class Pedido implements Serializable {
      * @return true se contém produtos e valor total maior que zero
      */
     public boolean validar() {
-        return !produtos.isEmpty() && total > 0;
+        return !itens.isEmpty() && getTotalCentavos() > 0;
     }
 
     /**
@@ -134,11 +216,7 @@ public class Pedido implements Serializable {
      * @return valor subtotal do pedido
      */
     public double obterSubtotal() {
-        double subtotal = 0.0;
-        for (Produto p : produtos) {
-            subtotal += p.getPreco();
-        }
-        return subtotal;
+        return Dinheiro.paraReais(subtotalCentavos);
     }
 
     /**
@@ -151,17 +229,22 @@ public class Pedido implements Serializable {
         StringBuilder sb = new StringBuilder();
         sb.append("\n=== Detalhes do Pedido ===\nID: ").append(id)
           .append("\nStatus: ").append(status.getDescricao())
-          .append("\nData: ").append(dataPedido.format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm")))
+          .append("\nData: ").append(dataPedido.format(FORMATO_DATA))
           .append("\n\nProdutos:\n");
         
-        for (int i = 0; i < produtos.size(); i++) {
-            sb.append(String.format("  %d. %s - R$ %.2f\n", i + 1, produtos.get(i).getNome(), produtos.get(i).getPreco()));
+        for (int i = 0; i < itens.size(); i++) {
+            ItemPedido item = itens.get(i);
+            sb.append("  ").append(i + 1).append(". ");
+            if (item.getQuantidade() > 1) sb.append(item.getQuantidade()).append("x ");
+            sb.append(item.getNome()).append(" - ");
+            Dinheiro.formatar(sb, item.getSubtotalCentavos()).append('\n');
+            if (item.getObservacao() != null)
+                sb.append("     Obs: ").append(item.getObservacao()).append('\n');
         }
         
-        sb.append(String.format(
-            "\nSubtotal: R$ %.2f\nTaxa: R$ %.2f\nTOTAL: R$ %.2f\n",
-            obterSubtotal(), taxaEntrega, total
-        ));
+        Dinheiro.formatar(sb.append("\nSubtotal: "), subtotalCentavos);
+        Dinheiro.formatar(sb.append("\nTaxa: "), taxaEntregaCentavos);
+        Dinheiro.formatar(sb.append("\nTOTAL: "), getTotalCentavos()).append('\n');
         
         if (!observacoes.isEmpty()) {
             sb.append("Obs: ").append(observacoes).append("\n");
@@ -188,16 +271,37 @@ public class Pedido implements Serializable {
     public LocalDateTime getDataPedido() { return dataPedido; }
 
     /** @return valor total do pedido */
-    public double getTotal() { return total; }
+    public double getTotal() { return Dinheiro.paraReais(getTotalCentavos()); }
+
+    /** @return valor total do pedido (itens e taxa de entrega), em centavos */
+    public long getTotalCentavos() { return subtotalCentavos + taxaEntregaCentavos; }
+
+    /** @return soma dos itens, sem a taxa de entrega, em centavos */
+    public long getSubtotalCentavos() { return subtotalCentavos; }
 
     /** @return observações adicionais do pedido */
     public String getObservacoes() { return observacoes; }
 
     /** @return valor da taxa de entrega */
-    public double getTaxaEntrega() { return taxaEntrega; }
+    public double getTaxaEntrega() { return Dinheiro.paraReais(taxaEntregaCentavos); }
+
+    /** @return valor da taxa de entrega, em centavos */
+    public long getTaxaEntregaCentavos() { return taxaEntregaCentavos; }
 
-    /** @return quantidade total de produtos no pedido */
-    public int getQuantidadeProdutos() { return produtos.size(); }
+    /** @return quantidade total de produtos no pedido (soma das quantidades dos itens) */
+    public int getQuantidadeProdutos() { return quantidadeUnidades; }
+
+    /** @return quantidade de itens (linhas) no pedido */
+    public int getQuantidadeItens() { return itens.size(); }
+
+    /**
+     * Define a data de criação do pedido.
+     * Usado apenas na reconstrução do estado a partir do diário de operações.
+     * @param dataPedido data e hora originais do pedido
+     */
+    void definirDataPedido(LocalDateTime dataPedido) {
+        this.dataPedido = dataPedido;
+    }
 
     /**
      * Define observações adicionais para o pedido.
@@ -206,4 +310,53 @@ public class Pedido implements Serializable {
     public void setObservacoes(String observacoes) {
         this.observacoes = observacoes;
     }
+
+    /**
+     * Grava o pedido com a serialização padrão, sem a lista antiga de produtos.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField campos = out.putFields();
+        campos.put("id", id);
+        campos.put("idCliente", idCliente);
+        campos.put("idRestaurante", idRestaurante);
+        campos.put("observacoes", observacoes);
+        campos.put("itens", itens);
+        campos.put("status", status);
+        campos.put("dataPedido", dataPedido);
+        campos.put("total", getTotal());
+        campos.put("taxaEntrega", getTaxaEntrega());
+        out.writeFields();
+    }
+
+    /**
+     * Lê um pedido gravado com a serialização padrão, convertendo os produtos
+     * de pedidos antigos em itens com o preço gravado.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = in.readFields();
+        id = (String) campos.get("id", null);
+        idCliente = (String) campos.get("idCliente", null);
+        idRestaurante = (String) campos.get("idRestaurante", null);
+        observacoes = (String) campos.get("observacoes", "");
+        if (observacoes == null) observacoes = "";
+        status = (StatusPedido) campos.get("status", StatusPedido.Pendente);
+        dataPedido = (LocalDateTime) campos.get("dataPedido", null);
+        taxaEntregaCentavos = Dinheiro.paraCentavos(campos.get("taxaEntrega", 0.0));
+
+        itens = new ArrayList<>();
+        ArrayList<ItemPedido> gravados = (ArrayList<ItemPedido>) campos.get("itens", null);
+        if (gravados != null) {
+            for (ItemPedido item : gravados) adicionarItem(item);
+            return;
+        }
+        ArrayList<Produto> produtos = (ArrayList<Produto>) campos.get("produtos", null);
+        if (produtos == null) return;
+        for (Produto p : produtos) {
+            boolean ativo = p.isAtivo();
+            p.setAtivo(true);
+            adicionarProduto(p);
+            p.setAtivo(ativo);
+        }
+    }
 }
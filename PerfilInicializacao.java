@@ -0,0 +1,109 @@
+package main;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tempos das etapas da inicialização do sistema, do início da JVM até os
+ * dados estarem prontos para uso.
+ *
+ * <p>Cada chamada a {@link #marcar(String)} encerra uma etapa, medida desde a
+ * marca anterior. O tempo entre o início da JVM e a criação do perfil (carga
+ * de classes, {@code main}) aparece como a etapa {@code jvm}. O relatório pode
+ * ser acrescentado a um arquivo CSV para acompanhar regressões entre versões:</p>
+ *
+ * <pre>
+ * data;total_ms;jvm;estruturas;diretório;leitura;índices;diário;persistência;dados iniciais
+ * </pre>
+ */
+public class PerfilInicializacao {
+
+    private long ultimaMarca;
+    private final ArrayList<String> etapas = new ArrayList<>();
+    private final ArrayList<Long> duracoesNs = new ArrayList<>();
+
+    /**
+     * Cria o perfil, registrando como primeira etapa o tempo desde o início da JVM.
+     */
+    public PerfilInicializacao() {
+        this.ultimaMarca = System.nanoTime();
+        long jvmMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        etapas.add("jvm");
+        duracoesNs.add(Math.max(0, jvmMs) * 1_000_000L);
+    }
+
+    /**
+     * Encerra a etapa atual.
+     *
+     * @param etapa nome da etapa concluída.
+     */
+    public synchronized void marcar(String etapa) {
+        long agora = System.nanoTime();
+        etapas.add(etapa);
+        duracoesNs.add(agora - ultimaMarca);
+        ultimaMarca = agora;
+    }
+
+    /**
+     * Retorna o tempo total até a última marca, incluindo a etapa {@code jvm}.
+     *
+     * @return tempo em milissegundos.
+     */
+    public synchronized double getTotalMs() {
+        long total = 0;
+        for (long d : duracoesNs) total += d;
+        return total / 1_000_000.0;
+    }
+
+    /**
+     * Retorna o tempo de cada etapa, na ordem em que foram marcadas.
+     *
+     * @return mapa de etapa para tempo em milissegundos.
+     */
+    public synchronized Map<String, Double> getEtapasMs() {
+        LinkedHashMap<String, Double> mapa = new LinkedHashMap<>();
+        for (int i = 0; i < etapas.size(); i++) mapa.merge(etapas.get(i), duracoesNs.get(i) / 1_000_000.0, Double::sum);
+        return mapa;
+    }
+
+    /**
+     * Monta o relatório legível, uma etapa por linha.
+     *
+     * @return relatório com o tempo de cada etapa e o total.
+     */
+    public String relatorio() {
+        StringBuilder sb = new StringBuilder(256).append("Inicialização:\n");
+        for (Map.Entry<String, Double> e : getEtapasMs().entrySet()) {
+            sb.append(String.format("  %-16s %9.1f ms%n", e.getKey(), e.getValue()));
+        }
+        return sb.append(String.format("  %-16s %9.1f ms", "total", getTotalMs())).toString();
+    }
+
+    /**
+     * Acrescenta uma linha com os tempos ao arquivo CSV informado, criando o
+     * cabeçalho se o arquivo for novo.
+     *
+     * @param caminho caminho do arquivo.
+     */
+    public void registrar(String caminho) {
+        Map<String, Double> etapasMs = getEtapasMs();
+        boolean novo = !new File(caminho).exists();
+        try (PrintWriter out = new PrintWriter(new FileWriter(caminho, true))) {
+            if (novo) out.println("data;total_ms;" + String.join(";", etapasMs.keySet()));
+            StringBuilder sb = new StringBuilder(128).append(LocalDateTime.now()).append(';')
+                    .append(String.format(Locale.ROOT, "%.1f", getTotalMs()));
+            for (double ms : etapasMs.values()) sb.append(';').append(String.format(Locale.ROOT, "%.1f", ms));
+            out.println(sb);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar: " + e.getMessage());
+        }
+    }
+}
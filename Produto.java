@@ -1,5 +1,9 @@
 package main;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 /**
@@ -7,11 +11,26 @@ import java.io.Serializable;
  * 
  * <p>Contém informações como nome, preço, descrição, categoria e estado de disponibilidade.
  * Implementa {@link Serializable} para permitir persistência em arquivos.</p>
+ *
+ * <p>Um produto não muda depois de entrar em um {@link Cardapio}: para alterar
+ * seus dados, crie a nova versão com {@link #alterado} e publique-a com
+ * {@link Gerenciador#alterarProduto}.</p>
  */
 public class Produto implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    /** Campos da serialização padrão; o preço continua gravado em reais. */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("id", String.class),
+            new ObjectStreamField("nome", String.class),
+            new ObjectStreamField("descricao", String.class),
+            new ObjectStreamField("categoria", String.class),
+            new ObjectStreamField("idRestaurante", String.class),
+            new ObjectStreamField("preco", double.class),
+            new ObjectStreamField("ativo", boolean.class)
+    };
+
     /** Identificador único do produto. */
     private String id;
 
@@ -27,8 +46,8 @@ public class Produto implements Serializable {
     /** Identificador do restaurante ao qual o produto pertence. */
     private String idRestaurante;
 
-    /** Preço do produto. */
-    private double preco;
+    /** Preço do produto, em centavos. */
+    private long precoCentavos;
 
     /** Indica se o produto está ativo no cardápio. */
     private boolean ativo;
@@ -47,19 +66,35 @@ public class Produto implements Serializable {
         this.id = id;
         this.nome = nome;
         this.descricao = descricao;
-        this.preco = preco;
+        this.precoCentavos = Dinheiro.paraCentavos(preco);
         this.categoria = categoria;
         this.idRestaurante = idRestaurante;
         this.ativo = true;
     }
 
+    /**
+     * Cria uma cópia do produto, com o mesmo ID e restaurante, e os dados informados.
+     * 
+     * @param nome nome do produto
+     * @param descricao descrição do produto
+     * @param preco preço do produto
+     * @param categoria categoria do produto
+     * @param ativo se o produto está disponível no cardápio
+     * @return novo produto
+     */
+    public Produto alterado(String nome, String descricao, double preco, String categoria, boolean ativo) {
+        Produto p = new Produto(id, nome, descricao, preco, categoria, idRestaurante);
+        p.ativo = ativo;
+        return p;
+    }
+
     /**
      * Valida se o produto contém informações mínimas válidas.
      * 
      * @return true se o produto for válido
      */
     public boolean validar() {
-        return preco > 0 && !nome.isEmpty() && id != null;
+        return precoCentavos > 0 && !nome.isEmpty() && id != null;
     }
 
     /**
@@ -68,24 +103,38 @@ public class Produto implements Serializable {
      * @return string com ID, nome, preço e categoria do produto
      */
     public String toMenuString() {
-        return String.format("[%s] %s - R$ %.2f - %s", id, nome, preco, categoria);
+        return escreverMenu(new StringBuilder(64)).toString();
+    }
+
+    /**
+     * Escreve a representação de {@link #toMenuString()} no buffer informado,
+     * permitindo reutilizar o mesmo buffer ao desenhar listas.
+     * 
+     * @param sb destino do texto
+     * @return o próprio {@code sb}
+     */
+    public StringBuilder escreverMenu(StringBuilder sb) {
+        sb.append('[').append(id).append("] ").append(nome).append(" - ");
+        return Dinheiro.formatar(sb, precoCentavos).append(" - ").append(categoria);
     }
 
     // ====== GETTERS ======
     public String getId() { return id; }
     public String getNome() { return nome; }
     public String getDescricao() { return descricao; }
-    public double getPreco() { return preco; }
+    public double getPreco() { return Dinheiro.paraReais(precoCentavos); }
+    public long getPrecoCentavos() { return precoCentavos; }
     public String getCategoria() { return categoria; }
     public boolean isAtivo() { return ativo; }
     public String getIdRestaurante() { return idRestaurante; }
 
-    // ====== SETTERS ======
-    public void setNome(String nome) { this.nome = nome; }
-    public void setDescricao(String descricao) { this.descricao = descricao; }
-    public void setPreco(double preco) { if (preco > 0) this.preco = preco; }
-    public void setCategoria(String categoria) { this.categoria = categoria; }
-    public void setAtivo(boolean ativo) { this.ativo = ativo; }
+    /**
+     * Define a disponibilidade do produto.
+     * Usado apenas na leitura de dados gravados, antes de o produto entrar em um cardápio.
+     * 
+     * @param ativo se o produto está disponível
+     */
+    void setAtivo(boolean ativo) { this.ativo = ativo; }
 
     /**
      * Retorna uma representação textual completa do produto.
@@ -97,9 +146,38 @@ public class Produto implements Serializable {
         return "Produto{" +
                 "id='" + id + '\'' +
                 ", nome='" + nome + '\'' +
-                ", preco=" + String.format("R$ %.2f", preco) +
+                ", preco=" + Dinheiro.formatar(precoCentavos) +
                 ", categoria='" + categoria + '\'' +
                 ", ativo=" + ativo +
                 '}';
     }
+
+    /**
+     * Grava o produto com a serialização padrão, com o preço em reais.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField campos = out.putFields();
+        campos.put("id", id);
+        campos.put("nome", nome);
+        campos.put("descricao", descricao);
+        campos.put("categoria", categoria);
+        campos.put("idRestaurante", idRestaurante);
+        campos.put("preco", getPreco());
+        campos.put("ativo", ativo);
+        out.writeFields();
+    }
+
+    /**
+     * Lê um produto gravado com a serialização padrão, convertendo o preço para centavos.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = in.readFields();
+        id = (String) campos.get("id", null);
+        nome = (String) campos.get("nome", null);
+        descricao = (String) campos.get("descricao", null);
+        categoria = (String) campos.get("categoria", null);
+        idRestaurante = (String) campos.get("idRestaurante", null);
+        precoCentavos = Dinheiro.paraCentavos(campos.get("preco", 0.0));
+        ativo = campos.get("ativo", true);
+    }
 }
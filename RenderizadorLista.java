@@ -0,0 +1,57 @@
+package main;
+
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.JList;
+import java.awt.Component;
+import java.util.function.BiConsumer;
+
+/**
+ * Desenha as linhas de uma {@link JList} de objetos do domínio, produzindo o
+ * texto de cada linha apenas quando ela é desenhada, em um buffer reutilizado.
+ *
+ * @param <T> tipo dos itens da lista.
+ */
+public class RenderizadorLista<T> extends DefaultListCellRenderer {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient BiConsumer<StringBuilder, T> descrever;
+    private final StringBuilder texto = new StringBuilder(64);
+
+    /**
+     * Cria o renderizador.
+     *
+     * @param descrever escreve no buffer o texto da linha de um item.
+     */
+    public RenderizadorLista(BiConsumer<StringBuilder, T> descrever) {
+        this.descrever = descrever;
+    }
+
+    /**
+     * Configura a lista para desenhar os itens com o texto informado e com
+     * linhas de tamanho fixo, para que a {@code JList} não meça todas as linhas
+     * ao calcular o próprio tamanho.
+     *
+     * @param lista lista a ser configurada.
+     * @param largura largura das linhas, em pixels.
+     * @param descrever escreve no buffer o texto da linha de um item.
+     * @param <T> tipo dos itens da lista.
+     */
+    public static <T> void aplicar(JList<T> lista, int largura, BiConsumer<StringBuilder, T> descrever) {
+        RenderizadorLista<T> renderizador = new RenderizadorLista<>(descrever);
+        lista.setCellRenderer(renderizador);
+        Component exemplo = renderizador.getListCellRendererComponent(lista, null, 0, false, false);
+        lista.setFixedCellHeight(exemplo.getPreferredSize().height);
+        lista.setFixedCellWidth(largura);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Component getListCellRendererComponent(JList<?> lista, Object valor, int indice,
+                                                  boolean selecionado, boolean foco) {
+        texto.setLength(0);
+        if (valor != null) descrever.accept(texto, (T) valor);
+        else texto.append(' ');
+        return super.getListCellRendererComponent(lista, texto.toString(), indice, selecionado, foco);
+    }
+}
@@ -1,6 +1,13 @@
 package main;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Representa um restaurante dentro do sistema de delivery.
@@ -11,9 +18,25 @@ public class Restaurante extends Usuario {
 
     private static final long serialVersionUID = 1L;
 
-    /** Lista de produtos oferecidos no cardápio do restaurante. */
+    /** Campos da serialização padrão; a taxa de entrega continua gravada em reais. */
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("cardapio", ArrayList.class),
+            new ObjectStreamField("pedidosRecebidos", ArrayList.class),
+            new ObjectStreamField("cnpj", String.class),
+            new ObjectStreamField("categoria", String.class),
+            new ObjectStreamField("taxaEntrega", double.class),
+            new ObjectStreamField("aberto", boolean.class)
+    };
+
+    /**
+     * Lista de produtos oferecidos no cardápio do restaurante. Nunca é alterada:
+     * cada edição cria uma nova lista, que é a mesma publicada em {@link #cardapioAtual}.
+     */
     private ArrayList<Produto> cardapio;
 
+    /** Versão atual do cardápio, lida sem trava. */
+    private transient volatile Cardapio cardapioAtual;
+
     /** Lista de pedidos recebidos pelo restaurante. */
     private ArrayList<Pedido> pedidosRecebidos;
 
@@ -23,11 +46,11 @@ public class Restaurante extends Usuario {
     /** Categoria principal do restaurante (ex: Pizzaria, Lanchonete, Japonesa). */
     private String categoria;
 
-    /** Valor da taxa de entrega cobrada pelo restaurante. */
-    private double taxaEntrega;
+    /** Valor da taxa de entrega cobrada pelo restaurante, em centavos. */
+    private volatile long taxaEntregaCentavos;
 
     /** Indica se o restaurante está aberto para pedidos. */
-    private boolean aberto;
+    private volatile boolean aberto;
 
     /**
      * Construtor da classe Restaurante.
@@ -48,8 +71,8 @@ public class Restaurante extends Usuario {
         super(id, nome, email, senha, telefone, endereco);
         this.cnpj = cnpj;
         this.categoria = categoria;
-        this.taxaEntrega = taxaEntrega;
-        this.cardapio = new ArrayList<>();
+        this.taxaEntregaCentavos = Dinheiro.paraCentavos(taxaEntrega);
+        publicarCardapio(new ArrayList<>(), 0);
         this.pedidosRecebidos = new ArrayList<>();
         this.aberto = true;
     }
@@ -59,9 +82,14 @@ public class Restaurante extends Usuario {
      * 
      * @param produto produto a ser adicionado
      */
-    public void adicionarProduto(Produto produto) {
-        if (produto != null && !verificarProdutoExistente(produto.getId())) 
-            cardapio.add(produto);
+    public synchronized void adicionarProduto(Produto produto) {
+        if (produto != null && !cardapioAtual.contem(produto.getId())) {
+            ArrayList<Produto> produtos = new ArrayList<>(cardapio.size() + 1);
+            produtos.addAll(cardapio);
+            produtos.add(produto);
+            publicarCardapio(produtos, cardapioAtual.getVersao() + 1);
+            if (ouvinte != null) ouvinte.produtoAdicionado(this, produto);
+        }
     }
 
     /**
@@ -70,47 +98,134 @@ public class Restaurante extends Usuario {
      * @param idProduto ID do produto a ser removido
      * @return true se o produto foi removido com sucesso
      */
-    public boolean removerProduto(String idProduto) {
-        for (Produto p : cardapio) {
-            if (p.getId().equals(idProduto)) {
-                cardapio.remove(p);
-                return true;
-            }
-        }
-        return false;
+    public synchronized boolean removerProduto(String idProduto) {
+        Produto p = cardapioAtual.obterProduto(idProduto);
+        if (p == null) return false;
+        ArrayList<Produto> produtos = new ArrayList<>(cardapio);
+        produtos.remove(p);
+        publicarCardapio(produtos, cardapioAtual.getVersao() + 1);
+        if (ouvinte != null) ouvinte.produtoRemovido(this, p);
+        return true;
     }
 
     /**
-     * Verifica se um produto já existe no cardápio.
+     * Busca um produto pelo seu ID no cardápio.
      * 
      * @param idProduto ID do produto
-     * @return true se o produto já existir
+     * @return produto encontrado ou null
      */
-    private boolean verificarProdutoExistente(String idProduto) {
-        for (Produto p : cardapio) 
-            if (p.getId().equals(idProduto)) return true;
-        return false;
+    public Produto obterProdutoById(String idProduto) {
+        return cardapioAtual.obterProduto(idProduto);
     }
 
     /**
-     * Busca um produto pelo seu ID no cardápio.
+     * Retorna os produtos da versão atual do cardápio, sem cópia.
      * 
-     * @param idProduto ID do produto
-     * @return produto encontrado ou null
+     * @return lista não modificável de produtos
      */
-    public Produto obterProdutoById(String idProduto) {
-        for (Produto p : cardapio) 
-            if (p.getId().equals(idProduto)) return p;
-        return null;
+    public List<Produto> obterCardapio() { 
+        return cardapioAtual.getProdutos(); 
+    }
+
+    /**
+     * Retorna a versão atual do cardápio. A versão não muda depois de obtida:
+     * edições posteriores publicam uma nova versão.
+     * 
+     * @return versão atual do cardápio
+     */
+    public Cardapio obterVersaoCardapio() {
+        return cardapioAtual;
+    }
+
+    /**
+     * Retorna o número da versão atual do cardápio, que aumenta a cada alteração.
+     * 
+     * @return número da versão
+     */
+    public long getVersaoCardapio() {
+        return cardapioAtual.getVersao();
+    }
+
+    /**
+     * Substitui um produto do cardápio pelo produto informado, com o mesmo ID,
+     * publicando uma nova versão do cardápio. Versões já publicadas continuam
+     * com o produto anterior.
+     * 
+     * @param produto nova versão do produto
+     * @return true se havia um produto com o mesmo ID no cardápio
+     */
+    public synchronized boolean substituirProduto(Produto produto) {
+        if (produto == null) return false;
+        Produto anterior = cardapioAtual.obterProduto(produto.getId());
+        if (anterior == null) return false;
+        ArrayList<Produto> produtos = new ArrayList<>(cardapio);
+        produtos.set(produtos.indexOf(anterior), produto);
+        publicarCardapio(produtos, cardapioAtual.getVersao() + 1);
+        if (ouvinte != null) {
+            ouvinte.produtoRemovido(this, anterior);
+            ouvinte.produtoAdicionado(this, produto);
+        }
+        return true;
     }
 
     /**
-     * Retorna uma cópia da lista de produtos do cardápio.
+     * Substitui todo o cardápio pelos produtos informados.
+     * Usado apenas na reconstrução do estado a partir do diário de operações.
      * 
-     * @return lista de produtos
+     * @param produtos novos produtos do cardápio
+     */
+    synchronized void substituirCardapio(List<Produto> produtos) {
+        ArrayList<Produto> anteriores = cardapio;
+        ArrayList<Produto> novos = new ArrayList<>(produtos.size());
+        HashSet<String> ids = new HashSet<>();
+        for (Produto p : produtos)
+            if (p != null && ids.add(p.getId())) novos.add(p);
+        publicarCardapio(novos, cardapioAtual.getVersao() + 1);
+        if (ouvinte != null) {
+            for (Produto p : anteriores) ouvinte.produtoRemovido(this, p);
+            for (Produto p : novos) ouvinte.produtoAdicionado(this, p);
+        }
+    }
+
+    /**
+     * Torna a lista informada o cardápio atual.
+     */
+    private void publicarCardapio(ArrayList<Produto> produtos, long versao) {
+        cardapio = produtos;
+        cardapioAtual = new Cardapio(versao, produtos);
+    }
+
+    /**
+     * Grava o restaurante com a serialização padrão, com a taxa de entrega em reais.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField campos = out.putFields();
+        synchronized (this) {
+            campos.put("cardapio", cardapio);
+            campos.put("pedidosRecebidos", pedidosRecebidos);
+        }
+        campos.put("cnpj", cnpj);
+        campos.put("categoria", categoria);
+        campos.put("taxaEntrega", getTaxaEntrega());
+        campos.put("aberto", aberto);
+        out.writeFields();
+    }
+
+    /**
+     * Lê um restaurante serializado, reconstruindo a versão atual do cardápio
+     * e convertendo a taxa de entrega para centavos.
      */
-    public ArrayList<Produto> obterCardapio() { 
-        return new ArrayList<>(cardapio); 
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField campos = in.readFields();
+        cardapio = (ArrayList<Produto>) campos.get("cardapio", null);
+        pedidosRecebidos = (ArrayList<Pedido>) campos.get("pedidosRecebidos", null);
+        if (pedidosRecebidos == null) pedidosRecebidos = new ArrayList<>();
+        cnpj = (String) campos.get("cnpj", null);
+        categoria = (String) campos.get("categoria", null);
+        taxaEntregaCentavos = Dinheiro.paraCentavos(campos.get("taxaEntrega", 0.0));
+        aberto = campos.get("aberto", true);
+        publicarCardapio(cardapio != null ? cardapio : new ArrayList<>(), 0);
     }
 
     /**
@@ -118,19 +233,39 @@ public class Restaurante extends Usuario {
      * 
      * @param pedido pedido recebido
      */
-    public void receberPedido(Pedido pedido) {
+    public synchronized void receberPedido(Pedido pedido) {
         if (pedido != null) pedidosRecebidos.add(pedido);
     }
 
+    /**
+     * Substitui a lista de pedidos recebidos.
+     * Usado ao religar os pedidos carregados para que cada um exista uma única vez.
+     * 
+     * @param pedidos nova lista de pedidos
+     */
+    synchronized void substituirPedidos(ArrayList<Pedido> pedidos) {
+        this.pedidosRecebidos = pedidos;
+    }
+
     /**
      * Retorna todos os pedidos recebidos pelo restaurante.
      * 
      * @return lista de pedidos
      */
-    public ArrayList<Pedido> obterPedidosRecebidos() { 
+    public synchronized ArrayList<Pedido> obterPedidosRecebidos() { 
         return new ArrayList<>(pedidosRecebidos); 
     }
 
+    /**
+     * Retorna o pedido recebido na posição informada, na ordem de chegada, sem copiar a lista.
+     * 
+     * @param indice posição do pedido (0 é o mais antigo)
+     * @return pedido na posição
+     */
+    public synchronized Pedido obterPedidoRecebido(int indice) {
+        return pedidosRecebidos.get(indice);
+    }
+
     /**
      * Exibe o menu principal do restaurante no console.
      */
@@ -148,15 +283,25 @@ public class Restaurante extends Usuario {
     // ====== GETTERS ======
     public String getCnpj() { return cnpj; }
     public String getCategoria() { return categoria; }
-    public double getTaxaEntrega() { return taxaEntrega; }
+    public double getTaxaEntrega() { return Dinheiro.paraReais(taxaEntregaCentavos); }
+    public long getTaxaEntregaCentavos() { return taxaEntregaCentavos; }
     public boolean isAberto() { return aberto; }
-    public int getQuantidadeProdutos() { return cardapio.size(); }
-    public int getQuantidadePedidos() { return pedidosRecebidos.size(); }
+    public int getQuantidadeProdutos() { return cardapioAtual.getQuantidade(); }
+    public synchronized int getQuantidadePedidos() { return pedidosRecebidos.size(); }
 
     // ====== SETTERS ======
-    public void setAberto(boolean aberto) { this.aberto = aberto; }
-    public void setTaxaEntrega(double taxaEntrega) { if (taxaEntrega >= 0) this.taxaEntrega = taxaEntrega; }
-    public void setCategoria(String categoria) { this.categoria = categoria; }
+    public void setAberto(boolean aberto) {
+        if (this.aberto == aberto) return;
+        this.aberto = aberto;
+        if (ouvinte != null) ouvinte.funcionamentoAlterado(this);
+    }
+    public void setTaxaEntrega(double taxaEntrega) { setTaxaEntregaCentavos(Dinheiro.paraCentavos(taxaEntrega)); }
+    public void setTaxaEntregaCentavos(long taxaEntregaCentavos) { if (taxaEntregaCentavos >= 0) this.taxaEntregaCentavos = taxaEntregaCentavos; }
+    public void setCategoria(String categoria) {
+        if (Objects.equals(this.categoria, categoria)) return;
+        this.categoria = categoria;
+        if (ouvinte != null) ouvinte.funcionamentoAlterado(this);
+    }
 
     /**
      * Retorna uma representação textual do restaurante.
@@ -171,8 +316,8 @@ public class Restaurante extends Usuario {
                 ", email='" + email + '\'' +
                 ", cnpj='" + cnpj + '\'' +
                 ", categoria='" + categoria + '\'' +
-                ", taxaEntrega=" + taxaEntrega +
-                ", produtos=" + cardapio.size() +
+                ", taxaEntrega=" + Dinheiro.formatar(taxaEntregaCentavos) +
+                ", produtos=" + getQuantidadeProdutos() +
                 ", aberto=" + aberto +
                 '}';
     }
@@ -0,0 +1,36 @@
+package main;
+
+/**
+ * Exceção lançada quando um pedido é recusado porque a fila da cozinha do
+ * restaurante está cheia.
+ *
+ * <p>Estende {@link PedidoInvalidoException} para que quem já trata pedidos
+ * inválidos continue funcionando; quem quiser pode tratá-la à parte e pedir
+ * ao cliente que tente novamente mais tarde.</p>
+ */
+public class RestauranteOcupadoException extends PedidoInvalidoException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** ID do restaurante ocupado. */
+    private final String idRestaurante;
+
+    /**
+     * Cria a exceção para o restaurante informado.
+     *
+     * @param idRestaurante ID do restaurante ocupado.
+     */
+    public RestauranteOcupadoException(String idRestaurante) {
+        super("Restaurante ocupado no momento, tente novamente em alguns minutos");
+        this.idRestaurante = idRestaurante;
+    }
+
+    /**
+     * Retorna o ID do restaurante ocupado.
+     *
+     * @return ID do restaurante.
+     */
+    public String getIdRestaurante() {
+        return idRestaurante;
+    }
+}
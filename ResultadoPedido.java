@@ -0,0 +1,33 @@
+package main;
+
+/**
+ * Resultado da criação de um pedido em lote ({@link Gerenciador#criarPedidos}).
+ */
+public final class ResultadoPedido {
+
+    private final Pedido pedido;
+    private final PedidoInvalidoException erro;
+
+    /**
+     * Cria o resultado de um pedido.
+     *
+     * @param pedido pedido processado.
+     * @param erro motivo da recusa, ou null se o pedido foi criado.
+     */
+    ResultadoPedido(Pedido pedido, PedidoInvalidoException erro) {
+        this.pedido = pedido;
+        this.erro = erro;
+    }
+
+    /** @return pedido processado */
+    public Pedido getPedido() { return pedido; }
+
+    /** @return true se o pedido foi criado */
+    public boolean isSucesso() { return erro == null; }
+
+    /** @return motivo da recusa, ou null se o pedido foi criado */
+    public PedidoInvalidoException getErro() { return erro; }
+
+    /** @return mensagem do motivo da recusa, ou null se o pedido foi criado */
+    public String getMensagem() { return erro != null ? erro.getMessage() : null; }
+}
@@ -0,0 +1,250 @@
+package main;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+
+/**
+ * Serviço de persistência assíncrona do diário de operações.
+ *
+ * <p>As alterações são enfileiradas como registros já codificados e gravadas em
+ * lote por uma thread própria, com uma única sincronização em disco por lote
+ * (group commit). Alterações repetidas na mesma entidade enquanto ela ainda está
+ * na fila são agrupadas: apenas o estado mais recente é gravado, na posição em
+ * que a entidade entrou na fila pela primeira vez.</p>
+ *
+ * <p>Um lote é gravado quando o intervalo configurado termina, quando a fila
+ * atinge o tamanho limite ou quando algum chamador aguarda a gravação
+ * ({@link #flush()} ou {@link Durabilidade#SINCRONA}).</p>
+ */
+public class ServicoPersistencia implements Closeable {
+
+    /**
+     * Garantia de gravação oferecida ao chamador de {@link #enfileirar}.
+     */
+    public enum Durabilidade {
+        /** Retorna imediatamente; a gravação acontece no próximo lote. */
+        ASSINCRONA,
+        /** Aguarda até que o registro esteja gravado em disco. */
+        SINCRONA
+    }
+
+    /** Diário onde os lotes são gravados. */
+    private final DiarioOperacoes diario;
+
+    /** Tempo máximo, em milissegundos, que um registro espera na fila. */
+    private final long intervaloMs;
+
+    /** Quantidade de entidades na fila que dispara a gravação imediata. */
+    private final int limiteLote;
+
+    /** Trava que protege a fila e os contadores. */
+    private final Object trava = new Object();
+
+    /** Registros pendentes, por chave da entidade, na ordem de entrada. */
+    private LinkedHashMap<String, DiarioOperacoes.Registro> pendentes = new LinkedHashMap<>();
+
+    /** Número de sequência do último registro enfileirado. */
+    private long sequenciaEnfileirada;
+
+    /** Número de sequência do último registro gravado em disco. */
+    private long sequenciaGravada;
+
+    /** Quantidade de chamadores aguardando a gravação. */
+    private int aguardando;
+
+    /** Último erro de gravação, repassado aos chamadores que aguardam. */
+    private ArquivoNaoEncontradoException ultimoErro;
+
+    /** Indica se o serviço foi encerrado. */
+    private boolean fechado;
+
+    /** Thread que grava os lotes. */
+    private final Thread gravador;
+
+    /**
+     * Cria e inicia o serviço de persistência.
+     *
+     * @param diario diário onde os registros serão gravados.
+     * @param intervaloMs tempo máximo de espera de um registro na fila.
+     * @param limiteLote quantidade de entidades que dispara a gravação imediata.
+     */
+    public ServicoPersistencia(DiarioOperacoes diario, long intervaloMs, int limiteLote) {
+        this.diario = diario;
+        this.intervaloMs = Math.max(1, intervaloMs);
+        this.limiteLote = Math.max(1, limiteLote);
+        this.gravador = new Thread(this::executar, "persistencia-diario");
+        this.gravador.setDaemon(true);
+        this.gravador.start();
+    }
+
+    /**
+     * Enfileira um registro para gravação.
+     *
+     * @param registro registro codificado.
+     * @param durabilidade se o chamador deve aguardar a gravação em disco.
+     * @throws ArquivoNaoEncontradoException se a gravação aguardada falhar ou o serviço estiver encerrado.
+     */
+    public void enfileirar(DiarioOperacoes.Registro registro, Durabilidade durabilidade)
+            throws ArquivoNaoEncontradoException {
+        long sequencia;
+        synchronized (trava) {
+            if (fechado) throw new ArquivoNaoEncontradoException("Serviço de persistência encerrado");
+            pendentes.put(registro.getChave(), registro);
+            sequencia = ++sequenciaEnfileirada;
+            if (pendentes.size() >= limiteLote) trava.notifyAll();
+        }
+        if (durabilidade == Durabilidade.SINCRONA) aguardar(sequencia);
+    }
+
+    /**
+     * Aguarda até que todos os registros enfileirados até agora estejam gravados em disco.
+     *
+     * @throws ArquivoNaoEncontradoException se a gravação falhar.
+     */
+    public void flush() throws ArquivoNaoEncontradoException {
+        long sequencia;
+        synchronized (trava) {
+            sequencia = sequenciaEnfileirada;
+        }
+        aguardar(sequencia);
+    }
+
+    /**
+     * Executa uma ação com o diário bloqueado para novas gravações e, em seguida,
+     * esvazia o diário. Usado para salvar um snapshot completo: registros
+     * enfileirados durante a ação são gravados depois, no diário já vazio.
+     *
+     * @param acao ação que grava o snapshot.
+     * @throws ArquivoNaoEncontradoException se a gravação pendente, a ação ou a limpeza falharem.
+     */
+    public void checkpoint(AcaoCheckpoint acao) throws ArquivoNaoEncontradoException {
+        flush();
+        synchronized (diario) {
+            acao.executar();
+            diario.truncar();
+        }
+    }
+
+    /**
+     * Ação executada durante um {@link #checkpoint}.
+     */
+    public interface AcaoCheckpoint {
+        void executar() throws ArquivoNaoEncontradoException;
+    }
+
+    /**
+     * Retorna a quantidade de entidades aguardando gravação.
+     *
+     * @return tamanho atual da fila.
+     */
+    public int getQuantidadePendente() {
+        synchronized (trava) {
+            return pendentes.size();
+        }
+    }
+
+    /**
+     * Grava tudo o que estiver pendente, encerra a thread de gravação e fecha o diário.
+     */
+    @Override
+    public void close() {
+        try {
+            flush();
+        } catch (ArquivoNaoEncontradoException e) {
+            System.err.println("Erro ao salvar: " + e.getMessage());
+        }
+        synchronized (trava) {
+            fechado = true;
+            trava.notifyAll();
+        }
+        try {
+            gravador.join();
+            diario.close();
+        } catch (Exception e) {
+            System.err.println("Erro ao encerrar persistência: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Aguarda até que o registro com a sequência informada esteja gravado.
+     *
+     * @param sequencia sequência a aguardar.
+     * @throws ArquivoNaoEncontradoException se a gravação falhar.
+     */
+    private void aguardar(long sequencia) throws ArquivoNaoEncontradoException {
+        synchronized (trava) {
+            aguardando++;
+            trava.notifyAll();
+            try {
+                while (sequenciaGravada < sequencia) {
+                    if (ultimoErro != null) throw ultimoErro;
+                    if (fechado && !gravador.isAlive())
+                        throw new ArquivoNaoEncontradoException("Serviço de persistência encerrado");
+                    trava.wait();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ArquivoNaoEncontradoException("Espera pela gravação interrompida");
+            } finally {
+                aguardando--;
+            }
+        }
+    }
+
+    /**
+     * Laço da thread de gravação: espera o intervalo, o limite do lote ou um
+     * chamador aguardando, e então grava todos os registros pendentes.
+     */
+    private void executar() {
+        while (true) {
+            LinkedHashMap<String, DiarioOperacoes.Registro> lote;
+            long sequencia;
+            synchronized (trava) {
+                try {
+                    while (pendentes.isEmpty() && !fechado) trava.wait();
+                    long prazo = System.currentTimeMillis() + intervaloMs;
+                    long restante;
+                    while (!fechado && aguardando == 0 && pendentes.size() < limiteLote
+                            && (restante = prazo - System.currentTimeMillis()) > 0) {
+                        trava.wait(restante);
+                    }
+                } catch (InterruptedException e) {
+                    fechado = true;
+                }
+                if (pendentes.isEmpty()) {
+                    if (fechado) return;
+                    continue;
+                }
+                lote = pendentes;
+                pendentes = new LinkedHashMap<>();
+                sequencia = sequenciaEnfileirada;
+            }
+
+            try {
+                diario.gravar(new ArrayList<>(lote.values()));
+                synchronized (trava) {
+                    sequenciaGravada = sequencia;
+                    ultimoErro = null;
+                    trava.notifyAll();
+                }
+            } catch (ArquivoNaoEncontradoException e) {
+                System.err.println("Erro ao salvar: " + e.getMessage());
+                synchronized (trava) {
+                    // Devolve à fila o que não foi substituído por um estado mais novo
+                    LinkedHashMap<String, DiarioOperacoes.Registro> novaFila = new LinkedHashMap<>(lote);
+                    novaFila.putAll(pendentes);
+                    pendentes = novaFila;
+                    ultimoErro = e;
+                    trava.notifyAll();
+                    if (fechado) return;
+                }
+                try {
+                    Thread.sleep(intervaloMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,594 @@
+package main;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP com uma API JSON para receber pedidos sem a interface gráfica.
+ *
+ * <p>Usa o servidor embutido do JDK ({@code com.sun.net.httpserver}) e não
+ * carrega nenhuma classe do Swing. Cada requisição roda em uma thread virtual
+ * quando a JVM oferece threads virtuais (Java 21 ou superior); nas versões
+ * anteriores, roda em um conjunto fixo de threads de plataforma.</p>
+ *
+ * <p>Rotas (todas respondem JSON; as autenticadas esperam o cabeçalho
+ * {@code Authorization: Bearer <token>}):</p>
+ * <ul>
+ *   <li>{@code POST /api/login} – corpo {@code {"email", "senha", "tipo"}}, com tipo
+ *       {@code cliente} (padrão) ou {@code restaurante}; retorna o token da sessão.</li>
+ *   <li>{@code POST /api/logout} – encerra a sessão.</li>
+ *   <li>{@code GET /api/restaurantes[?categoria=]} – restaurantes abertos.</li>
+ *   <li>{@code GET /api/restaurantes/{id}/cardapio} – produtos ativos do restaurante.</li>
+ *   <li>{@code GET /api/restaurantes/{id}/fila} – métricas da fila da cozinha do restaurante.</li>
+ *   <li>{@code GET /api/pedidos[?status=&de=&ate=&apos=&limite=]} – uma página dos
+ *       pedidos do usuário da sessão, do mais recente para o mais antigo. Filtra por
+ *       status (nomes separados por vírgula) e por dias ({@code AAAA-MM-DD}, inclusive).
+ *       O cabeçalho {@code X-Proximo-Cursor} da resposta, passado em {@code apos},
+ *       traz a próxima página.</li>
+ *   <li>{@code POST /api/pedidos} – cliente cria um pedido; corpo
+ *       {@code {"idRestaurante", "produtos": [...], "observacoes"}}, em que cada produto é
+ *       o ID ou {@code {"id", "quantidade", "observacao"}}. Responde 503
+ *       se a cozinha do restaurante estiver cheia. Com o cabeçalho
+ *       {@code Idempotency-Key}, um reenvio devolve o pedido original.</li>
+ *   <li>{@code POST /api/pedidos/lote} – cliente cria vários pedidos de uma vez; corpo
+ *       {@code {"pedidos": [...]}}, com um resultado por pedido, na mesma ordem.</li>
+ *   <li>{@code GET /api/pedidos/{id}} – pedido do cliente ou do restaurante da sessão.</li>
+ *   <li>{@code PUT /api/pedidos/{id}/status} – restaurante altera o status; corpo {@code {"status"}}.</li>
+ * </ul>
+ *
+ * <p>Para iniciar o servidor sem a interface gráfica:
+ * {@code java main.ServidorHttp [porta]}.</p>
+ */
+public class ServidorHttp {
+
+    /** Porta usada quando nenhuma é informada. */
+    public static final int PORTA_PADRAO = 8080;
+
+    /** Tamanho máximo aceito para o corpo de uma requisição, em bytes. */
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+
+    /** Quantidade de pedidos por página em {@code GET /api/pedidos} quando nenhuma é informada. */
+    private static final int PAGINA_PADRAO = 50;
+
+    /** Maior quantidade de pedidos aceita por página. */
+    private static final int PAGINA_MAXIMA = 500;
+
+    /** Quantidade de conexões aguardando aceitação no socket. */
+    private static final int FILA_CONEXOES = 1024;
+
+    static {
+        // Sem TCP_NODELAY, cabeçalhos e corpo enviados em escritas separadas esperam
+        // o ACK atrasado do cliente (cerca de 40 ms) em conexões mantidas abertas
+        if (System.getProperty("sun.net.httpserver.nodelay") == null)
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final Gerenciador gerenciador;
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+
+    /**
+     * Cria o servidor, ainda parado.
+     *
+     * @param gerenciador gerenciador que atende as operações.
+     * @param porta porta TCP (0 escolhe uma porta livre).
+     * @throws IOException se a porta não puder ser aberta.
+     */
+    public ServidorHttp(Gerenciador gerenciador, int porta) throws IOException {
+        this.gerenciador = gerenciador;
+        this.servidor = HttpServer.create(new InetSocketAddress(porta), FILA_CONEXOES);
+        this.executor = criarExecutor();
+        servidor.setExecutor(executor);
+        servidor.createContext("/api/", this::atender);
+    }
+
+    /**
+     * Começa a aceitar requisições.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Para de aceitar requisições e aguarda até um segundo pelas que estão em andamento.
+     */
+    public void parar() {
+        servidor.stop(1);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Retorna a porta em que o servidor está escutando.
+     *
+     * @return porta TCP.
+     */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Inicia o sistema apenas com a API HTTP, sem a interface gráfica.
+     *
+     * @param args porta opcional (padrão {@value #PORTA_PADRAO}).
+     */
+    public static void main(String[] args) {
+        int porta = args.length > 0 ? Integer.parseInt(args[0]) : PORTA_PADRAO;
+        PerfilInicializacao perfil = new PerfilInicializacao();
+        Gerenciador g = SistemaHeadless.inicializar(perfil);
+        SistemaHeadless.avaliar(perfil);
+        iniciarServidor(g, porta);
+    }
+
+    /**
+     * Inicia o servidor sobre um gerenciador já carregado e registra o
+     * encerramento de ambos ao finalizar a aplicação.
+     *
+     * @param g gerenciador do sistema.
+     * @param porta porta TCP.
+     */
+    static void iniciarServidor(Gerenciador g, int porta) {
+        try {
+            ServidorHttp servidor = new ServidorHttp(g, porta);
+            // Para o servidor e grava as alterações pendentes ao encerrar a aplicação
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                servidor.parar();
+                g.encerrar();
+            }));
+            servidor.iniciar();
+            System.out.println("Servidor HTTP iniciado na porta " + servidor.getPorta());
+        } catch (IOException e) {
+            System.err.println("Erro ao iniciar servidor HTTP: " + e.getMessage());
+            g.encerrar();
+        }
+    }
+
+    /**
+     * Cria o executor das requisições: uma thread virtual por requisição, se a
+     * JVM oferecer (procurado por reflexão para compilar também no Java 17), ou
+     * um conjunto fixo de threads de plataforma.
+     */
+    private static ExecutorService criarExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int quantidade = Math.max(8, Runtime.getRuntime().availableProcessors() * 4);
+            AtomicInteger contador = new AtomicInteger();
+            return Executors.newFixedThreadPool(quantidade, r -> {
+                Thread t = new Thread(r, "http-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    private void atender(HttpExchange troca) throws IOException {
+        try {
+            String[] partes = troca.getRequestURI().getPath().substring("/api/".length()).split("/");
+            String metodo = troca.getRequestMethod();
+            String recurso = partes[0];
+
+            if (recurso.equals("login") && partes.length == 1) {
+                exigirMetodo(metodo, "POST");
+                login(troca);
+            } else if (recurso.equals("logout") && partes.length == 1) {
+                exigirMetodo(metodo, "POST");
+                gerenciador.encerrarSessao(token(troca));
+                responder(troca, 200, "{\"ok\":true}");
+            } else if (recurso.equals("restaurantes") && partes.length == 1) {
+                exigirMetodo(metodo, "GET");
+                listarRestaurantes(troca);
+            } else if (recurso.equals("restaurantes") && partes.length == 3 && partes[2].equals("cardapio")) {
+                exigirMetodo(metodo, "GET");
+                listarCardapio(troca, partes[1]);
+            } else if (recurso.equals("restaurantes") && partes.length == 3 && partes[2].equals("fila")) {
+                exigirMetodo(metodo, "GET");
+                obterMetricasFila(troca, partes[1]);
+            } else if (recurso.equals("pedidos") && partes.length == 1) {
+                if (metodo.equals("GET")) listarPedidos(troca);
+                else {
+                    exigirMetodo(metodo, "POST");
+                    criarPedido(troca);
+                }
+            } else if (recurso.equals("pedidos") && partes.length == 2 && partes[1].equals("lote")) {
+                exigirMetodo(metodo, "POST");
+                criarLote(troca);
+            } else if (recurso.equals("pedidos") && partes.length == 2) {
+                exigirMetodo(metodo, "GET");
+                obterPedido(troca, partes[1]);
+            } else if (recurso.equals("pedidos") && partes.length == 3 && partes[2].equals("status")) {
+                exigirMetodo(metodo, "PUT");
+                alterarStatus(troca, partes[1]);
+            } else {
+                throw new ErroHttp(404, "Rota não encontrada");
+            }
+        } catch (ErroHttp e) {
+            responderErro(troca, e.status, e.getMessage());
+        } catch (RestauranteOcupadoException e) {
+            troca.getResponseHeaders().set("Retry-After", "60");
+            responderErro(troca, 503, e.getMessage());
+        } catch (UsuarioNaoAutenticadoException e) {
+            responderErro(troca, 401, e.getMessage());
+        } catch (PedidoException | IllegalArgumentException e) {
+            responderErro(troca, 400, e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao atender requisição: " + e);
+            responderErro(troca, 500, "Erro interno");
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void login(HttpExchange troca) throws IOException, PedidoException {
+        Map<String, Object> corpo = lerCorpo(troca);
+        String email = campoTexto(corpo, "email");
+        String senha = campoTexto(corpo, "senha");
+        Object tipo = corpo.get("tipo");
+
+        GerenciadorSessoes.Sessao sessao = "restaurante".equals(tipo)
+                ? gerenciador.entrarComoRestaurante(email, senha)
+                : gerenciador.entrarComoCliente(email, senha);
+
+        Usuario u = sessao.getUsuario();
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"token\":");
+        Json.texto(sb, sessao.getToken()).append(",\"tipo\":");
+        Json.texto(sb, u.getTipoUsuario()).append(",\"id\":");
+        Json.texto(sb, u.getId()).append(",\"nome\":");
+        Json.texto(sb, u.getNome()).append('}');
+        responder(troca, 200, sb.toString());
+    }
+
+    private void listarRestaurantes(HttpExchange troca) throws IOException {
+        String categoria = parametros(troca).get("categoria");
+        List<Restaurante> abertos = categoria != null
+                ? gerenciador.obterRestaurantesAbertos(categoria)
+                : gerenciador.obterRestaurantesAbertos();
+
+        StringBuilder sb = new StringBuilder(64 + abertos.size() * 128).append('[');
+        for (int i = 0; i < abertos.size(); i++) {
+            if (i > 0) sb.append(',');
+            Restaurante r = abertos.get(i);
+            escreverRestaurante(sb, r, gerenciador.isRestauranteOcupado(r.getId()));
+        }
+        responder(troca, 200, sb.append(']').toString());
+    }
+
+    private void listarCardapio(HttpExchange troca, String idRestaurante) throws IOException, ErroHttp {
+        Restaurante r = gerenciador.obterRestauranteById(idRestaurante);
+        if (r == null) throw new ErroHttp(404, "Restaurante não encontrado");
+
+        StringBuilder sb = new StringBuilder(512).append('[');
+        boolean primeiro = true;
+        for (Produto p : r.obterCardapio()) {
+            if (!p.isAtivo()) continue;
+            if (!primeiro) sb.append(',');
+            primeiro = false;
+            escreverProduto(sb, p);
+        }
+        responder(troca, 200, sb.append(']').toString());
+    }
+
+    private void obterMetricasFila(HttpExchange troca, String idRestaurante) throws IOException, ErroHttp {
+        if (gerenciador.obterRestauranteById(idRestaurante) == null)
+            throw new ErroHttp(404, "Restaurante não encontrado");
+        FilaCozinha.Metricas m = gerenciador.obterFilaCozinha(idRestaurante).obterMetricas();
+
+        StringBuilder sb = new StringBuilder(256).append("{\"idRestaurante\":");
+        Json.texto(sb, m.getIdRestaurante())
+                .append(",\"profundidade\":").append(m.getProfundidade())
+                .append(",\"capacidade\":").append(m.getCapacidade() < FilaCozinha.SEM_LIMITE ? String.valueOf(m.getCapacidade()) : "null")
+                .append(",\"ocupado\":").append(m.isOcupada())
+                .append(",\"atrasados\":").append(m.getAtrasados())
+                .append(",\"esperaMaximaMs\":").append(m.getEsperaMaximaMs())
+                .append(",\"aceitos\":").append(m.getAceitos())
+                .append(",\"recusados\":").append(m.getRecusados())
+                .append(",\"profundidadeMaxima\":").append(m.getProfundidadeMaxima())
+                .append(",\"porStatus\":{");
+        Pedido.StatusPedido[] status = Pedido.StatusPedido.values();
+        for (int i = 0; i < status.length; i++) {
+            if (i > 0) sb.append(',');
+            Json.texto(sb, status[i].name()).append(':').append(m.contar(status[i]));
+        }
+        responder(troca, 200, sb.append("}}").toString());
+    }
+
+    private void listarPedidos(HttpExchange troca) throws IOException, PedidoException {
+        Usuario u = gerenciador.obterUsuarioDaSessao(token(troca));
+        Map<String, String> parametros = parametros(troca);
+        ConsultaPedidos consulta = gerenciador.consultarPedidos();
+        if (u instanceof Restaurante) consulta.doRestaurante(u.getId());
+        else consulta.doCliente(u.getId());
+
+        String status = parametros.get("status");
+        if (status != null) {
+            String[] nomes = status.split(",");
+            Pedido.StatusPedido[] outros = new Pedido.StatusPedido[nomes.length - 1];
+            for (int i = 1; i < nomes.length; i++) outros[i - 1] = statusPorNome(nomes[i].trim());
+            consulta.comStatus(statusPorNome(nomes[0].trim()), outros);
+        }
+        consulta.entre(lerDia(parametros.get("de")), lerDia(parametros.get("ate")));
+        int limite = parametros.containsKey("limite") ? Integer.parseInt(parametros.get("limite")) : PAGINA_PADRAO;
+        if (limite < 1 || limite > PAGINA_MAXIMA)
+            throw new ErroHttp(400, "limite deve estar entre 1 e " + PAGINA_MAXIMA);
+
+        ConsultaPedidos.Pagina pagina = consulta.apos(parametros.get("apos")).pagina(limite);
+        if (pagina.temMais()) troca.getResponseHeaders().set("X-Proximo-Cursor", pagina.getProximoCursor());
+        List<Pedido> pedidos = pagina.getPedidos();
+
+        StringBuilder sb = new StringBuilder(64 + pedidos.size() * 256).append('[');
+        for (int i = 0; i < pedidos.size(); i++) {
+            if (i > 0) sb.append(',');
+            escreverPedido(sb, pedidos.get(i));
+        }
+        responder(troca, 200, sb.append(']').toString());
+    }
+
+    private void criarPedido(HttpExchange troca) throws IOException, PedidoException {
+        Usuario u = gerenciador.obterUsuarioDaSessao(token(troca));
+        if (!(u instanceof Cliente)) throw new ErroHttp(403, "Apenas clientes podem fazer pedidos");
+
+        Pedido pedido = montarPedido(u, lerCorpo(troca));
+        Pedido criado = gerenciador.criarPedido(pedido, troca.getRequestHeaders().getFirst("Idempotency-Key"));
+        // Um reenvio com a mesma chave devolve o pedido original com 200
+        responder(troca, criado == pedido ? 201 : 200, escreverPedido(new StringBuilder(256), criado).toString());
+    }
+
+    private void criarLote(HttpExchange troca) throws IOException, PedidoException {
+        Usuario u = gerenciador.obterUsuarioDaSessao(token(troca));
+        if (!(u instanceof Cliente)) throw new ErroHttp(403, "Apenas clientes podem fazer pedidos");
+
+        Object itens = lerCorpo(troca).get("pedidos");
+        if (!(itens instanceof List)) throw new ErroHttp(400, "Campo obrigatório: pedidos");
+        List<?> lista = (List<?>) itens;
+
+        // Pedidos montados vão para o lote; os que falham na montagem já têm seu erro
+        String[] erros = new String[lista.size()];
+        ArrayList<Pedido> lote = new ArrayList<>(lista.size());
+        for (int i = 0; i < lista.size(); i++) {
+            try {
+                if (!(lista.get(i) instanceof Map)) throw new ErroHttp(400, "Pedido deve ser um objeto");
+                @SuppressWarnings("unchecked")
+                Map<String, Object> item = (Map<String, Object>) lista.get(i);
+                lote.add(montarPedido(u, item));
+            } catch (PedidoException e) {
+                erros[i] = e.getMessage();
+            }
+        }
+
+        List<ResultadoPedido> resultados = gerenciador.criarPedidos(lote);
+        StringBuilder sb = new StringBuilder(64 + lista.size() * 256).append('[');
+        int proximo = 0;
+        for (int i = 0; i < lista.size(); i++) {
+            if (i > 0) sb.append(',');
+            String erro = erros[i];
+            Pedido pedido = null;
+            if (erro == null) {
+                ResultadoPedido r = resultados.get(proximo++);
+                if (r.isSucesso()) pedido = r.getPedido();
+                else erro = r.getMensagem();
+            }
+            if (pedido != null) {
+                escreverPedido(sb.append("{\"ok\":true,\"pedido\":"), pedido).append('}');
+            } else {
+                Json.texto(sb.append("{\"ok\":false,\"erro\":"), erro).append('}');
+            }
+        }
+        responder(troca, 200, sb.append(']').toString());
+    }
+
+    /**
+     * Monta um pedido do cliente a partir dos campos idRestaurante, produtos e observacoes.
+     */
+    private Pedido montarPedido(Usuario u, Map<String, Object> corpo) throws PedidoException {
+        Restaurante r = gerenciador.obterRestauranteById(campoTexto(corpo, "idRestaurante"));
+        if (r == null) throw new ErroHttp(404, "Restaurante não encontrado");
+        if (!r.isAberto()) throw new ErroHttp(409, "Restaurante fechado");
+
+        Object produtos = corpo.get("produtos");
+        if (!(produtos instanceof List) || ((List<?>) produtos).isEmpty())
+            throw new PedidoInvalidoException("Informe os produtos do pedido");
+
+        Pedido pedido = new Pedido(gerenciador.gerarIdPedido(), u.getId(), r.getId(), r.getTaxaEntrega());
+        for (Object entrada : (List<?>) produtos) {
+            Object idProduto = entrada;
+            int quantidade = 1;
+            String observacao = null;
+            if (entrada instanceof Map) {
+                Map<?, ?> item = (Map<?, ?>) entrada;
+                idProduto = item.get("id");
+                if (item.get("quantidade") instanceof Double) {
+                    double q = (Double) item.get("quantidade");
+                    if (q != Math.rint(q) || q < 1 || q > 1000)
+                        throw new PedidoInvalidoException("Quantidade inválida: " + item.get("quantidade"));
+                    quantidade = (int) q;
+                }
+                if (item.get("observacao") instanceof String) observacao = (String) item.get("observacao");
+            }
+            Produto p = idProduto instanceof String ? r.obterProdutoById((String) idProduto) : null;
+            if (p == null || !p.isAtivo())
+                throw new PedidoInvalidoException("Produto não disponível: " + idProduto);
+            pedido.adicionarProduto(p, quantidade, observacao);
+        }
+        if (corpo.get("observacoes") instanceof String) pedido.setObservacoes((String) corpo.get("observacoes"));
+        return pedido;
+    }
+
+    private void obterPedido(HttpExchange troca, String id) throws IOException, PedidoException {
+        Usuario u = gerenciador.obterUsuarioDaSessao(token(troca));
+        Pedido p = pedidoDoUsuario(u, id);
+        responder(troca, 200, escreverPedido(new StringBuilder(256), p).toString());
+    }
+
+    private void alterarStatus(HttpExchange troca, String id) throws IOException, PedidoException {
+        Usuario u = gerenciador.obterUsuarioDaSessao(token(troca));
+        if (!(u instanceof Restaurante)) throw new ErroHttp(403, "Apenas restaurantes podem alterar o status");
+        Pedido p = pedidoDoUsuario(u, id);
+
+        Pedido.StatusPedido status = statusPorNome(campoTexto(lerCorpo(troca), "status"));
+        if (!gerenciador.atualizarStatusPedido(p.getId(), status))
+            throw new ErroHttp(409, "Crédito insuficiente para reabrir o pedido");
+        responder(troca, 200, escreverPedido(new StringBuilder(256), p).toString());
+    }
+
+    private static Pedido.StatusPedido statusPorNome(String nome) throws ErroHttp {
+        for (Pedido.StatusPedido s : Pedido.StatusPedido.values()) {
+            if (s.name().equalsIgnoreCase(nome)) return s;
+        }
+        throw new ErroHttp(400, "Status desconhecido: " + nome);
+    }
+
+    private static LocalDate lerDia(String texto) throws ErroHttp {
+        if (texto == null || texto.isEmpty()) return null;
+        try {
+            return LocalDate.parse(texto);
+        } catch (DateTimeParseException e) {
+            throw new ErroHttp(400, "Data inválida (use AAAA-MM-DD): " + texto);
+        }
+    }
+
+    /**
+     * Retorna o pedido se ele pertencer ao cliente ou restaurante informado.
+     */
+    private Pedido pedidoDoUsuario(Usuario u, String id) throws ErroHttp {
+        Pedido p = gerenciador.obterPedidoById(id);
+        if (p == null || !(u.getId().equals(p.getIdCliente()) || u.getId().equals(p.getIdRestaurante())))
+            throw new ErroHttp(404, "Pedido não encontrado");
+        return p;
+    }
+
+    private static void escreverRestaurante(StringBuilder sb, Restaurante r, boolean ocupado) {
+        sb.append("{\"id\":");
+        Json.texto(sb, r.getId()).append(",\"nome\":");
+        Json.texto(sb, r.getNome()).append(",\"categoria\":");
+        Json.texto(sb, r.getCategoria()).append(",\"endereco\":");
+        Json.texto(sb, r.getEndereco()).append(",\"telefone\":");
+        Json.texto(sb, r.getTelefone()).append(",\"ocupado\":").append(ocupado).append(",\"taxaEntrega\":");
+        Dinheiro.formatarDecimal(sb, r.getTaxaEntregaCentavos()).append('}');
+    }
+
+    private static void escreverProduto(StringBuilder sb, Produto p) {
+        sb.append("{\"id\":");
+        Json.texto(sb, p.getId()).append(",\"nome\":");
+        Json.texto(sb, p.getNome()).append(",\"descricao\":");
+        Json.texto(sb, p.getDescricao()).append(",\"categoria\":");
+        Json.texto(sb, p.getCategoria()).append(",\"preco\":");
+        Dinheiro.formatarDecimal(sb, p.getPrecoCentavos()).append('}');
+    }
+
+    private static StringBuilder escreverPedido(StringBuilder sb, Pedido p) {
+        sb.append("{\"id\":");
+        Json.texto(sb, p.getId()).append(",\"idCliente\":");
+        Json.texto(sb, p.getIdCliente()).append(",\"idRestaurante\":");
+        Json.texto(sb, p.getIdRestaurante()).append(",\"status\":");
+        Json.texto(sb, p.getStatus().name()).append(",\"data\":");
+        Json.texto(sb, p.getDataPedido().toString()).append(",\"observacoes\":");
+        Json.texto(sb, p.getObservacoes()).append(",\"taxaEntrega\":");
+        Dinheiro.formatarDecimal(sb, p.getTaxaEntregaCentavos()).append(",\"total\":");
+        Dinheiro.formatarDecimal(sb, p.getTotalCentavos()).append(",\"itens\":[");
+        List<ItemPedido> itens = p.obterItens();
+        for (int i = 0; i < itens.size(); i++) {
+            ItemPedido item = itens.get(i);
+            if (i > 0) sb.append(',');
+            sb.append("{\"id\":");
+            Json.texto(sb, item.getIdProduto()).append(",\"nome\":");
+            Json.texto(sb, item.getNome()).append(",\"preco\":");
+            Dinheiro.formatarDecimal(sb, item.getPrecoCentavos()).append(",\"quantidade\":").append(item.getQuantidade());
+            if (item.getObservacao() != null) {
+                sb.append(",\"observacao\":");
+                Json.texto(sb, item.getObservacao());
+            }
+            sb.append('}');
+        }
+        return sb.append("]}");
+    }
+
+    private static void exigirMetodo(String metodo, String esperado) throws ErroHttp {
+        if (!metodo.equals(esperado)) throw new ErroHttp(405, "Método não permitido: " + metodo);
+    }
+
+    private static String token(HttpExchange troca) {
+        String cabecalho = troca.getRequestHeaders().getFirst("Authorization");
+        if (cabecalho == null || !cabecalho.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return cabecalho.substring(7).trim();
+    }
+
+    private static Map<String, String> parametros(HttpExchange troca) {
+        HashMap<String, String> parametros = new HashMap<>();
+        String consulta = troca.getRequestURI().getRawQuery();
+        if (consulta == null) return parametros;
+        for (String par : consulta.split("&")) {
+            int i = par.indexOf('=');
+            if (i <= 0) continue;
+            parametros.put(URLDecoder.decode(par.substring(0, i), StandardCharsets.UTF_8),
+                    URLDecoder.decode(par.substring(i + 1), StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static Map<String, Object> lerCorpo(HttpExchange troca) throws IOException, ErroHttp {
+        try (InputStream in = troca.getRequestBody()) {
+            byte[] bytes = in.readNBytes(TAMANHO_MAXIMO_CORPO + 1);
+            if (bytes.length > TAMANHO_MAXIMO_CORPO) throw new ErroHttp(413, "Corpo da requisição muito grande");
+            return Json.lerObjeto(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String campoTexto(Map<String, Object> corpo, String campo) throws ErroHttp {
+        Object valor = corpo.get(campo);
+        if (!(valor instanceof String)) throw new ErroHttp(400, "Campo obrigatório: " + campo);
+        return (String) valor;
+    }
+
+    private static void responderErro(HttpExchange troca, int status, String mensagem) throws IOException {
+        StringBuilder sb = new StringBuilder(64).append("{\"erro\":");
+        Json.texto(sb, mensagem).append('}');
+        responder(troca, status, sb.toString());
+    }
+
+    private static void responder(HttpExchange troca, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = troca.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Erro que interrompe o atendimento com um código de status HTTP.
+     */
+    private static final class ErroHttp extends PedidoException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ErroHttp(int status, String mensagem) {
+            super(mensagem);
+            this.status = status;
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package main;
 
 import javax.swing.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Classe principal do sistema de delivery.
  * 
  * <p>É responsável por inicializar o ambiente gráfico (Java Swing), configurar o estilo visual
  * do sistema e iniciar a tela de login. Também instancia o {@link Gerenciador}, que controla 
- * as operações principais do sistema.</p>
+ * as operações principais do sistema, em segundo plano: a tela de login aparece
+ * imediatamente e libera suas ações quando os dados terminam de carregar.</p>
  */
 public class Sistema {
 
@@ -19,6 +21,9 @@ public class Sistema {
      * @param args argumentos de linha de comando (não utilizados).
      */
     public static void main(String[] args) {
+        // Os dados são carregados em segundo plano enquanto a tela de login já é exibida
+        CompletableFuture<Gerenciador> carregamento = carregarDados();
+
         try {
             // Define o visual padrão do sistema operacional
             UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -26,11 +31,32 @@ public class Sistema {
             System.err.println("Erro ao definir Look and Feel");
         }
 
+        // Grava as alterações pendentes ao encerrar a aplicação
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            Gerenciador g = carregamento.getNow(null);
+            if (g != null) g.encerrar();
+        }));
+
         // Inicia a interface gráfica na thread correta do Swing
-        SwingUtilities.invokeLater(() -> {
-            Gerenciador g = new Gerenciador();
-            InitializerSistema.inicializar(g);
-            new TelaLogin(g).setVisible(true);
-        });
+        SwingUtilities.invokeLater(() -> new TelaLogin(carregamento).setVisible(true));
+    }
+
+    /**
+     * Carrega os dados do sistema em uma thread própria, fora da thread de eventos,
+     * com a mesma inicialização do modo sem interface ({@link SistemaHeadless}).
+     *
+     * @return carregamento concluído com o gerenciador pronto para uso.
+     */
+    static CompletableFuture<Gerenciador> carregarDados() {
+        CompletableFuture<Gerenciador> carregamento = new CompletableFuture<>();
+        Thread t = new Thread(() -> {
+            try {
+                carregamento.complete(SistemaHeadless.inicializar());
+            } catch (Throwable e) {
+                carregamento.completeExceptionally(e);
+            }
+        }, "carregamento-dados");
+        t.start();
+        return carregamento;
     }
 }
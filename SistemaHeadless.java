@@ -0,0 +1,105 @@
+package main;
+
+/**
+ * Inicialização do sistema sem interface gráfica.
+ *
+ * <p>Carrega o {@link Gerenciador} (arquivos, diário e persistência) e os dados
+ * da primeira execução ({@link InitializerSistema}) sem carregar nenhuma
+ * classe do Swing ou do AWT, para rodar em contêineres, em testes e no
+ * {@link ServidorHttp}. A interface gráfica ({@link Sistema}) usa a mesma
+ * inicialização em segundo plano.</p>
+ *
+ * <p>O tempo de cada etapa é registrado em um {@link PerfilInicializacao} e o
+ * total é comparado ao orçamento definido na propriedade
+ * {@value #PROPRIEDADE_ORCAMENTO} (em milissegundos; padrão
+ * {@value #ORCAMENTO_PADRAO_MS}). Com a propriedade
+ * {@value #PROPRIEDADE_REGISTRO_PERFIL}, os tempos são acrescentados ao arquivo
+ * CSV informado, para acompanhar regressões.</p>
+ *
+ * <p>Para medir a inicialização e encerrar: {@code java main.SistemaHeadless}.
+ * O código de saída é 1 se o orçamento for ultrapassado. Para iniciar o
+ * servidor HTTP em seguida: {@code java main.SistemaHeadless --servidor [porta]}.</p>
+ */
+public final class SistemaHeadless {
+
+    /** Propriedade do sistema com o tempo máximo de inicialização, em milissegundos. */
+    public static final String PROPRIEDADE_ORCAMENTO = "app.orcamentoInicializacaoMs";
+
+    /** Tempo máximo de inicialização usado quando a propriedade não é informada. */
+    public static final long ORCAMENTO_PADRAO_MS = 2000;
+
+    /** Propriedade do sistema com o arquivo CSV onde os tempos são acrescentados. */
+    public static final String PROPRIEDADE_REGISTRO_PERFIL = "app.registroPerfil";
+
+    private SistemaHeadless() {
+    }
+
+    /**
+     * Carrega os dados do sistema e, na primeira execução, cadastra os dados iniciais.
+     *
+     * @return gerenciador pronto para uso.
+     */
+    public static Gerenciador inicializar() {
+        return inicializar(new PerfilInicializacao());
+    }
+
+    /**
+     * Carrega os dados do sistema registrando o tempo de cada etapa.
+     *
+     * @param perfil perfil onde os tempos são registrados.
+     * @return gerenciador pronto para uso.
+     */
+    public static Gerenciador inicializar(PerfilInicializacao perfil) {
+        Gerenciador g = new Gerenciador(perfil);
+        InitializerSistema.inicializar(g);
+        perfil.marcar("dados iniciais");
+        return g;
+    }
+
+    /**
+     * Retorna o orçamento de inicialização configurado.
+     *
+     * @return tempo máximo em milissegundos.
+     */
+    public static long getOrcamentoMs() {
+        return Long.getLong(PROPRIEDADE_ORCAMENTO, ORCAMENTO_PADRAO_MS);
+    }
+
+    /**
+     * Exibe o perfil, acrescenta-o ao arquivo de registro (se configurado) e
+     * verifica o orçamento.
+     *
+     * @param perfil perfil da inicialização concluída.
+     * @return {@code true} se a inicialização ficou dentro do orçamento.
+     */
+    public static boolean avaliar(PerfilInicializacao perfil) {
+        System.out.println(perfil.relatorio());
+        String registro = System.getProperty(PROPRIEDADE_REGISTRO_PERFIL);
+        if (registro != null) perfil.registrar(registro);
+
+        long orcamento = getOrcamentoMs();
+        if (perfil.getTotalMs() <= orcamento) return true;
+        System.err.printf("Inicialização acima do orçamento: %.1f ms (limite %d ms)%n", perfil.getTotalMs(), orcamento);
+        return false;
+    }
+
+    /**
+     * Inicializa o sistema sem interface gráfica.
+     *
+     * @param args {@code --servidor [porta]} para iniciar o servidor HTTP após a inicialização.
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        PerfilInicializacao perfil = new PerfilInicializacao();
+        Gerenciador g = inicializar(perfil);
+        boolean dentroDoOrcamento = avaliar(perfil);
+
+        if (args.length > 0 && args[0].equals("--servidor")) {
+            int porta = args.length > 1 ? Integer.parseInt(args[1]) : ServidorHttp.PORTA_PADRAO;
+            ServidorHttp.iniciarServidor(g, porta);
+            return;
+        }
+        g.encerrar();
+        System.exit(dentroDoOrcamento ? 0 : 1);
+    }
+}
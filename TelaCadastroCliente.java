@@ -149,19 +149,21 @@ public class TelaCadastroCliente extends JFrame {
 
         Cliente cliente = new Cliente(id, nome, email, senha, telefone, endereco, cpf);
 
-        if (gerenciador.cadastrarCliente(cliente)) {
-            labelStatus.setText("Cliente cadastrado com sucesso!");
-            labelStatus.setForeground(new Color(40, 167, 69));
-
-            Timer timer = new Timer(2000, e -> {
-                this.dispose();
-                telaAnterior.setVisible(true);
-            });
-            timer.setRepeats(false);
-            timer.start();
-        } else {
-            labelStatus.setText("Erro: ID ou Email já existente!");
-            labelStatus.setForeground(new Color(220, 53, 69));
-        }
+        ExecutorTela.executar(this, () -> gerenciador.cadastrarCliente(cliente), cadastrado -> {
+            if (cadastrado) {
+                labelStatus.setText("Cliente cadastrado com sucesso!");
+                labelStatus.setForeground(new Color(40, 167, 69));
+
+                Timer timer = new Timer(2000, e -> {
+                    this.dispose();
+                    telaAnterior.setVisible(true);
+                });
+                timer.setRepeats(false);
+                timer.start();
+            } else {
+                labelStatus.setText("Erro: ID ou Email já existente!");
+                labelStatus.setForeground(new Color(220, 53, 69));
+            }
+        });
     }
 }
@@ -159,26 +159,28 @@ public class TelaCadastroRestaurante extends JFrame {
         }
 
         try {
-            double taxa = Double.parseDouble(taxaStr);
+            long taxa = Dinheiro.converter(taxaStr);
             if (taxa < 0) {
                 exibirMensagem("Taxa de entrega não pode ser negativa!", new Color(220, 53, 69));
                 return;
             }
 
             Restaurante restaurante = new Restaurante(id, nome, email, senha,
-                    telefone, endereco, cnpj, categoria, taxa);
-
-            if (gerenciador.cadastrarRestaurante(restaurante)) {
-                exibirMensagem("Restaurante cadastrado com sucesso!", new Color(40, 167, 69));
-                Timer timer = new Timer(2000, e -> {
-                    dispose();
-                    telaAnterior.setVisible(true);
-                });
-                timer.setRepeats(false);
-                timer.start();
-            } else {
-                exibirMensagem("Erro: ID ou Email já existente!", new Color(220, 53, 69));
-            }
+                    telefone, endereco, cnpj, categoria, Dinheiro.paraReais(taxa));
+
+            ExecutorTela.executar(this, () -> gerenciador.cadastrarRestaurante(restaurante), cadastrado -> {
+                if (cadastrado) {
+                    exibirMensagem("Restaurante cadastrado com sucesso!", new Color(40, 167, 69));
+                    Timer timer = new Timer(2000, e -> {
+                        dispose();
+                        telaAnterior.setVisible(true);
+                    });
+                    timer.setRepeats(false);
+                    timer.start();
+                } else {
+                    exibirMensagem("Erro: ID ou Email já existente!", new Color(220, 53, 69));
+                }
+            });
         } catch (NumberFormatException e) {
             exibirMensagem("Taxa de entrega inválida!", new Color(220, 53, 69));
         }
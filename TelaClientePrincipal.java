@@ -38,7 +38,7 @@ public class TelaClientePrincipal extends JFrame {
         labelBemVindo.setForeground(new Color(40, 167, 69));
         painelPrincipal.add(labelBemVindo);
 
-        labelSaldo = new JLabel(String.format("Saldo: R$ %.2f", cliente.getCredito()));
+        labelSaldo = new JLabel("Saldo: " + Dinheiro.formatar(cliente.getCreditoCentavos()));
         labelSaldo.setFont(new Font("Arial", Font.PLAIN, 14));
         labelSaldo.setAlignmentX(Component.CENTER_ALIGNMENT);
         painelPrincipal.add(labelSaldo);
@@ -74,7 +74,7 @@ public class TelaClientePrincipal extends JFrame {
     }
 
     private void abrirTelaVerPedidos() {
-        new TelaVerPedidosCliente(cliente, this).setVisible(true);
+        new TelaVerPedidosCliente(gerenciador, cliente, this).setVisible(true);
     }
 
     private void abrirTelaAdicionarCredito() {
@@ -104,16 +104,18 @@ public class TelaClientePrincipal extends JFrame {
         botaoAdicionar.setFocusPainted(false);
         botaoAdicionar.addActionListener(e -> {
             try {
-                double valor = Double.parseDouble(campo.getText().trim());
+                long valor = Dinheiro.converter(campo.getText());
                 if (valor > 0) {
-                    cliente.adicionarCredito(valor);
-                    gerenciador.salvarDados();
-                    labelSaldo.setText(String.format("Saldo: R$ %.2f", cliente.getCredito()));
-                    JOptionPane.showMessageDialog(telaCredito,
-                            "Crédito adicionado com sucesso!",
-                            "Sucesso",
-                            JOptionPane.INFORMATION_MESSAGE);
-                    telaCredito.dispose();
+                    ExecutorTela.executar(telaCredito,
+                            () -> gerenciador.adicionarCredito(cliente, Dinheiro.paraReais(valor)),
+                            adicionado -> {
+                                labelSaldo.setText("Saldo: " + Dinheiro.formatar(cliente.getCreditoCentavos()));
+                                JOptionPane.showMessageDialog(telaCredito,
+                                        "Crédito adicionado com sucesso!",
+                                        "Sucesso",
+                                        JOptionPane.INFORMATION_MESSAGE);
+                                telaCredito.dispose();
+                            });
                 } else {
                     JOptionPane.showMessageDialog(telaCredito,
                             "O valor deve ser positivo!",
@@ -134,7 +136,6 @@ public class TelaClientePrincipal extends JFrame {
     }
 
     private void sair() {
-        gerenciador.salvarDados();
         gerenciador.logout();
         new TelaLogin(gerenciador).setVisible(true);
         dispose();
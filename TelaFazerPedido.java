@@ -3,6 +3,9 @@ package main;
 import javax.swing.*;
 import java.awt.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Tela para criar um novo pedido.
@@ -18,10 +21,21 @@ public class TelaFazerPedido extends JFrame {
     private Cliente cliente;
     private JFrame telaPrincipal;
     private Restaurante restauranteSelecionado;
+
+    /** Versão do cardápio exibida na lista de produtos (a seleção se refere a ela). */
+    private Cardapio cardapioExibido;
+    private List<Restaurante> restaurantesExibidos;
     private ArrayList<Produto> produtosSelecionados;
     private JComboBox<String> comboRestaurantes;
     private JList<String> listaProdutos;
     private JLabel labelTotal;
+    private JTextField campoBusca;
+
+    /** Chave de idempotência desta tela: confirmações repetidas não criam um segundo pedido. */
+    private final String chaveIdempotencia = UUID.randomUUID().toString();
+
+    /** Pedido já criado por esta tela, ou null. */
+    private Pedido pedidoCriado;
 
     /**
      * Construtor da tela de fazer pedido.
@@ -45,7 +59,7 @@ public class TelaFazerPedido extends JFrame {
     private void inicializarComponentes() {
         setTitle("Fazer Novo Pedido");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        setSize(700, 600);
+        setSize(700, 660);
         setLocationRelativeTo(null);
         setResizable(false);
 
@@ -54,18 +68,33 @@ public class TelaFazerPedido extends JFrame {
         painelPrincipal.setLayout(new BoxLayout(painelPrincipal, BoxLayout.Y_AXIS));
         painelPrincipal.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
 
+        // Busca de produtos em todos os restaurantes abertos
+        JLabel labelBusca = new JLabel("Buscar produto em todos os restaurantes (Enter):");
+        labelBusca.setFont(new Font("Arial", Font.BOLD, 12));
+        painelPrincipal.add(labelBusca);
+
+        campoBusca = new JTextField();
+        campoBusca.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
+        campoBusca.addActionListener(e -> buscarProdutos());
+        painelPrincipal.add(campoBusca);
+        painelPrincipal.add(Box.createVerticalStrut(15));
+
         // Seleção de restaurante
         JLabel labelRest = new JLabel("Selecione um restaurante:");
         labelRest.setFont(new Font("Arial", Font.BOLD, 12));
         painelPrincipal.add(labelRest);
 
-        ArrayList<Restaurante> restaurantes = gerenciador.obterRestaurantesAbertos();
-        ArrayList<String> nomesRestaurantes = new ArrayList<>();
-        for (Restaurante r : restaurantes) {
-            nomesRestaurantes.add(r.getNome() + " (" + r.getCategoria() + ")");
+        // Visão imutável: os índices do combo continuam válidos mesmo se um restaurante fechar
+        List<Restaurante> restaurantes = gerenciador.obterRestaurantesAbertos();
+        restaurantesExibidos = restaurantes;
+        String[] nomesRestaurantes = new String[restaurantes.size()];
+        for (int i = 0; i < restaurantes.size(); i++) {
+            Restaurante r = restaurantes.get(i);
+            nomesRestaurantes[i] = r.getNome() + " (" + r.getCategoria() + ")"
+                    + (gerenciador.isRestauranteOcupado(r.getId()) ? " - ocupado" : "");
         }
 
-        comboRestaurantes = new JComboBox<>(nomesRestaurantes.toArray(new String[0]));
+        comboRestaurantes = new JComboBox<>(nomesRestaurantes);
         comboRestaurantes.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
         comboRestaurantes.addActionListener(e -> atualizarProdutos());
         painelPrincipal.add(comboRestaurantes);
@@ -148,16 +177,52 @@ public class TelaFazerPedido extends JFrame {
      */
     private void atualizarProdutos() {
         if (comboRestaurantes.getSelectedIndex() >= 0) {
-            ArrayList<Restaurante> restaurantes = gerenciador.obterRestaurantesAbertos();
-            restauranteSelecionado = restaurantes.get(comboRestaurantes.getSelectedIndex());
+            restauranteSelecionado = restaurantesExibidos.get(comboRestaurantes.getSelectedIndex());
+
+            Cardapio cardapio = restauranteSelecionado.obterVersaoCardapio();
+            if (cardapio == cardapioExibido) return;
+            cardapioExibido = cardapio;
 
-            ArrayList<String> nomesProdutos = new ArrayList<>();
-            for (Produto p : restauranteSelecionado.obterCardapio()) {
-                nomesProdutos.add(p.toMenuString());
+            String[] nomesProdutos = new String[cardapio.getQuantidade()];
+            StringBuilder sb = new StringBuilder(64);
+            for (int i = 0; i < nomesProdutos.length; i++) {
+                sb.setLength(0);
+                nomesProdutos[i] = cardapio.getProdutos().get(i).escreverMenu(sb).toString();
             }
 
-            listaProdutos.setListData(nomesProdutos.toArray(new String[0]));
+            listaProdutos.setListData(nomesProdutos);
+        }
+    }
+
+    /**
+     * Busca o texto digitado nos cardápios de todos os restaurantes abertos.
+     * Ao escolher um resultado, seleciona o restaurante e o produto correspondentes.
+     */
+    private void buscarProdutos() {
+        ArrayList<Produto> encontrados = gerenciador.buscarProdutos(campoBusca.getText(), 20);
+        if (encontrados.isEmpty()) {
+            JOptionPane.showMessageDialog(this,
+                    "Nenhum produto encontrado.",
+                    "Busca",
+                    JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+
+        String[] opcoes = new String[encontrados.size()];
+        for (int i = 0; i < encontrados.size(); i++) {
+            Produto p = encontrados.get(i);
+            Restaurante r = gerenciador.obterRestauranteById(p.getIdRestaurante());
+            opcoes[i] = p.toMenuString() + " - " + (r != null ? r.getNome() : p.getIdRestaurante());
         }
+        Object escolha = JOptionPane.showInputDialog(this, "Produtos encontrados:", "Busca",
+                JOptionPane.PLAIN_MESSAGE, null, opcoes, opcoes[0]);
+        if (escolha == null) return;
+
+        Produto produto = encontrados.get(Arrays.asList(opcoes).indexOf(escolha));
+        int indiceRestaurante = restaurantesExibidos.indexOf(gerenciador.obterRestauranteById(produto.getIdRestaurante()));
+        if (indiceRestaurante < 0) return;
+        comboRestaurantes.setSelectedIndex(indiceRestaurante);
+        listaProdutos.setSelectedIndex(cardapioExibido.getProdutos().indexOf(produto));
     }
 
     /**
@@ -166,8 +231,8 @@ public class TelaFazerPedido extends JFrame {
      */
     private void adicionarProdutoCarrinho() {
         int indice = listaProdutos.getSelectedIndex();
-        if (indice >= 0 && restauranteSelecionado != null) {
-            ArrayList<Produto> produtos = restauranteSelecionado.obterCardapio();
+        if (indice >= 0 && cardapioExibido != null) {
+            List<Produto> produtos = cardapioExibido.getProdutos();
             if (indice < produtos.size()) {
                 produtosSelecionados.add(produtos.get(indice));
                 atualizarTotal();
@@ -189,25 +254,36 @@ public class TelaFazerPedido extends JFrame {
      * Considera soma dos preços dos produtos selecionados mais a taxa de entrega.
      */
     private void atualizarTotal() {
-        double total = 0;
+        long total = 0;
         for (Produto p : produtosSelecionados) {
-            total += p.getPreco();
+            total += p.getPrecoCentavos();
         }
         if (restauranteSelecionado != null) {
-            total += restauranteSelecionado.getTaxaEntrega();
+            total += restauranteSelecionado.getTaxaEntregaCentavos();
         }
-        labelTotal.setText(String.format("Total: R$ %.2f (%d produtos)", total, produtosSelecionados.size()));
+        StringBuilder sb = new StringBuilder(48).append("Total: ");
+        Dinheiro.formatar(sb, total).append(" (").append(produtosSelecionados.size()).append(" produtos)");
+        labelTotal.setText(sb.toString());
     }
 
     /**
      * Valida, cria e confirma o pedido.
      * - Gera um ID único simples para o pedido.
      * - Adiciona produtos ao objeto {@link Pedido}.
-     * - Deduz o crédito do cliente e persiste o pedido via {@link Gerenciador}.
+     * - Deduz o crédito do cliente e persiste o pedido via {@link Gerenciador},
+     *   com a chave de idempotência da tela, para que confirmações repetidas
+     *   não criem nem cobrem o pedido duas vezes.
+     * - A criação executa fora da thread de eventos, via {@link ExecutorTela}.
      *
      * Mostra mensagens de erro/sucesso conforme o resultado.
      */
     private void confirmarPedido() {
+        // Clique repetido depois da confirmação: o pedido já existe
+        if (pedidoCriado != null) {
+            dispose();
+            return;
+        }
+
         if (restauranteSelecionado == null) {
             JOptionPane.showMessageDialog(this, "Selecione um restaurante primeiro.", "Erro", JOptionPane.ERROR_MESSAGE);
             return;
@@ -218,30 +294,26 @@ public class TelaFazerPedido extends JFrame {
             return;
         }
 
-        try {
-            String idPedido = "PED" + System.currentTimeMillis();
-            Pedido pedido = new Pedido(idPedido, cliente.getId(), restauranteSelecionado.getId(),
-                    restauranteSelecionado.getTaxaEntrega());
-
-            for (Produto p : produtosSelecionados) {
+        // O pedido é montado com uma cópia da seleção, pois a tela continua ativa durante a gravação
+        Restaurante restaurante = restauranteSelecionado;
+        List<Produto> produtos = new ArrayList<>(produtosSelecionados);
+        ExecutorTela.executar(this, () -> {
+            Pedido pedido = new Pedido(gerenciador.gerarIdPedido(), cliente.getId(), restaurante.getId(),
+                    restaurante.getTaxaEntrega());
+            for (Produto p : produtos) {
                 pedido.adicionarProduto(p);
             }
 
-            if (cliente.deduzirCredito(pedido.getTotal())) {
-                gerenciador.criarPedido(pedido);
-                JOptionPane.showMessageDialog(this,
-                        "Pedido criado com sucesso!\nID: " + idPedido,
-                        "Sucesso",
-                        JOptionPane.INFORMATION_MESSAGE);
-                dispose();
-            } else {
-                JOptionPane.showMessageDialog(this,
-                        "Crédito insuficiente.\nSaldo atual: R$ " + String.format("%.2f", cliente.getCredito()),
-                        "Erro",
-                        JOptionPane.ERROR_MESSAGE);
-            }
-        } catch (PedidoInvalidoException e) {
-            JOptionPane.showMessageDialog(this, e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
-        }
+            // O gerenciador verifica e debita o crédito de uma só vez; se faltar
+            // crédito, a PedidoInvalidoException é exibida pelo ExecutorTela
+            return gerenciador.criarPedido(pedido, chaveIdempotencia);
+        }, criado -> {
+            pedidoCriado = criado;
+            JOptionPane.showMessageDialog(this,
+                    "Pedido criado com sucesso!\nID: " + pedidoCriado.getId(),
+                    "Sucesso",
+                    JOptionPane.INFORMATION_MESSAGE);
+            dispose();
+        });
     }
 }
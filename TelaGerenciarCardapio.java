@@ -2,7 +2,6 @@ package main;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
 
 /** 
  * Tela responsável por gerenciar o cardápio do restaurante.
@@ -13,8 +12,14 @@ public class TelaGerenciarCardapio extends JFrame {
     private Gerenciador gerenciador;
     private Restaurante restaurante;
     private JFrame telaPrincipal;
-    private JList<String> listaProdutos;
+    private JList<Produto> listaProdutos;
+
+    /** Modelo da lista, alterado apenas no trecho que mudou entre as versões do cardápio. */
+    private ModeloLista<Produto> modeloProdutos;
     private JLabel labelTotal;
+
+    /** Versão do cardápio exibida na lista (a seleção se refere a ela). */
+    private Cardapio cardapioExibido;
     
     /** 
      * Construtor da tela de gerenciamento de cardápio.
@@ -53,7 +58,9 @@ public class TelaGerenciarCardapio extends JFrame {
         painelPrincipal.add(Box.createVerticalStrut(15));
         
         /** Lista de produtos do cardápio */
-        listaProdutos = new JList<>();
+        modeloProdutos = new ModeloLista<>();
+        listaProdutos = new JList<>(modeloProdutos);
+        RenderizadorLista.aplicar(listaProdutos, 480, (sb, p) -> p.escreverMenu(sb));
         listaProdutos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane scrollProdutos = new JScrollPane(listaProdutos);
         scrollProdutos.setPreferredSize(new Dimension(500, 250));
@@ -104,18 +111,15 @@ public class TelaGerenciarCardapio extends JFrame {
     }
     
     /** 
-     * Atualiza a lista de produtos exibida na tela.
+     * Atualiza a lista de produtos exibida na tela, se o cardápio mudou desde a última exibição.
      */
     private void atualizarListaProdutos() {
-        ArrayList<Produto> produtos = restaurante.obterCardapio();
-        String[] descricoes = new String[produtos.size()];
-        
-        for (int i = 0; i < produtos.size(); i++) {
-            descricoes[i] = produtos.get(i).toMenuString();
-        }
-        
-        listaProdutos.setListData(descricoes);
-        labelTotal.setText("Total de produtos: " + produtos.size());
+        Cardapio cardapio = restaurante.obterVersaoCardapio();
+        if (cardapioExibido != null && cardapio.getVersao() == cardapioExibido.getVersao()) return;
+        cardapioExibido = cardapio;
+
+        modeloProdutos.substituir(cardapio.getProdutos());
+        labelTotal.setText("Total de produtos: " + cardapio.getQuantidade());
     }
     
     /** 
@@ -161,7 +165,7 @@ public class TelaGerenciarCardapio extends JFrame {
                 String id = campId.getText().trim();
                 String nome = campNome.getText().trim();
                 String desc = campDesc.getText().trim();
-                double preco = Double.parseDouble(campPreco.getText().trim());
+                long preco = Dinheiro.converter(campPreco.getText());
                 String categ = campCateg.getText().trim();
                 
                 if (id.isEmpty() || nome.isEmpty() || categ.isEmpty()) {
@@ -169,12 +173,15 @@ public class TelaGerenciarCardapio extends JFrame {
                     return;
                 }
                 
-                Produto produto = new Produto(id, nome, desc, preco, categ, restaurante.getId());
-                restaurante.adicionarProduto(produto);
-                gerenciador.salvarDados();
-                atualizarListaProdutos();
-                telaAdd.dispose();
-                JOptionPane.showMessageDialog(this, "Produto adicionado!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                Produto produto = new Produto(id, nome, desc, Dinheiro.paraReais(preco), categ, restaurante.getId());
+                ExecutorTela.executar(telaAdd, () -> {
+                    gerenciador.adicionarProdutoCardapio(restaurante, produto);
+                    return produto;
+                }, adicionado -> {
+                    atualizarListaProdutos();
+                    telaAdd.dispose();
+                    JOptionPane.showMessageDialog(this, "Produto adicionado!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
+                });
             } catch (NumberFormatException ex) {
                 JOptionPane.showMessageDialog(telaAdd, "Preço inválido!", "Erro", JOptionPane.ERROR_MESSAGE);
             }
@@ -205,16 +212,15 @@ public class TelaGerenciarCardapio extends JFrame {
      * Remove o produto selecionado na lista, se existir.
      */
     private void removerProduto() {
-        int indice = listaProdutos.getSelectedIndex();
-        if (indice >= 0) {
-            ArrayList<Produto> produtos = restaurante.obterCardapio();
-            if (indice < produtos.size()) {
-                Produto p = produtos.get(indice);
-                restaurante.removerProduto(p.getId());
-                gerenciador.salvarDados();
+        Produto p = listaProdutos.getSelectedValue();
+        if (p != null) {
+            ExecutorTela.executar(this, () -> {
+                gerenciador.removerProdutoCardapio(restaurante, p.getId());
+                return p;
+            }, removido -> {
                 atualizarListaProdutos();
                 JOptionPane.showMessageDialog(this, "Produto removido!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            }
+            });
         } else {
             JOptionPane.showMessageDialog(this, "Selecione um produto!", "Erro", JOptionPane.ERROR_MESSAGE);
         }
@@ -2,6 +2,7 @@ package main;
 
 import javax.swing.*;
 import java.awt.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Tela de Login do sistema iFood.
@@ -9,6 +10,9 @@ import java.awt.*;
  * 
  * <p>Esta tela é responsável por validar credenciais e direcionar o usuário
  * à respectiva interface (Cliente ou Restaurante) após login bem-sucedido.</p>
+ *
+ * <p>Na inicialização, a tela é exibida enquanto os dados ainda estão sendo
+ * carregados; os botões só são liberados quando o carregamento termina.</p>
  */
 public class TelaLogin extends JFrame {
     
@@ -17,6 +21,8 @@ public class TelaLogin extends JFrame {
     private JPasswordField campoSenha;
     private JComboBox<String> comboTipoUsuario;
     private JLabel labelStatus;
+    private JButton botaoEntrar;
+    private JButton botaoCadastro;
     
     /**
      * Construtor da tela de login.
@@ -24,8 +30,43 @@ public class TelaLogin extends JFrame {
      * @param gerenciador Instância do gerenciador principal do sistema.
      */
     public TelaLogin(Gerenciador gerenciador) {
-        this.gerenciador = gerenciador;
+        this(CompletableFuture.completedFuture(gerenciador));
+    }
+
+    /**
+     * Construtor da tela de login enquanto os dados do sistema são carregados.
+     * Entrar e cadastrar ficam desabilitados até o fim do carregamento.
+     *
+     * @param carregamento Carregamento que fornece o gerenciador principal do sistema.
+     */
+    public TelaLogin(CompletableFuture<Gerenciador> carregamento) {
         inicializarComponentes();
+        Gerenciador pronto = carregamento.getNow(null);
+        if (pronto != null) {
+            this.gerenciador = pronto;
+            return;
+        }
+        botaoEntrar.setEnabled(false);
+        botaoCadastro.setEnabled(false);
+        labelStatus.setText("Carregando dados...");
+        carregamento.whenComplete((g, erro) -> SwingUtilities.invokeLater(() -> concluirCarregamento(g, erro)));
+    }
+
+    /**
+     * Libera a tela quando o carregamento dos dados termina.
+     *
+     * @param g Gerenciador carregado, ou nulo em caso de erro.
+     * @param erro Erro do carregamento, ou nulo.
+     */
+    private void concluirCarregamento(Gerenciador g, Throwable erro) {
+        if (erro != null) {
+            labelStatus.setText("Erro ao carregar dados: " + erro.getMessage());
+            return;
+        }
+        this.gerenciador = g;
+        botaoEntrar.setEnabled(true);
+        botaoCadastro.setEnabled(true);
+        labelStatus.setText("");
     }
     
     /**
@@ -84,8 +125,8 @@ public class TelaLogin extends JFrame {
         painelBotoes.setMaximumSize(new Dimension(Integer.MAX_VALUE, 50));
         painelBotoes.setLayout(new BoxLayout(painelBotoes, BoxLayout.X_AXIS));
         
-        JButton botaoEntrar = criarBotao("ENTRAR", new Color(220, 53, 69), e -> autenticar());
-        JButton botaoCadastro = criarBotao("CADASTRAR", new Color(40, 167, 69), e -> abrirTelaCadastro());
+        botaoEntrar = criarBotao("ENTRAR", new Color(220, 53, 69), e -> autenticar());
+        botaoCadastro = criarBotao("CADASTRAR", new Color(40, 167, 69), e -> abrirTelaCadastro());
         
         painelBotoes.add(botaoEntrar);
         painelBotoes.add(Box.createHorizontalStrut(15));
@@ -135,20 +176,23 @@ public class TelaLogin extends JFrame {
             return;
         }
         
-        try {
-            if ("Cliente".equals(tipo)) {
-                Cliente cliente = gerenciador.autenticarCliente(email, senha);
-                labelStatus.setText("Login bem-sucedido!");
-                abrirTelaClientePrincipal(cliente);
-            } else {
-                Restaurante restaurante = gerenciador.autenticarRestaurante(email, senha);
-                labelStatus.setText("Login bem-sucedido!");
-                abrirTelaRestaurantePrincipal(restaurante);
-            }
-        } catch (UsuarioNaoAutenticadoException e) {
-            labelStatus.setText(e.getMessage());
-            campoSenha.setText("");
-        }
+        boolean cliente = "Cliente".equals(tipo);
+        ExecutorTela.executar(this,
+                () -> cliente ? gerenciador.autenticarCliente(email, senha)
+                              : gerenciador.autenticarRestaurante(email, senha),
+                usuario -> {
+                    labelStatus.setText("Login bem-sucedido!");
+                    if (cliente) abrirTelaClientePrincipal((Cliente) usuario);
+                    else abrirTelaRestaurantePrincipal((Restaurante) usuario);
+                },
+                e -> {
+                    if (!(e instanceof UsuarioNaoAutenticadoException)) {
+                        ExecutorTela.exibirErro(this, e);
+                        return;
+                    }
+                    labelStatus.setText(e.getMessage());
+                    campoSenha.setText("");
+                });
     }
     
     /**
@@ -0,0 +1,171 @@
+package main;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tela de relatórios de vendas do restaurante.
+ *
+ * <p>Exibe o total de pedidos, a receita e o ticket médio (geral, do dia e dos
+ * últimos 7 dias), as vendas por hora do dia e os produtos mais vendidos. Os
+ * números são lidos das {@link EstatisticasVendas} mantidas pelo
+ * {@link Gerenciador}, sem percorrer os pedidos, e são atualizados a cada
+ * pedido criado ou com status alterado enquanto a tela está aberta.</p>
+ */
+public class TelaRelatorios extends JFrame {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Quantidade de dias exibidos no relatório diário. */
+    private static final int DIAS_RELATORIO = 7;
+
+    /** Quantidade de produtos exibidos entre os mais vendidos. */
+    private static final int QUANTIDADE_MAIS_VENDIDOS = 5;
+
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Gerenciador do sistema. */
+    private Gerenciador gerenciador;
+
+    /** Restaurante logado. */
+    private Restaurante restaurante;
+
+    /** Área de texto com o relatório. */
+    private JTextArea areaRelatorio;
+
+    /** Assinatura dos eventos de pedidos deste restaurante. */
+    private BarramentoEventos.Assinatura assinatura;
+
+    /**
+     * Construtor da tela de relatórios.
+     *
+     * @param gerenciador instância do gerenciador do sistema
+     * @param restaurante restaurante autenticado
+     */
+    public TelaRelatorios(Gerenciador gerenciador, Restaurante restaurante) {
+        this.gerenciador = gerenciador;
+        this.restaurante = restaurante;
+        inicializarComponentes();
+    }
+
+    /**
+     * Inicializa e configura os componentes gráficos da tela.
+     */
+    private void inicializarComponentes() {
+        setTitle("Relatórios de Vendas");
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setSize(600, 550);
+        setLocationRelativeTo(null);
+        setResizable(false);
+
+        JPanel painelPrincipal = new JPanel();
+        painelPrincipal.setBackground(new Color(240, 240, 240));
+        painelPrincipal.setLayout(new BorderLayout(10, 10));
+        painelPrincipal.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
+
+        JLabel labelTitulo = new JLabel("Vendas de " + restaurante.getNome());
+        labelTitulo.setFont(new Font("Arial", Font.BOLD, 16));
+        painelPrincipal.add(labelTitulo, BorderLayout.NORTH);
+
+        areaRelatorio = new JTextArea();
+        areaRelatorio.setEditable(false);
+        areaRelatorio.setFont(new Font("Courier", Font.PLAIN, 11));
+        painelPrincipal.add(new JScrollPane(areaRelatorio), BorderLayout.CENTER);
+
+        JButton botaoAtualizar = new JButton("ATUALIZAR");
+        botaoAtualizar.setBackground(new Color(0, 123, 255));
+        botaoAtualizar.setForeground(Color.WHITE);
+        botaoAtualizar.setFocusPainted(false);
+        botaoAtualizar.addActionListener(e -> atualizarRelatorio());
+
+        JButton botaoVoltar = new JButton("VOLTAR");
+        botaoVoltar.setBackground(new Color(108, 117, 125));
+        botaoVoltar.setForeground(Color.WHITE);
+        botaoVoltar.setFocusPainted(false);
+        botaoVoltar.addActionListener(e -> this.dispose());
+
+        JPanel painelBotoes = new JPanel(new GridLayout(1, 2, 10, 0));
+        painelBotoes.setBackground(new Color(240, 240, 240));
+        painelBotoes.add(botaoAtualizar);
+        painelBotoes.add(botaoVoltar);
+        painelPrincipal.add(painelBotoes, BorderLayout.SOUTH);
+
+        atualizarRelatorio();
+        setContentPane(painelPrincipal);
+
+        // Atualiza o relatório a cada pedido criado ou com status alterado, inclusive
+        // quando algum evento for descartado
+        assinatura = gerenciador.assinarEventosPedidos(
+                e -> restaurante.getId().equals(e.getIdRestaurante()),
+                e -> SwingUtilities.invokeLater(this::atualizarRelatorio),
+                () -> SwingUtilities.invokeLater(this::atualizarRelatorio));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                assinatura.close();
+            }
+        });
+    }
+
+    /**
+     * Monta o relatório a partir das estatísticas de vendas.
+     */
+    private void atualizarRelatorio() {
+        EstatisticasVendas estatisticas = gerenciador.getEstatisticasVendas();
+        String id = restaurante.getId();
+        LocalDate hoje = LocalDate.now();
+        StringBuilder sb = new StringBuilder(2048);
+
+        sb.append("RESUMO\n");
+        sb.append(String.format("%-14s %8s %14s %14s%n", "", "Pedidos", "Receita", "Ticket médio"));
+        escreverLinha(sb, "Total", estatisticas.obterTotal(id));
+        escreverLinha(sb, "Hoje", estatisticas.obterDia(id, hoje));
+
+        Map<LocalDate, EstatisticasVendas.Agregado> dias =
+                estatisticas.obterDias(id, hoje.minusDays(DIAS_RELATORIO - 1), hoje);
+        long pedidos = 0, receita = 0;
+        for (EstatisticasVendas.Agregado a : dias.values()) {
+            pedidos += a.getPedidos();
+            receita += a.getReceitaCentavos();
+        }
+        sb.append(String.format("%-14s %8d %14s %14s%n", "Últimos " + DIAS_RELATORIO + " dias", pedidos,
+                Dinheiro.formatar(receita), Dinheiro.formatar(pedidos > 0 ? Math.round((double) receita / pedidos) : 0)));
+
+        sb.append("\nPOR DIA\n");
+        for (Map.Entry<LocalDate, EstatisticasVendas.Agregado> e : dias.entrySet()) {
+            escreverLinha(sb, e.getKey().format(FORMATO_DIA), e.getValue());
+        }
+
+        sb.append("\nPOR HORA DO DIA\n");
+        EstatisticasVendas.Agregado[] horas = estatisticas.obterPorHora(id);
+        for (int h = 0; h < horas.length; h++) {
+            if (horas[h].getPedidos() > 0) escreverLinha(sb, String.format("%02dh", h), horas[h]);
+        }
+
+        sb.append("\nMAIS VENDIDOS\n");
+        List<EstatisticasVendas.ProdutoVendido> maisVendidos =
+                estatisticas.obterMaisVendidos(id, QUANTIDADE_MAIS_VENDIDOS);
+        if (maisVendidos.isEmpty()) sb.append("Nenhuma venda registrada.\n");
+        for (EstatisticasVendas.ProdutoVendido p : maisVendidos) {
+            sb.append(String.format("%-24.24s %6d un. %14s%n", p.getNome(), p.getUnidades(),
+                    Dinheiro.formatar(p.getReceitaCentavos())));
+        }
+
+        areaRelatorio.setText(sb.toString());
+        areaRelatorio.setCaretPosition(0);
+    }
+
+    /**
+     * Escreve uma linha do relatório com pedidos, receita e ticket médio.
+     */
+    private static void escreverLinha(StringBuilder sb, String rotulo, EstatisticasVendas.Agregado a) {
+        sb.append(String.format("%-14s %8d %14s %14s%n", rotulo, a.getPedidos(),
+                Dinheiro.formatar(a.getReceitaCentavos()), Dinheiro.formatar(a.getTicketMedioCentavos())));
+    }
+}
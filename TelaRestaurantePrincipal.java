@@ -10,6 +10,7 @@ import java.awt.*;
  * <ul>
  *   <li>Gerenciar cardápio</li>
  *   <li>Visualizar pedidos recebidos</li>
+ *   <li>Consultar relatórios de vendas</li>
  *   <li>Alternar status de funcionamento</li>
  *   <li>Encerrar sessão</li>
  * </ul>
@@ -70,6 +71,9 @@ public class TelaRestaurantePrincipal extends JFrame {
         painelPrincipal.add(criarBotao("VER PEDIDOS RECEBIDOS", new Color(40, 167, 69), e -> abrirTelaVerPedidos()));
         painelPrincipal.add(Box.createVerticalStrut(15));
 
+        painelPrincipal.add(criarBotao("RELATÓRIOS", new Color(23, 162, 184), e -> abrirTelaRelatorios()));
+        painelPrincipal.add(Box.createVerticalStrut(15));
+
         painelPrincipal.add(criarBotao("ABRIR/FECHAR RESTAURANTE", new Color(255, 193, 7), e -> alternarStatusRestaurante()));
         painelPrincipal.add(Box.createVerticalStrut(15));
 
@@ -111,23 +115,33 @@ public class TelaRestaurantePrincipal extends JFrame {
         new TelaVerPedidosRestaurante(gerenciador, restaurante, this).setVisible(true);
     }
 
+    /**
+     * Abre a tela de relatórios de vendas.
+     */
+    private void abrirTelaRelatorios() {
+        new TelaRelatorios(gerenciador, restaurante).setVisible(true);
+    }
+
     /**
      * Alterna o status do restaurante (aberto/fechado)
      * e atualiza a interface.
      */
     private void alternarStatusRestaurante() {
-        restaurante.setAberto(!restaurante.isAberto());
-        gerenciador.salvarDados();
-
-        labelStatus.setText(formatarStatusRestaurante());
-        labelStatus.setForeground(corStatus());
-
-        JOptionPane.showMessageDialog(
-            this,
-            "Status atualizado: " + (restaurante.isAberto() ? "ABERTO" : "FECHADO"),
-            "Sucesso",
-            JOptionPane.INFORMATION_MESSAGE
-        );
+        boolean abrir = !restaurante.isAberto();
+        ExecutorTela.executar(this, () -> {
+            gerenciador.alterarFuncionamento(restaurante, abrir);
+            return abrir;
+        }, aberto -> {
+            labelStatus.setText(formatarStatusRestaurante());
+            labelStatus.setForeground(corStatus());
+
+            JOptionPane.showMessageDialog(
+                this,
+                "Status atualizado: " + (restaurante.isAberto() ? "ABERTO" : "FECHADO"),
+                "Sucesso",
+                JOptionPane.INFORMATION_MESSAGE
+            );
+        });
     }
 
     /**
@@ -152,7 +166,6 @@ public class TelaRestaurantePrincipal extends JFrame {
      * Encerra a sessão atual e retorna à tela de login.
      */
     private void sair() {
-        gerenciador.salvarDados();
         gerenciador.logout();
         new TelaLogin(gerenciador).setVisible(true);
         dispose();
@@ -2,138 +2,308 @@ package main;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 
 /**
  * Tela responsável por exibir o histórico de pedidos de um cliente.
- * 
+ *
  * <p>Permite que o usuário visualize uma lista de pedidos realizados,
  * consulte os detalhes de cada pedido e retorne à tela anterior.</p>
+ *
+ * <p>Os pedidos são exibidos do mais recente para o mais antigo, uma página
+ * por vez, e podem ser filtrados por status e por período. Cada página é
+ * consultada no {@link Gerenciador} a partir do cursor da página anterior
+ * ({@link ConsultaPedidos#pagina(int)}), então abrir a tela ou trocar de
+ * página custa o mesmo para qualquer tamanho de histórico. Enquanto a tela
+ * está aberta, os pedidos novos e as mudanças de status chegam pelos eventos
+ * do {@link Gerenciador} e alteram apenas as linhas afetadas.</p>
  */
 public class TelaVerPedidosCliente extends JFrame {
-    
+
+    /** Quantidade de pedidos por página. */
+    private static final int TAMANHO_PAGINA = 50;
+
+    /** Formato das datas digitadas nos filtros. */
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    /** Opção do filtro de status que aceita todos os status. */
+    private static final String TODOS_STATUS = "Todos";
+
+    /** Gerenciador do sistema, que publica os eventos de pedidos. */
+    private Gerenciador gerenciador;
+
     /** Cliente logado que está visualizando os pedidos. */
     private Cliente cliente;
-    
+
     /** Referência para a tela principal, usada ao retornar. */
     private JFrame telaPrincipal;
-    
+
     /** Lista visual que exibe os pedidos do cliente. */
-    private JList<String> listaPedidos;
-    
+    private JList<Pedido> listaPedidos;
+
+    /** Modelo da lista, com os pedidos da página atual. */
+    private ModeloLista<Pedido> modeloPedidos;
+
+    /** Assinatura dos eventos de pedidos deste cliente. */
+    private BarramentoEventos.Assinatura assinatura;
+
     /** Área de texto que mostra os detalhes do pedido selecionado. */
     private JTextArea areaDetalhes;
-    
+
+    private JComboBox<String> comboStatus;
+    private JTextField campoDe;
+    private JTextField campoAte;
+    private JButton botaoAnteriores;
+    private JButton botaoProximos;
+    private JLabel labelPagina;
+
+    /** Filtros aplicados às páginas. */
+    private Pedido.StatusPedido statusFiltrado;
+    private LocalDate diaInicial;
+    private LocalDate diaFinal;
+
+    /** Cursor da página atual (nulo na primeira). */
+    private String cursorAtual;
+
+    /** Cursor da próxima página, ou nulo se a atual for a última. */
+    private String proximoCursor;
+
+    /** Cursores das páginas anteriores, para voltar. */
+    private final ArrayList<String> cursoresAnteriores = new ArrayList<>();
+
     /**
      * Construtor que inicializa a tela de visualização de pedidos do cliente.
-     * 
+     *
+     * @param gerenciador instância do gerenciador do sistema
      * @param cliente instância do cliente logado
      * @param telaPrincipal referência da tela anterior
      */
-    public TelaVerPedidosCliente(Cliente cliente, JFrame telaPrincipal) {
+    public TelaVerPedidosCliente(Gerenciador gerenciador, Cliente cliente, JFrame telaPrincipal) {
+        this.gerenciador = gerenciador;
         this.cliente = cliente;
         this.telaPrincipal = telaPrincipal;
         inicializarComponentes();
     }
-    
+
     /**
      * Configura e inicializa todos os componentes da interface gráfica.
-     * Define o layout, cores, eventos e popula a lista de pedidos.
+     * Define o layout, cores, eventos e carrega a primeira página de pedidos.
      */
     private void inicializarComponentes() {
         setTitle("Meus Pedidos");
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        setSize(700, 500);
+        setSize(700, 540);
         setLocationRelativeTo(null);
         setResizable(false);
-        
+
         JPanel painelPrincipal = new JPanel();
         painelPrincipal.setBackground(new Color(240, 240, 240));
         painelPrincipal.setLayout(new BorderLayout(10, 10));
         painelPrincipal.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
-        
+
+        // --- Filtros ---
+        String[] opcoesStatus = new String[Pedido.StatusPedido.values().length + 1];
+        opcoesStatus[0] = TODOS_STATUS;
+        for (Pedido.StatusPedido s : Pedido.StatusPedido.values()) opcoesStatus[s.ordinal() + 1] = s.getDescricao();
+        comboStatus = new JComboBox<>(opcoesStatus);
+        campoDe = new JTextField(8);
+        campoAte = new JTextField(8);
+        JButton botaoFiltrar = new JButton("FILTRAR");
+        botaoFiltrar.setFocusPainted(false);
+        botaoFiltrar.addActionListener(e -> aplicarFiltros());
+
+        JPanel painelFiltros = new JPanel(new FlowLayout(FlowLayout.LEFT, 5, 0));
+        painelFiltros.add(new JLabel("Status:"));
+        painelFiltros.add(comboStatus);
+        painelFiltros.add(new JLabel("De (dd/mm/aaaa):"));
+        painelFiltros.add(campoDe);
+        painelFiltros.add(new JLabel("Até:"));
+        painelFiltros.add(campoAte);
+        painelFiltros.add(botaoFiltrar);
+        painelPrincipal.add(painelFiltros, BorderLayout.NORTH);
+
         // --- Painel Esquerdo: Lista de pedidos ---
         JLabel labelPedidos = new JLabel("Seus Pedidos:");
         labelPedidos.setFont(new Font("Arial", Font.BOLD, 12));
-        
-        listaPedidos = new JList<>();
+
+        modeloPedidos = new ModeloLista<>();
+        listaPedidos = new JList<>(modeloPedidos);
+        RenderizadorLista.aplicar(listaPedidos, 230, TelaVerPedidosCliente::descrever);
         listaPedidos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         listaPedidos.addListSelectionListener(e -> exibirDetalhesPedido());
-        
+
         JScrollPane scrollPedidos = new JScrollPane(listaPedidos);
         scrollPedidos.setPreferredSize(new Dimension(200, 400));
-        
+
+        botaoAnteriores = new JButton("<");
+        botaoAnteriores.setFocusPainted(false);
+        botaoAnteriores.addActionListener(e -> paginaAnterior());
+        botaoProximos = new JButton(">");
+        botaoProximos.setFocusPainted(false);
+        botaoProximos.addActionListener(e -> proximaPagina());
+        labelPagina = new JLabel();
+
+        JPanel painelPaginas = new JPanel(new FlowLayout(FlowLayout.CENTER, 5, 0));
+        painelPaginas.add(botaoAnteriores);
+        painelPaginas.add(labelPagina);
+        painelPaginas.add(botaoProximos);
+
         JPanel painelEsquerda = new JPanel();
         painelEsquerda.setLayout(new BoxLayout(painelEsquerda, BoxLayout.Y_AXIS));
         painelEsquerda.add(labelPedidos);
         painelEsquerda.add(scrollPedidos);
-        
+        painelEsquerda.add(painelPaginas);
+
         // --- Painel Direito: Detalhes do pedido ---
         JLabel labelDetalhes = new JLabel("Detalhes do Pedido:");
         labelDetalhes.setFont(new Font("Arial", Font.BOLD, 12));
-        
+
         areaDetalhes = new JTextArea();
         areaDetalhes.setEditable(false);
         areaDetalhes.setFont(new Font("Courier", Font.PLAIN, 11));
-        
+
         JScrollPane scrollDetalhes = new JScrollPane(areaDetalhes);
-        
+
         JPanel painelDireita = new JPanel();
         painelDireita.setLayout(new BoxLayout(painelDireita, BoxLayout.Y_AXIS));
         painelDireita.add(labelDetalhes);
         painelDireita.add(scrollDetalhes);
-        
+
         // --- Divisão da tela ---
         JSplitPane split = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, painelEsquerda, painelDireita);
         split.setDividerLocation(250);
-        
+
         painelPrincipal.add(split, BorderLayout.CENTER);
-        
+
         // --- Botão Voltar ---
         JButton botaoVoltar = new JButton("VOLTAR");
         botaoVoltar.setBackground(new Color(108, 117, 125));
         botaoVoltar.setForeground(Color.WHITE);
         botaoVoltar.setFocusPainted(false);
         botaoVoltar.addActionListener(e -> this.dispose());
-        
+
         painelPrincipal.add(botaoVoltar, BorderLayout.SOUTH);
-        
-        atualizarListaPedidos();
+
         setContentPane(painelPrincipal);
+
+        // Recebe os pedidos novos e as mudanças de status enquanto a tela estiver aberta;
+        // se algum evento for descartado, a página atual é lida de novo
+        assinatura = gerenciador.assinarEventosPedidos(
+                e -> cliente.getId().equals(e.getIdCliente()),
+                e -> SwingUtilities.invokeLater(() -> atualizarPedido(e)),
+                () -> SwingUtilities.invokeLater(() -> carregarPagina(cursorAtual)));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                assinatura.close();
+            }
+        });
+
+        carregarPagina(null);
     }
-    
+
     /**
-     * Atualiza a lista de pedidos exibida na tela com base nos dados do cliente.
-     * 
-     * <p>Obtém os pedidos do cliente e preenche a lista com descrições
-     * contendo o ID e o status de cada pedido.</p>
+     * Lê os filtros digitados e volta para a primeira página.
      */
-    private void atualizarListaPedidos() {
-        ArrayList<Pedido> pedidos = cliente.obterPedidos();
-        String[] descricoes = new String[pedidos.size()];
-        
-        for (int i = 0; i < pedidos.size(); i++) {
-            Pedido p = pedidos.get(i);
-            descricoes[i] = p.getId() + " - " + p.getStatus().getDescricao();
+    private void aplicarFiltros() {
+        try {
+            diaInicial = lerDia(campoDe.getText());
+            diaFinal = lerDia(campoAte.getText());
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Data inválida! Use dd/mm/aaaa.", "Erro", JOptionPane.ERROR_MESSAGE);
+            return;
         }
-        
-        listaPedidos.setListData(descricoes);
+        int indice = comboStatus.getSelectedIndex();
+        statusFiltrado = indice > 0 ? Pedido.StatusPedido.values()[indice - 1] : null;
+        cursoresAnteriores.clear();
+        carregarPagina(null);
+    }
+
+    private static LocalDate lerDia(String texto) {
+        texto = texto.trim();
+        return texto.isEmpty() ? null : LocalDate.parse(texto, FORMATO_DIA);
+    }
+
+    private void proximaPagina() {
+        if (proximoCursor == null) return;
+        cursoresAnteriores.add(cursorAtual);
+        carregarPagina(proximoCursor);
+    }
+
+    private void paginaAnterior() {
+        if (cursoresAnteriores.isEmpty()) return;
+        carregarPagina(cursoresAnteriores.remove(cursoresAnteriores.size() - 1));
     }
-    
+
+    /**
+     * Consulta a página que começa depois do cursor, com os filtros atuais,
+     * fora da thread de eventos, e a exibe na lista.
+     *
+     * @param cursor cursor da página, ou nulo para a primeira
+     */
+    private void carregarPagina(String cursor) {
+        ConsultaPedidos consulta = gerenciador.consultarPedidos()
+                .doCliente(cliente.getId())
+                .entre(diaInicial, diaFinal)
+                .apos(cursor);
+        if (statusFiltrado != null) consulta.comStatus(statusFiltrado);
+
+        ExecutorTela.executar(this, () -> consulta.pagina(TAMANHO_PAGINA), pagina -> {
+            Pedido selecionado = listaPedidos.getSelectedValue();
+            cursorAtual = cursor;
+            proximoCursor = pagina.getProximoCursor();
+            modeloPedidos.substituir(pagina.getPedidos());
+
+            int indice = selecionado != null ? modeloPedidos.indiceDe(selecionado) : -1;
+            if (indice >= 0) listaPedidos.setSelectedIndex(indice);
+            else {
+                listaPedidos.clearSelection();
+                areaDetalhes.setText("");
+            }
+            botaoAnteriores.setEnabled(!cursoresAnteriores.isEmpty());
+            botaoProximos.setEnabled(pagina.temMais());
+            labelPagina.setText("Página " + (cursoresAnteriores.size() + 1));
+        });
+    }
+
+    /**
+     * Atualiza a lista após um evento: redesenha a linha do pedido alterado,
+     * se estiver na página, e relê a página quando o pedido passa a fazer
+     * parte dela (pedido novo na primeira página ou status que entrou ou saiu
+     * do filtro).
+     *
+     * @param evento evento de criação ou de mudança de status
+     */
+    private void atualizarPedido(EventoPedido evento) {
+        Pedido pedido = evento.getPedido();
+        int indice = modeloPedidos.indiceDe(pedido);
+        boolean atendeStatus = statusFiltrado == null || statusFiltrado == pedido.getStatus();
+
+        if (indice >= 0 && atendeStatus) {
+            modeloPedidos.alterado(indice);
+            if (listaPedidos.getSelectedValue() == pedido) exibirDetalhesPedido();
+        } else if (indice >= 0 || (atendeStatus && cursorAtual == null)) {
+            carregarPagina(cursorAtual);
+        }
+    }
+
+    private static void descrever(StringBuilder sb, Pedido p) {
+        sb.append(p.getId()).append(" - ").append(p.getStatus().getDescricao());
+    }
+
     /**
      * Exibe os detalhes completos do pedido selecionado pelo usuário.
-     * 
+     *
      * <p>Ao selecionar um pedido na lista, esta função busca o objeto
      * correspondente e exibe suas informações no painel de detalhes.</p>
      */
     private void exibirDetalhesPedido() {
-        int indice = listaPedidos.getSelectedIndex();
-        if (indice >= 0) {
-            ArrayList<Pedido> pedidos = cliente.obterPedidos();
-            if (indice < pedidos.size()) {
-                Pedido pedido = pedidos.get(indice);
-                areaDetalhes.setText(pedido.obterDetalhes());
-            }
-        }
+        Pedido pedido = listaPedidos.getSelectedValue();
+        if (pedido != null) areaDetalhes.setText(pedido.obterDetalhes());
     }
 }
@@ -2,7 +2,8 @@ package main;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.ArrayList;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * Tela responsável por exibir os pedidos recebidos por um restaurante
@@ -10,6 +11,13 @@ import java.util.ArrayList;
  * 
  * <p>Permite ao usuário selecionar um pedido da lista, visualizar seus detalhes
  * e alterar seu status entre os valores pré-definidos.</p>
+ *
+ * <p>A fila da cozinha mostra os pedidos em andamento, na ordem de prioridade
+ * da {@link FilaCozinha}. O histórico mostra todos os pedidos recebidos, do
+ * mais recente para o mais antigo, lidos diretamente do restaurante à medida
+ * que as linhas aparecem na tela, de modo que abrir a tela custa o mesmo com
+ * poucos ou com milhões de pedidos. Enquanto a tela está aberta, os eventos de
+ * pedidos do {@link Gerenciador} atualizam apenas as linhas afetadas.</p>
  */
 public class TelaVerPedidosRestaurante extends JFrame {
     
@@ -22,14 +30,29 @@ public class TelaVerPedidosRestaurante extends JFrame {
     /** Tela anterior, usada ao retornar. */
     private JFrame telaPrincipal;
     
-    /** Lista visual que exibe os pedidos recebidos. */
-    private JList<String> listaPedidos;
+    /** Lista visual com a fila da cozinha. */
+    private JList<Pedido> listaFila;
+
+    /** Pedidos em andamento, em ordem de prioridade. */
+    private ModeloLista<Pedido> modeloFila;
+
+    /** Lista visual com todos os pedidos recebidos. */
+    private JList<Pedido> listaHistorico;
+
+    /** Pedidos recebidos, do mais recente para o mais antigo, lidos diretamente do restaurante. */
+    private ModeloHistorico<Pedido> modeloHistorico;
+
+    /** Assinatura dos eventos de pedidos deste restaurante. */
+    private BarramentoEventos.Assinatura assinatura;
+
+    /** Resumo da fila da cozinha (pedidos em andamento, capacidade e atrasos). */
+    private JLabel labelFila;
     
     /** Área de texto que exibe os detalhes do pedido selecionado. */
     private JTextArea areaDetalhes;
     
     /** Combo box que permite alterar o status do pedido selecionado. */
-    private JComboBox<String> comboStatus;
+    private JComboBox<Pedido.StatusPedido> comboStatus;
     
     /**
      * Construtor da tela de visualização de pedidos do restaurante.
@@ -61,21 +84,34 @@ public class TelaVerPedidosRestaurante extends JFrame {
         painelPrincipal.setLayout(new BorderLayout(10, 10));
         painelPrincipal.setBorder(BorderFactory.createEmptyBorder(15, 15, 15, 15));
         
-        // --- Painel Esquerdo: Lista de pedidos ---
-        JLabel labelPedidos = new JLabel("Pedidos Recebidos:");
+        // --- Painel Esquerdo: Fila da cozinha e histórico ---
+        JLabel labelPedidos = new JLabel("Fila da Cozinha:");
         labelPedidos.setFont(new Font("Arial", Font.BOLD, 12));
         
-        listaPedidos = new JList<>();
-        listaPedidos.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        listaPedidos.addListSelectionListener(e -> exibirDetalhesPedido());
-        
-        JScrollPane scrollPedidos = new JScrollPane(listaPedidos);
-        scrollPedidos.setPreferredSize(new Dimension(250, 400));
+        modeloFila = new ModeloLista<>();
+        listaFila = criarLista(modeloFila);
+        JScrollPane scrollFila = new JScrollPane(listaFila);
+        scrollFila.setPreferredSize(new Dimension(250, 160));
         
+        labelFila = new JLabel();
+        labelFila.setFont(new Font("Arial", Font.PLAIN, 11));
+
+        JLabel labelHistorico = new JLabel("Pedidos Recebidos:");
+        labelHistorico.setFont(new Font("Arial", Font.BOLD, 12));
+
+        modeloHistorico = new ModeloHistorico<>(restaurante::getQuantidadePedidos, restaurante::obterPedidoRecebido);
+        listaHistorico = criarLista(modeloHistorico);
+        JScrollPane scrollHistorico = new JScrollPane(listaHistorico);
+        scrollHistorico.setPreferredSize(new Dimension(250, 240));
+
         JPanel painelEsquerda = new JPanel();
         painelEsquerda.setLayout(new BoxLayout(painelEsquerda, BoxLayout.Y_AXIS));
         painelEsquerda.add(labelPedidos);
-        painelEsquerda.add(scrollPedidos);
+        painelEsquerda.add(labelFila);
+        painelEsquerda.add(scrollFila);
+        painelEsquerda.add(Box.createVerticalStrut(8));
+        painelEsquerda.add(labelHistorico);
+        painelEsquerda.add(scrollHistorico);
         
         // --- Painel Direito: Detalhes e controles ---
         JLabel labelDetalhes = new JLabel("Detalhes:");
@@ -89,8 +125,7 @@ public class TelaVerPedidosRestaurante extends JFrame {
         JLabel labelStatus = new JLabel("Alterar Status:");
         labelStatus.setFont(new Font("Arial", Font.PLAIN, 11));
         
-        String[] statuses = {"PENDENTE", "CONFIRMADO", "PREPARANDO", "PRONTO", "ENTREGUE", "CANCELADO"};
-        comboStatus = new JComboBox<>(statuses);
+        comboStatus = new JComboBox<>(Pedido.StatusPedido.values());
         comboStatus.setMaximumSize(new Dimension(Integer.MAX_VALUE, 30));
         
         JButton botaoAtualizar = new JButton("ATUALIZAR STATUS");
@@ -129,22 +164,111 @@ public class TelaVerPedidosRestaurante extends JFrame {
         
         atualizarListaPedidos();
         setContentPane(painelPrincipal);
+
+        // Recebe os pedidos novos e as mudanças de status enquanto a tela estiver aberta;
+        // se algum evento for descartado, as listas são recarregadas
+        assinatura = gerenciador.assinarEventosPedidos(
+                e -> restaurante.getId().equals(e.getIdRestaurante()),
+                e -> SwingUtilities.invokeLater(() -> reposicionarPedido(e.getPedido())),
+                () -> SwingUtilities.invokeLater(this::recarregarPedidos));
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                assinatura.close();
+            }
+        });
     }
     
     /**
-     * Atualiza a lista de pedidos exibidos no JList.
-     * Obtém os pedidos do restaurante e exibe ID e status de cada um.
+     * Cria uma lista de pedidos com seleção única; selecionar um pedido em uma
+     * das listas limpa a seleção da outra.
+     */
+    private JList<Pedido> criarLista(ListModel<Pedido> modelo) {
+        JList<Pedido> lista = new JList<>(modelo);
+        RenderizadorLista.aplicar(lista, 230, TelaVerPedidosRestaurante::descrever);
+        lista.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        lista.addListSelectionListener(e -> {
+            if (e.getValueIsAdjusting() || lista.isSelectionEmpty()) return;
+            JList<Pedido> outra = lista == listaFila ? listaHistorico : listaFila;
+            outra.clearSelection();
+            exibirDetalhesPedido();
+        });
+        return lista;
+    }
+
+    /**
+     * Preenche a fila da cozinha, em ordem de prioridade.
      */
     private void atualizarListaPedidos() {
-        ArrayList<Pedido> pedidos = restaurante.obterPedidosRecebidos();
-        String[] descricoes = new String[pedidos.size()];
-        
-        for (int i = 0; i < pedidos.size(); i++) {
-            Pedido p = pedidos.get(i);
-            descricoes[i] = p.getId() + " - " + p.getStatus().getDescricao();
+        modeloFila.substituir(gerenciador.obterFilaCozinha(restaurante.getId()).obterPedidos());
+        atualizarResumoFila();
+    }
+
+    /**
+     * Recarrega a fila e redesenha o histórico com os dados atuais do
+     * gerenciador. Usado quando eventos de pedidos foram descartados.
+     */
+    private void recarregarPedidos() {
+        Pedido selecionado = pedidoSelecionado();
+        atualizarListaPedidos();
+        if (selecionado != null && listaHistorico.getSelectedValue() != selecionado) {
+            listaFila.setSelectedValue(selecionado, true);
         }
-        
-        listaPedidos.setListData(descricoes);
+        modeloHistorico.sincronizar();
+        listaHistorico.repaint();
+        if (selecionado != null) exibirDetalhesPedido();
+    }
+
+    /**
+     * Atualiza as listas após a criação ou a mudança de status de um pedido, sem
+     * reconstruí-las: o pedido é movido para a sua posição na fila (ou retirado
+     * dela, se finalizado), os pedidos novos entram no topo do histórico e a
+     * linha do histórico é redesenhada se estiver visível.
+     *
+     * @param pedido pedido criado ou com status alterado
+     */
+    private void reposicionarPedido(Pedido pedido) {
+        Pedido selecionado = pedidoSelecionado();
+        boolean selecionadoNaFila = selecionado == pedido && listaFila.getSelectedValue() == pedido;
+
+        int anterior = modeloFila.indiceDe(pedido);
+        if (anterior >= 0) modeloFila.remover(anterior);
+        if (!FilaCozinha.finalizado(pedido.getStatus())) {
+            int posicao = 0;
+            while (posicao < modeloFila.getSize()
+                    && FilaCozinha.ORDEM_PRIORIDADE.compare(modeloFila.getElementAt(posicao), pedido) <= 0) posicao++;
+            modeloFila.inserir(posicao, pedido);
+            if (selecionadoNaFila) listaFila.setSelectedIndex(posicao);
+        }
+
+        modeloHistorico.sincronizar();
+        modeloHistorico.alterado(pedido, listaHistorico.getFirstVisibleIndex(), listaHistorico.getLastVisibleIndex());
+
+        if (selecionado == pedido) exibirDetalhesPedido();
+        atualizarResumoFila();
+    }
+
+    private static void descrever(StringBuilder sb, Pedido p) {
+        sb.append(p.getId()).append(" - ").append(p.getStatus().getDescricao());
+    }
+
+    /**
+     * Retorna o pedido selecionado em qualquer das listas.
+     */
+    private Pedido pedidoSelecionado() {
+        Pedido p = listaFila.getSelectedValue();
+        return p != null ? p : listaHistorico.getSelectedValue();
+    }
+
+    /**
+     * Atualiza o resumo da fila da cozinha exibido acima da lista.
+     */
+    private void atualizarResumoFila() {
+        FilaCozinha.Metricas m = gerenciador.obterFilaCozinha(restaurante.getId()).obterMetricas();
+        labelFila.setText("Na fila: " + m.getProfundidade()
+                + (m.getCapacidade() < FilaCozinha.SEM_LIMITE ? "/" + m.getCapacidade() : "")
+                + (m.getAtrasados() > 0 ? " (" + m.getAtrasados() + " atrasados)" : "")
+                + (m.isOcupada() ? " - OCUPADO" : ""));
     }
     
     /**
@@ -152,14 +276,10 @@ public class TelaVerPedidosRestaurante extends JFrame {
      * e atualiza o combo box com o status atual.
      */
     private void exibirDetalhesPedido() {
-        int indice = listaPedidos.getSelectedIndex();
-        if (indice >= 0) {
-            ArrayList<Pedido> pedidos = restaurante.obterPedidosRecebidos();
-            if (indice < pedidos.size()) {
-                Pedido pedido = pedidos.get(indice);
-                areaDetalhes.setText(pedido.obterDetalhes());
-                comboStatus.setSelectedItem(pedido.getStatus().toString());
-            }
+        Pedido pedido = pedidoSelecionado();
+        if (pedido != null) {
+            areaDetalhes.setText(pedido.obterDetalhes());
+            comboStatus.setSelectedItem(pedido.getStatus());
         }
     }
     
@@ -168,26 +288,23 @@ public class TelaVerPedidosRestaurante extends JFrame {
      * Notifica o usuário em caso de sucesso ou erro.
      */
     private void atualizarStatusPedido() {
-        int indice = listaPedidos.getSelectedIndex();
-        if (indice < 0) {
+        Pedido pedido = pedidoSelecionado();
+        if (pedido == null) {
             JOptionPane.showMessageDialog(this, "Selecione um pedido!", "Erro", JOptionPane.ERROR_MESSAGE);
             return;
         }
         
-        ArrayList<Pedido> pedidos = restaurante.obterPedidosRecebidos();
-        if (indice < pedidos.size()) {
-            Pedido pedido = pedidos.get(indice);
-            String statusSelecionado = (String) comboStatus.getSelectedItem();
-            
-            try {
-                Pedido.StatusPedido novoStatus = Pedido.StatusPedido.valueOf(statusSelecionado);
-                gerenciador.atualizarStatusPedido(pedido.getId(), novoStatus);
-                atualizarListaPedidos();
-                exibirDetalhesPedido();
+        Pedido.StatusPedido novoStatus = (Pedido.StatusPedido) comboStatus.getSelectedItem();
+        ExecutorTela.executar(this, () -> gerenciador.atualizarStatusPedido(pedido.getId(), novoStatus), alterado -> {
+            // O pedido pode ter mudado de posição na fila; o evento da alteração repete isto sem efeito
+            reposicionarPedido(pedido);
+            exibirDetalhesPedido();
+            if (alterado) {
                 JOptionPane.showMessageDialog(this, "Status atualizado!", "Sucesso", JOptionPane.INFORMATION_MESSAGE);
-            } catch (IllegalArgumentException e) {
-                JOptionPane.showMessageDialog(this, "Status inválido!", "Erro", JOptionPane.ERROR_MESSAGE);
+            } else {
+                JOptionPane.showMessageDialog(this, "Não foi possível alterar o status: crédito insuficiente do cliente.",
+                        "Erro", JOptionPane.ERROR_MESSAGE);
             }
-        }
+        });
     }
 }
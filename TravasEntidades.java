@@ -0,0 +1,89 @@
+package main;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Travas usadas pelo {@link Gerenciador} para permitir operações concorrentes.
+ *
+ * <p>Cada entidade é protegida por uma entre um número fixo de travas,
+ * escolhida pelo hash do seu ID (travas listradas). Operações que alteram
+ * várias entidades adquirem as travas sempre na mesma ordem, o que evita
+ * impasses; operações em entidades diferentes raramente disputam a mesma
+ * trava.</p>
+ *
+ * <p>Além disso, toda operação mantém a trava de leitura do estado enquanto
+ * altera as entidades. O snapshot completo adquire a trava de escrita e,
+ * com isso, grava um corte consistente sem nenhuma operação pela metade.</p>
+ */
+public class TravasEntidades {
+
+    /** Travas listradas por hash do ID da entidade. */
+    private final ReentrantLock[] listras;
+
+    /** Trava compartilhada pelas operações e exclusiva para o snapshot. */
+    private final ReentrantReadWriteLock estado = new ReentrantReadWriteLock();
+
+    /**
+     * Cria as travas.
+     *
+     * @param quantidade quantidade de listras (arredondada para potência de 2).
+     */
+    public TravasEntidades(int quantidade) {
+        int tamanho = Integer.highestOneBit(Math.max(1, quantidade - 1) << 1);
+        listras = new ReentrantLock[tamanho];
+        for (int i = 0; i < tamanho; i++) listras[i] = new ReentrantLock();
+    }
+
+    /**
+     * Adquire a trava de leitura do estado e as travas das entidades informadas,
+     * em ordem crescente de listra.
+     *
+     * @param ids IDs das entidades alteradas pela operação (nulos são ignorados).
+     * @return trava a ser liberada ao final da operação.
+     */
+    public Trava travar(String... ids) {
+        int[] indices = new int[ids.length];
+        int n = 0;
+        for (String id : ids) if (id != null) indices[n++] = listra(id);
+        Arrays.sort(indices, 0, n);
+
+        ReentrantLock[] adquiridas = new ReentrantLock[n];
+        int m = 0;
+        estado.readLock().lock();
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && indices[i] == indices[i - 1]) continue;
+            adquiridas[m] = listras[indices[i]];
+            adquiridas[m++].lock();
+        }
+        final int quantidade = m;
+        return () -> {
+            for (int i = quantidade - 1; i >= 0; i--) adquiridas[i].unlock();
+            estado.readLock().unlock();
+        };
+    }
+
+    /**
+     * Adquire a trava exclusiva do estado, aguardando o término das operações em andamento.
+     *
+     * @return trava a ser liberada ao final do snapshot.
+     */
+    public Trava travarTudo() {
+        estado.writeLock().lock();
+        return () -> estado.writeLock().unlock();
+    }
+
+    private int listra(String id) {
+        int h = id.hashCode();
+        return (h ^ (h >>> 16)) & (listras.length - 1);
+    }
+
+    /**
+     * Travas adquiridas por uma operação, liberadas em um bloco {@code finally}.
+     */
+    public interface Trava {
+        /** Libera as travas, na ordem inversa da aquisição. */
+        void liberar();
+    }
+}
@@ -1,6 +1,7 @@
 package main;
 
 import java.io.Serializable;
+import java.util.Locale;
 
 /**
  * Classe abstrata que representa um usuário genérico do sistema.
@@ -31,6 +32,9 @@ public abstract class Usuario implements Serializable {
     /** Endereço do usuário */
     protected String endereco;
     
+    /** Ouvinte notificado sobre alterações em atributos indexados (não persistido) */
+    protected transient OuvinteEntidades ouvinte;
+    
     /**
      * Construtor para criar um usuário genérico.
      * 
@@ -96,7 +100,9 @@ public abstract class Usuario implements Serializable {
     }
     
     public void setEmail(String email) {
+        String anterior = this.email;
         this.email = email;
+        if (ouvinte != null) ouvinte.emailAlterado(this, anterior);
     }
     
     public void setSenha(String senha) {
@@ -111,15 +117,37 @@ public abstract class Usuario implements Serializable {
         this.endereco = endereco;
     }
     
+    /**
+     * Define o ouvinte notificado quando atributos indexados forem alterados.
+     * 
+     * @param ouvinte Ouvinte a ser notificado (ou null para nenhum)
+     */
+    void definirOuvinte(OuvinteEntidades ouvinte) {
+        this.ouvinte = ouvinte;
+    }
+    
+    /**
+     * Normaliza um email para comparação: remove espaços nas pontas
+     * e converte para minúsculas.
+     * 
+     * @param email Email a ser normalizado
+     * @return Email normalizado, ou null se o email for null
+     */
+    public static String normalizarEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+    
     /**
      * Valida as credenciais fornecidas para autenticação.
+     * O email é comparado sem diferenciar maiúsculas de minúsculas.
      * 
      * @param email Email fornecido
      * @param senha Senha fornecida
      * @return true se email e senha conferem com os do usuário, false caso contrário
      */
     public boolean validarCredenciais(String email, String senha) {
-        return this.email.equals(email) && this.senha.equals(senha);
+        return this.email != null && normalizarEmail(this.email).equals(normalizarEmail(email))
+                && this.senha.equals(senha);
     }
     
     /**
@@ -0,0 +1,148 @@
+package main;
+
+import java.util.*;
+
+/**
+ * Visão mantida dos restaurantes abertos, agrupados também por categoria.
+ *
+ * <p>As listas expostas são imutáveis e só são substituídas quando um restaurante
+ * abre, fecha ou muda de categoria. Assim, a leitura não copia nem filtra nada:
+ * devolve sempre a mesma instância até a próxima alteração, e pode ser percorrida
+ * por índice ({@code get(i)}) sem alocar iteradores.</p>
+ *
+ * <p>A ordem dos restaurantes é a ordem de cadastro.</p>
+ */
+public class VisaoRestaurantesAbertos {
+
+    /** Posição de cada restaurante na ordem de cadastro. */
+    private final HashMap<Restaurante, Integer> ordem = new HashMap<>();
+
+    /** Categoria sob a qual cada restaurante aberto está listado. */
+    private final HashMap<Restaurante, String> listados = new HashMap<>();
+
+    /** Restaurantes abertos, na ordem de cadastro. */
+    private volatile List<Restaurante> abertos = Collections.emptyList();
+
+    /** Restaurantes abertos por categoria. */
+    private volatile Map<String, List<Restaurante>> porCategoria = Collections.emptyMap();
+
+    /** Comparador pela ordem de cadastro. */
+    private final Comparator<Restaurante> porOrdem = Comparator.comparingInt(ordem::get);
+
+    /**
+     * Inclui um restaurante recém-cadastrado na visão.
+     *
+     * @param r restaurante cadastrado.
+     */
+    public synchronized void adicionar(Restaurante r) {
+        if (ordem.containsKey(r)) return;
+        ordem.put(r, ordem.size());
+        atualizar(r);
+    }
+
+    /**
+     * Atualiza a visão depois que um restaurante abriu, fechou ou mudou de categoria.
+     * Apenas as listas afetadas são recriadas.
+     *
+     * @param r restaurante alterado.
+     */
+    public synchronized void atualizar(Restaurante r) {
+        if (!ordem.containsKey(r)) return;
+
+        String categoriaAnterior = listados.get(r);
+        boolean estavaAberto = listados.containsKey(r);
+        String categoria = r.getCategoria();
+        if (estavaAberto == r.isAberto() && Objects.equals(categoriaAnterior, categoria)) return;
+
+        List<Restaurante> novosAbertos = abertos;
+        HashMap<String, List<Restaurante>> novoPorCategoria = new HashMap<>(porCategoria);
+
+        if (estavaAberto) {
+            listados.remove(r);
+            novosAbertos = sem(novosAbertos, r);
+            List<Restaurante> grupo = sem(novoPorCategoria.get(chave(categoriaAnterior)), r);
+            if (grupo.isEmpty()) novoPorCategoria.remove(chave(categoriaAnterior));
+            else novoPorCategoria.put(chave(categoriaAnterior), grupo);
+        }
+        if (r.isAberto()) {
+            listados.put(r, categoria);
+            novosAbertos = com(novosAbertos, r);
+            novoPorCategoria.put(chave(categoria), com(novoPorCategoria.get(chave(categoria)), r));
+        }
+
+        abertos = novosAbertos;
+        porCategoria = Collections.unmodifiableMap(novoPorCategoria);
+    }
+
+    /**
+     * Recria a visão a partir da lista completa de restaurantes, na ordem informada.
+     *
+     * @param restaurantes todos os restaurantes cadastrados.
+     */
+    public synchronized void reconstruir(List<Restaurante> restaurantes) {
+        ordem.clear();
+        listados.clear();
+        ArrayList<Restaurante> novosAbertos = new ArrayList<>();
+        HashMap<String, ArrayList<Restaurante>> grupos = new HashMap<>();
+        for (Restaurante r : restaurantes) {
+            if (ordem.putIfAbsent(r, ordem.size()) != null || !r.isAberto()) continue;
+            listados.put(r, r.getCategoria());
+            novosAbertos.add(r);
+            grupos.computeIfAbsent(chave(r.getCategoria()), k -> new ArrayList<>()).add(r);
+        }
+
+        HashMap<String, List<Restaurante>> novoPorCategoria = new HashMap<>();
+        for (Map.Entry<String, ArrayList<Restaurante>> e : grupos.entrySet())
+            novoPorCategoria.put(e.getKey(), Collections.unmodifiableList(e.getValue()));
+
+        abertos = Collections.unmodifiableList(novosAbertos);
+        porCategoria = Collections.unmodifiableMap(novoPorCategoria);
+    }
+
+    /**
+     * Retorna os restaurantes abertos. A lista é imutável e não é copiada.
+     *
+     * @return restaurantes abertos, na ordem de cadastro.
+     */
+    public List<Restaurante> obterAbertos() {
+        return abertos;
+    }
+
+    /**
+     * Retorna os restaurantes abertos de uma categoria. A lista é imutável e não é copiada.
+     *
+     * @param categoria categoria desejada.
+     * @return restaurantes abertos da categoria (vazia se não houver).
+     */
+    public List<Restaurante> obterAbertos(String categoria) {
+        return porCategoria.getOrDefault(chave(categoria), Collections.emptyList());
+    }
+
+    /**
+     * Retorna as categorias que têm ao menos um restaurante aberto.
+     *
+     * @return conjunto imutável de categorias.
+     */
+    public Set<String> obterCategorias() {
+        return porCategoria.keySet();
+    }
+
+    private List<Restaurante> com(List<Restaurante> lista, Restaurante r) {
+        ArrayList<Restaurante> nova = new ArrayList<>(lista == null ? 1 : lista.size() + 1);
+        if (lista != null) nova.addAll(lista);
+        int posicao = Collections.binarySearch(nova, r, porOrdem);
+        nova.add(posicao < 0 ? -posicao - 1 : posicao, r);
+        return Collections.unmodifiableList(nova);
+    }
+
+    private static List<Restaurante> sem(List<Restaurante> lista, Restaurante r) {
+        if (lista == null) return Collections.emptyList();
+        ArrayList<Restaurante> nova = new ArrayList<>(lista);
+        nova.remove(r);
+        return Collections.unmodifiableList(nova);
+    }
+
+    private static String chave(String categoria) {
+        return categoria == null ? "" : categoria;
+    }
+}